@@ -16,6 +16,7 @@ import com.earacg.earaconnect.repository.SubCommitteeRepo;
 import com.earacg.earaconnect.repository.CountryCommiteRepo;
 import com.earacg.earaconnect.repository.CountrySubCommitteeRepo;
 import com.earacg.earaconnect.repository.UserRepo;
+import com.earacg.earaconnect.security.PasswordHashingService;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.ApplicationArguments;
@@ -51,6 +52,9 @@ public class DataInitializer implements ApplicationRunner {
     @Autowired
     private UserRepo userRepo;
 
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
     @Override
     public void run(ApplicationArguments args) throws Exception {
         initializeEacData();
@@ -293,7 +297,7 @@ public class DataInitializer implements ApplicationRunner {
         if (userRepo.count() == 0) {
             User adminUser = new User();
             adminUser.setEmail("admin@earaconnect.com");
-            adminUser.setPassword("admin123");
+            adminUser.setPassword(passwordHashingService.encode("admin123"));
             adminUser.setName("System Administrator");
             adminUser.setRole(User.UserRole.ADMIN);
             adminUser.setActive(true);
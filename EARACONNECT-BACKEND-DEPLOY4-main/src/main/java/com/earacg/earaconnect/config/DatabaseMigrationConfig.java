@@ -1,5 +1,10 @@
 package com.earacg.earaconnect.config;
 
+import com.earacg.earaconnect.service.BulkProvisioningService;
+import com.earacg.earaconnect.service.DocumentIndexService;
+import com.earacg.earaconnect.service.NotificationPartitionService;
+import com.earacg.earaconnect.service.MemberCountService;
+import com.earacg.earaconnect.service.PeopleSearchService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
@@ -17,9 +22,76 @@ public class DatabaseMigrationConfig implements CommandLineRunner {
     @Autowired
     private DataSource dataSource;
 
+    @Autowired
+    private NotificationPartitionService notificationPartitionService;
+
+    @Autowired
+    private DocumentIndexService documentIndexService;
+
+    @Autowired
+    private PeopleSearchService peopleSearchService;
+
+    @Autowired
+    private MemberCountService memberCountService;
+
+    @Autowired
+    private BulkProvisioningService bulkProvisioningService;
+
     @Override
     public void run(String... args) throws Exception {
         updateRoleConstraint();
+        partitionNotifications();
+        createDocumentSearchIndex();
+        createPeopleSearchIndexes();
+        createMemberCountIndexes();
+        resumePendingCredentials();
+    }
+
+    private void resumePendingCredentials() {
+        try {
+            bulkProvisioningService.resumePending();
+        } catch (Exception e) {
+            System.err.println("❌ Error resuming pending credential emails: " + e.getMessage());
+            // Affected users can still have their credentials resent individually
+        }
+    }
+
+    private void createMemberCountIndexes() {
+        try {
+            memberCountService.ensureIndexes();
+        } catch (Exception e) {
+            System.err.println("❌ Error creating member count indexes: " + e.getMessage());
+            // Counts are still correct, just computed from the tables
+        }
+    }
+
+    private void createPeopleSearchIndexes() {
+        try {
+            peopleSearchService.ensureIndexes();
+        } catch (Exception e) {
+            System.err.println("❌ Error creating people search indexes: " + e.getMessage());
+            // Search still works, as sequential scans
+        }
+    }
+
+    private void createDocumentSearchIndex() {
+        try {
+            documentIndexService.ensureSearchIndex();
+            documentIndexService.backfill();
+        } catch (Exception e) {
+            System.err.println("❌ Error creating document search index: " + e.getMessage());
+            // Uploads keep working; search stays empty until the index exists
+        }
+    }
+
+    private void partitionNotifications() {
+        try {
+            // Converting the table is an explicit admin step; startup only keeps an existing layout topped up
+            notificationPartitionService.prepareExistingPartitions();
+        } catch (Exception e) {
+            System.err.println("❌ Error creating notification partitions: " + e.getMessage());
+            // Rows for months without a partition land in the default partition
+        }
     }
 
     private void updateRoleConstraint() {
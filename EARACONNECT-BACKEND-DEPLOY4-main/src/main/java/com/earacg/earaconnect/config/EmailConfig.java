@@ -2,11 +2,11 @@
 
 package com.earacg.earaconnect.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.JavaMailSenderImpl;
 
 import java.util.Properties;
 
@@ -26,8 +26,9 @@ public class EmailConfig {
     private String password;
 
     @Bean
-    public JavaMailSender javaMailSender() {
-        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+    public JavaMailSender javaMailSender(MeterRegistry meterRegistry) {
+        // Records SMTP connect and transmit times separately (email.smtp.* meters)
+        InstrumentedJavaMailSender mailSender = new InstrumentedJavaMailSender(meterRegistry);
         
         // Basic configuration
         mailSender.setHost(host);
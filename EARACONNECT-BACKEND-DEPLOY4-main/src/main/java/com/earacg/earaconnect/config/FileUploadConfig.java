@@ -2,6 +2,7 @@ package com.earacg.earaconnect.config;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -41,14 +42,13 @@ public class FileUploadConfig implements WebMvcConfigurer {
 
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        // Serve uploaded files statically
-        registry.addResourceHandler("/files/**")
+        // Serve files uploaded before the storage backend statically. Their URLs carry no fingerprint,
+        // so clients revalidate (Last-Modified) instead of keeping a possibly stale copy.
+        // Fingerprinted, immutable URLs are served by ProfilePictureFileController and DocumentFileController.
+        // Only the flat legacy files at the top of the upload root are exposed: "*" matches a single path
+        // segment, so blobs/, tmp/, .quarantine/ and thumbnails stay behind their controllers.
+        registry.addResourceHandler("/files/*")
                 .addResourceLocations("file:" + uploadDir + "/")
-                .setCachePeriod(3600);
-        
-        // Serve profile pictures with specific cache settings
-        registry.addResourceHandler("/files/profile-pictures/**")
-                .addResourceLocations("file:" + uploadDir + "/profile-pictures/")
-                .setCachePeriod(86400); // 24 hours cache for profile pictures
+                .setCacheControl(CacheControl.noCache());
     }
 }
\ No newline at end of file
@@ -0,0 +1,69 @@
+package com.earacg.earaconnect.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JavaMailSenderImpl that records how long the SMTP connect (TCP, STARTTLS, AUTH)
+ * takes separately from the time spent transmitting messages over the open transport.
+ */
+public class InstrumentedJavaMailSender extends JavaMailSenderImpl {
+
+    private final MeterRegistry meterRegistry;
+
+    // Connect time of the transport opened by the current doSend call
+    private final ThreadLocal<Long> connectNanos = new ThreadLocal<>();
+
+    public InstrumentedJavaMailSender(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected Transport connectTransport() throws MessagingException {
+        long start = System.nanoTime();
+        String outcome = "success";
+        try {
+            return super.connectTransport();
+        } catch (MessagingException | RuntimeException e) {
+            outcome = "failure";
+            throw e;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            connectNanos.set(elapsed);
+            Timer.builder("email.smtp.connect")
+                    .description("Time to open and authenticate an SMTP transport")
+                    .tag("outcome", outcome)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry)
+                    .record(elapsed, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    protected void doSend(MimeMessage[] mimeMessages, Object[] originalMessages) {
+        long start = System.nanoTime();
+        String outcome = "success";
+        try {
+            super.doSend(mimeMessages, originalMessages);
+        } catch (RuntimeException e) {
+            outcome = "failure";
+            throw e;
+        } finally {
+            Long connect = connectNanos.get();
+            connectNanos.remove();
+            long transmit = System.nanoTime() - start - (connect != null ? connect : 0L);
+            Timer.builder("email.smtp.transmit")
+                    .description("Time spent sending messages over an open SMTP transport")
+                    .tag("outcome", outcome)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry)
+                    .record(Math.max(transmit, 0L), TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.earacg.earaconnect.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled background jobs (stream heartbeats, housekeeping)
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
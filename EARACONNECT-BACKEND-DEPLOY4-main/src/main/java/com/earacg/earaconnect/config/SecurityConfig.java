@@ -1,6 +1,12 @@
 package com.earacg.earaconnect.config;
 
 import com.earacg.earaconnect.security.DatabaseUserDetailsService;
+import com.earacg.earaconnect.security.PasswordHashingService;
+import com.earacg.earaconnect.security.RateLimitFilter;
+import com.earacg.earaconnect.security.TokenAuthenticationFilter;
+import com.earacg.earaconnect.security.TokenService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -10,11 +16,12 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.password.NoOpPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
 import org.springframework.security.web.context.SecurityContextRepository;
+import org.springframework.web.filter.CorsFilter;
 
 @Configuration
 @EnableWebSecurity
@@ -22,9 +29,21 @@ import org.springframework.security.web.context.SecurityContextRepository;
 public class SecurityConfig {
 
     private final DatabaseUserDetailsService userDetailsService;
+    private final TokenService tokenService;
+    private final PasswordHashingService passwordHashingService;
+    private final RateLimitFilter rateLimitFilter;
 
-    public SecurityConfig(DatabaseUserDetailsService userDetailsService) {
+    // "session": SecurityContext kept in the HttpSession (sticky sessions needed across nodes)
+    // "token": stateless, every request carries a signed access token
+    @Value("${app.auth.mode:session}")
+    private String authMode;
+
+    public SecurityConfig(DatabaseUserDetailsService userDetailsService, TokenService tokenService,
+                          PasswordHashingService passwordHashingService, RateLimitFilter rateLimitFilter) {
         this.userDetailsService = userDetailsService;
+        this.tokenService = tokenService;
+        this.passwordHashingService = passwordHashingService;
+        this.rateLimitFilter = rateLimitFilter;
     }
 
     @Bean
@@ -32,7 +51,8 @@ public class SecurityConfig {
         http
             .csrf(csrf -> csrf.disable())
             .cors(cors -> {})
-            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.IF_REQUIRED))
+            .sessionManagement(session -> session.sessionCreationPolicy(
+                isTokenMode() ? SessionCreationPolicy.STATELESS : SessionCreationPolicy.IF_REQUIRED))
             .authorizeHttpRequests(auth -> auth
                 // .requestMatchers(
                 //     "/api/auth/**",
@@ -44,22 +64,35 @@ public class SecurityConfig {
                 .anyRequest().permitAll()
 
             )
-            .authenticationProvider(daoAuthenticationProvider());
+            .authenticationProvider(daoAuthenticationProvider())
+            // Throttle login and credential endpoints before any lookup; after CORS so 429s stay readable
+            .addFilterAfter(rateLimitFilter, CorsFilter.class);
+
+        if (isTokenMode()) {
+            http.securityContext(context -> context.securityContextRepository(securityContextRepository()))
+                .addFilterBefore(new TokenAuthenticationFilter(tokenService), UsernamePasswordAuthenticationFilter.class);
+        }
 
         return http.build();
     }
 
+    /**
+     * The rate limit filter runs inside the security chain only, not also as a plain servlet filter
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        // Preserve current behavior: passwords are stored as plaintext in DB
-        return NoOpPasswordEncoder.getInstance();
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration() {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(rateLimitFilter);
+        registration.setEnabled(false);
+        return registration;
     }
 
     @Bean
     public DaoAuthenticationProvider daoAuthenticationProvider() {
         DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
         provider.setUserDetailsService(userDetailsService);
-        provider.setPasswordEncoder(passwordEncoder());
+        // BCrypt on a bounded pool; plaintext rows are rehashed through the password service on login
+        provider.setPasswordEncoder(passwordHashingService);
+        provider.setUserDetailsPasswordService(userDetailsService);
         return provider;
     }
 
@@ -70,7 +103,12 @@ public class SecurityConfig {
 
     @Bean
     public SecurityContextRepository securityContextRepository() {
-        return new HttpSessionSecurityContextRepository();
+        // Token mode never stores the context between requests
+        return isTokenMode() ? new RequestAttributeSecurityContextRepository() : new HttpSessionSecurityContextRepository();
+    }
+
+    private boolean isTokenMode() {
+        return "token".equalsIgnoreCase(authMode);
     }
 }
 
@@ -0,0 +1,64 @@
+package com.earacg.earaconnect.config;
+
+import com.earacg.earaconnect.service.S3Storage;
+import com.earacg.earaconnect.service.ShardedFileSystemStorage;
+import com.earacg.earaconnect.service.StorageBackend;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+import software.amazon.awssdk.services.s3.S3Configuration;
+
+import java.net.URI;
+
+/**
+ * Chooses the storage driver for uploaded files (app.storage.type)
+ */
+@Configuration
+public class StorageConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "app.storage.type", havingValue = "filesystem", matchIfMissing = true)
+    public StorageBackend fileSystemStorage(@Value("${app.file.upload-dir:uploads}") String uploadDir) {
+        return new ShardedFileSystemStorage(uploadDir);
+    }
+
+    /**
+     * S3 or any S3-compatible store. Set app.storage.s3.endpoint (e.g. http://localhost:9000 for MinIO)
+     * to use path-style addressing against a non-AWS endpoint.
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "app.storage.type", havingValue = "s3")
+    public S3Client s3Client(
+            @Value("${app.storage.s3.endpoint:}") String endpoint,
+            @Value("${app.storage.s3.region:us-east-1}") String region,
+            @Value("${app.storage.s3.access-key:}") String accessKey,
+            @Value("${app.storage.s3.secret-key:}") String secretKey) {
+        S3ClientBuilder builder = S3Client.builder().region(Region.of(region));
+        if (!endpoint.isBlank()) {
+            builder.endpointOverride(URI.create(endpoint))
+                    .serviceConfiguration(S3Configuration.builder().pathStyleAccessEnabled(true).build());
+        }
+        if (!accessKey.isBlank()) {
+            builder.credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey)));
+        } else {
+            builder.credentialsProvider(DefaultCredentialsProvider.builder().build());
+        }
+        return builder.build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.storage.type", havingValue = "s3")
+    public StorageBackend s3Storage(
+            S3Client s3Client,
+            @Value("${app.storage.s3.bucket}") String bucket,
+            @Value("${app.storage.s3.prefix:}") String prefix) {
+        return new S3Storage(s3Client, bucket, prefix);
+    }
+}
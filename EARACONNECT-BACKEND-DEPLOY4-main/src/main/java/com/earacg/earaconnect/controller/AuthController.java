@@ -1,9 +1,17 @@
 package com.earacg.earaconnect.controller;
 
 import com.earacg.earaconnect.model.User;
+import com.earacg.earaconnect.security.CustomUserDetails;
+import com.earacg.earaconnect.security.PasswordHashingService;
+import com.earacg.earaconnect.security.TokenClaims;
+import com.earacg.earaconnect.security.TokenService;
 import com.earacg.earaconnect.service.UserService;
 import com.earacg.earaconnect.service.EmailService;
+import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -32,6 +40,12 @@ public class AuthController {
     @Autowired
     private AuthenticationManager authenticationManager;
     
+    @Autowired
+    private TokenService tokenService;
+    
+    @Value("${app.auth.mode:session}")
+    private String authMode;
+    
     @PostMapping("/login")
     public ResponseEntity<?> login(@RequestBody Map<String, String> loginRequest, HttpServletRequest request) {
         String email = loginRequest.get("email");
@@ -47,32 +61,83 @@ public class AuthController {
             );
             if (authentication != null && authentication.isAuthenticated()) {
             
-            // Preserve original side effects on successful login
-            userService.recordSuccessfulLogin(email);
-            
-            // Persist authentication in session for subsequent requests
             SecurityContext context = SecurityContextHolder.createEmptyContext();
             context.setAuthentication(authentication);
             SecurityContextHolder.setContext(context);
-            request.setAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY, context);
-            if (request.getSession(false) == null) {
-                request.getSession(true).setAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY, context);
+            if (!isTokenMode()) {
+                // Persist authentication in session for subsequent requests
+                request.setAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY, context);
+                if (request.getSession(false) == null) {
+                    request.getSession(true).setAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY, context);
+                }
             }
 
-            User user = userService.getUserByEmail(email).orElse(null);
-            if (user != null) {
+            // The principal's user is shared through PrincipalCache, so update and return a copy of it
+            User cached = authentication.getPrincipal() instanceof CustomUserDetails details
+                    ? details.getDomainUser()
+                    : userService.getUserByEmail(email).orElse(null);
+            if (cached != null) {
+                User user = new User();
+                BeanUtils.copyProperties(cached, user);
+                // Preserve original side effects on successful login
+                userService.recordSuccessfulLogin(user);
+                user.setLastLogin(java.time.LocalDateTime.now());
+                user.setFirstLogin(false);
                 Map<String, Object> response = new HashMap<>();
                 response.put("success", true);
                 response.put("user", user);
+                if (isTokenMode()) {
+                    response.putAll(issueTokens(user));
+                }
                 return ResponseEntity.ok(response);
             }
             }
+        } catch (PasswordHashingService.HashingCapacityException ex) {
+            // Hashing pool saturated (login storm): ask the client to retry rather than queueing
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(Map.of("error", ex.getMessage()));
         } catch (Exception ex) {
             // fall through to error response
         }
         return ResponseEntity.badRequest().body(Map.of("error", "Invalid credentials"));
     }
     
+    /**
+     * Exchange a refresh token for a new access/refresh pair (token mode).
+     * The user is re-read here, so a deactivated account stops getting access tokens.
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@RequestBody Map<String, String> refreshRequest) {
+        if (!isTokenMode()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Token authentication is not enabled"));
+        }
+        TokenClaims claims = tokenService.verify(refreshRequest.get("refreshToken"), TokenService.REFRESH).orElse(null);
+        if (claims == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "Invalid or expired refresh token"));
+        }
+        User user = userService.getUserById(claims.getUserId()).orElse(null);
+        if (user == null || !user.isActive()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "Account is not active"));
+        }
+        Map<String, Object> response = new HashMap<>(issueTokens(user));
+        response.put("success", true);
+        return ResponseEntity.ok(response);
+    }
+    
+    private Map<String, Object> issueTokens(User user) {
+        return Map.of(
+            "accessToken", tokenService.issueAccessToken(user),
+            "refreshToken", tokenService.issueRefreshToken(user),
+            "tokenType", "Bearer",
+            "expiresIn", tokenService.getAccessTtl().toSeconds()
+        );
+    }
+    
+    private boolean isTokenMode() {
+        return "token".equalsIgnoreCase(authMode);
+    }
+    
     @PostMapping("/logout")
     public ResponseEntity<?> logout(HttpServletRequest request, HttpServletResponse response) {
         try {
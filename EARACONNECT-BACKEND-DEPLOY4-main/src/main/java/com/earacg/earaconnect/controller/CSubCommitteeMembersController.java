@@ -1,18 +1,20 @@
 package com.earacg.earaconnect.controller;
 
+import com.earacg.earaconnect.dto.BulkMemberRow;
 import com.earacg.earaconnect.model.CSubCommitteeMembers;
 import com.earacg.earaconnect.model.Document;
+import com.earacg.earaconnect.service.BulkProvisioningService;
 import com.earacg.earaconnect.service.CSubCommitteeMembersService;
+import com.earacg.earaconnect.service.DocumentDownloadService;
 import com.earacg.earaconnect.service.DocumentService;
+import com.earacg.earaconnect.service.MemberCountService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -20,11 +22,15 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 
 @RestController
 @RequestMapping("/api/country-committee-members")
@@ -33,8 +39,13 @@ import java.util.HashMap;
 public class CSubCommitteeMembersController {
 
     private final CSubCommitteeMembersService service;
+    private final DocumentDownloadService documentDownloadService;
     private final DocumentService documentService;
     private final ObjectMapper objectMapper;
+    private final BulkProvisioningService bulkProvisioningService;
+    private final MemberCountService memberCountService;
+
+    private static final int MAX_BATCH_SIZE = 500;
 
     /**
      * Create new committee member
@@ -120,6 +131,61 @@ public class CSubCommitteeMembersController {
         }
     }
 
+    /**
+     * Bulk onboarding from a JSON array of rows. All rows are validated first; on any error
+     * nothing is written and every row error is returned. Credentials for new accounts are
+     * emailed in the background; poll GET /bulk/jobs/{jobId} for progress.
+     */
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> bulkProvision(@RequestBody List<BulkMemberRow> rows) {
+        return provision(() -> rows);
+    }
+
+    /**
+     * Bulk onboarding from CSV sent as the request body (text/csv)
+     */
+    @PostMapping(value = "/bulk", consumes = "text/csv")
+    public ResponseEntity<?> bulkProvisionCsv(@RequestBody String csv) {
+        return provision(() -> bulkProvisioningService.parseCsv(new StringReader(csv)));
+    }
+
+    /**
+     * Bulk onboarding from an uploaded CSV file (multipart field "file")
+     */
+    @PostMapping(value = "/bulk", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> bulkProvisionCsvFile(@RequestParam("file") MultipartFile file) {
+        return provision(() -> bulkProvisioningService.parseCsv(
+                new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8)));
+    }
+
+    @GetMapping("/bulk/jobs/{jobId}")
+    public ResponseEntity<?> getBulkJob(@PathVariable String jobId) {
+        BulkProvisioningService.ProvisioningJob job = bulkProvisioningService.getJob(jobId);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(job);
+    }
+
+    private ResponseEntity<?> provision(RowSource source) {
+        try {
+            BulkProvisioningService.ProvisioningResult result = bulkProvisioningService.provision(source.rows());
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(result);
+        } catch (BulkProvisioningService.BulkValidationException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage(), "errors", e.getErrors()));
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Could not read CSV: " + e.getMessage()));
+        } catch (Exception e) {
+            log.error("Bulk provisioning failed", e);
+            return ResponseEntity.internalServerError().body(Map.of("error", "Bulk provisioning failed: " + e.getMessage()));
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowSource {
+        List<BulkMemberRow> rows() throws IOException;
+    }
+
     // Keep all other existing methods unchanged...
     @GetMapping
     public ResponseEntity<Page<CSubCommitteeMembers>> getAllMembers(
@@ -164,84 +230,81 @@ public class CSubCommitteeMembersController {
     }
 
     @GetMapping("/{id}/appointment-letter")
-    public ResponseEntity<Resource> downloadAppointmentLetter(
+    public void downloadAppointmentLetter(
             @PathVariable Long id,
-            HttpServletRequest request) {
-        
-        try {
-            CSubCommitteeMembers member = service.findById(id);
-            
-            if (member.getAppointedLetterDoc() == null) {
-                return ResponseEntity.notFound().build();
-            }
-            
-            Document document = member.getAppointedLetterDoc();
-            Resource resource = documentService.loadFileAsResource(document.getStoredFilename());
-            
-            String contentType = null;
-            try {
-                contentType = request.getServletContext().getMimeType(resource.getFile().getAbsolutePath());
-            } catch (IOException ex) {
-                log.info("Could not determine file type.");
-            }
-            
-            if (contentType == null) {
-                contentType = document.getContentType();
-                if (contentType == null) {
-                    contentType = "application/octet-stream";
-                }
-            }
-            
-            return ResponseEntity.ok()
-                    .contentType(MediaType.parseMediaType(contentType))
-                    .header(HttpHeaders.CONTENT_DISPOSITION, 
-                            "attachment; filename=\"" + document.getOriginalFilename() + "\"")
-                    .body(resource);
-                    
-        } catch (Exception e) {
-            log.error("Error downloading appointment letter", e);
-            return ResponseEntity.notFound().build();
-        }
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        serveAppointmentLetter(id, true, request, response);
     }
 
     @GetMapping("/{id}/appointment-letter/view")
-    public ResponseEntity<Resource> viewAppointmentLetter(
+    public void viewAppointmentLetter(
             @PathVariable Long id,
-            HttpServletRequest request) {
-        
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        serveAppointmentLetter(id, false, request, response);
+    }
+
+    /**
+     * Stream the member's appointment letter with Range and ETag support
+     */
+    private void serveAppointmentLetter(Long id, boolean attachment,
+            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Document document;
         try {
-            CSubCommitteeMembers member = service.findById(id);
-            
-            if (member.getAppointedLetterDoc() == null) {
-                return ResponseEntity.notFound().build();
-            }
-            
-            Document document = member.getAppointedLetterDoc();
-            Resource resource = documentService.loadFileAsResource(document.getStoredFilename());
-            
-            String contentType = null;
-            try {
-                contentType = request.getServletContext().getMimeType(resource.getFile().getAbsolutePath());
-            } catch (IOException ex) {
-                log.info("Could not determine file type.");
-            }
-            
-            if (contentType == null) {
-                contentType = document.getContentType();
-                if (contentType == null) {
-                    contentType = "application/octet-stream";
-                }
-            }
-            
-            return ResponseEntity.ok()
-                    .contentType(MediaType.parseMediaType(contentType))
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "inline")
-                    .body(resource);
-                    
+            document = service.findAppointmentLetter(id);
         } catch (Exception e) {
-            log.error("Error viewing appointment letter", e);
+            log.error("Error loading appointment letter for member {}", id, e);
+            document = null;
+        }
+        
+        if (document == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        
+        documentDownloadService.serve(document, attachment, request, response);
+    }
+
+    /**
+     * Appointment letter metadata for one member
+     */
+    @GetMapping("/{id}/appointment-letter/metadata")
+    public ResponseEntity<?> getAppointmentLetterMetadata(@PathVariable Long id) {
+        Document document = service.findAppointmentLetter(id);
+        if (document == null) {
             return ResponseEntity.notFound().build();
         }
+        return ResponseEntity.ok(letterMetadata(id, document));
+    }
+
+    /**
+     * Appointment letter metadata for many members in one call, keyed by member id.
+     * Members without a letter are omitted.
+     */
+    @GetMapping("/appointment-letters/metadata")
+    public ResponseEntity<?> getAppointmentLetterMetadataBatch(@RequestParam("memberIds") List<Long> memberIds) {
+        if (memberIds.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "At most " + MAX_BATCH_SIZE + " member ids per request"));
+        }
+        Map<Long, Map<String, Object>> metadata = new LinkedHashMap<>();
+        service.findAppointmentLetters(memberIds)
+                .forEach((memberId, document) -> metadata.put(memberId, letterMetadata(memberId, document)));
+        return ResponseEntity.ok(metadata);
+    }
+
+    private Map<String, Object> letterMetadata(Long memberId, Document document) {
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        metadata.put("documentId", document.getId());
+        metadata.put("originalFilename", document.getOriginalFilename());
+        metadata.put("contentType", document.getContentType());
+        metadata.put("fileSize", document.getFileSize());
+        metadata.put("uploadDate", document.getUploadDate());
+        metadata.put("fileUrl", documentService.fileUrl(document));
+        metadata.put("downloadUrl", "/api/country-committee-members/" + memberId + "/appointment-letter");
+        metadata.put("viewUrl", "/api/country-committee-members/" + memberId + "/appointment-letter/view");
+        return metadata;
     }
 
     @GetMapping("/search")
@@ -296,13 +359,14 @@ public class CSubCommitteeMembersController {
     @GetMapping("/sub-committee/{subCommitteeId}/count")
     public ResponseEntity<Map<String, Object>> getSubcommitteeMemberCount(@PathVariable Long subCommitteeId) {
         try {
-            List<CSubCommitteeMembers> members = service.findBySubCommitteeId(subCommitteeId);
-            Map<String, Object> response = Map.of(
+            MemberCountService.SubcommitteeCount count = memberCountService.getSubcommitteeCount(subCommitteeId);
+            if (count == null) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Subcommittee not found"));
+            }
+            return ResponseEntity.ok(Map.of(
                 "subCommitteeId", subCommitteeId,
-                "memberCount", members.size(),
-                "members", members
-            );
-            return ResponseEntity.ok(response);
+                "memberCount", count.memberCount()
+            ));
         } catch (Exception e) {
             log.error("Error getting subcommittee member count for ID: " + subCommitteeId, e);
             return ResponseEntity.internalServerError().build();
@@ -310,21 +374,20 @@ public class CSubCommitteeMembersController {
     }
 
     /**
-     * Get member count for a specific committee
+     * Get member count for a specific committee (members of all its subcommittees)
      * GET /api/country-committee-members/committee/{committeeId}/count
      */
     @GetMapping("/committee/{committeeId}/count")
     public ResponseEntity<Map<String, Object>> getCommitteeMemberCount(@PathVariable Long committeeId) {
         try {
-            // For now, return all members since the data model stores all members as CSubCommitteeMembers
-            // This is a workaround until the committee-member relationship is properly established
-            List<CSubCommitteeMembers> allMembers = service.findAll();
-            Map<String, Object> response = Map.of(
+            MemberCountService.CommitteeCount count = memberCountService.getCommitteeCount(committeeId);
+            if (count == null) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Committee not found"));
+            }
+            return ResponseEntity.ok(Map.of(
                 "committeeId", committeeId,
-                "memberCount", allMembers.size(),
-                "members", allMembers
-            );
-            return ResponseEntity.ok(response);
+                "memberCount", count.memberCount()
+            ));
         } catch (Exception e) {
             log.error("Error getting committee member count for ID: " + committeeId, e);
             return ResponseEntity.internalServerError().build();
@@ -338,23 +401,14 @@ public class CSubCommitteeMembersController {
     @GetMapping("/committees/with-counts")
     public ResponseEntity<List<Map<String, Object>>> getAllCommitteesWithMemberCounts() {
         try {
-            // This is a temporary solution - in the future, we should have a proper committee-member relationship
-            List<CSubCommitteeMembers> allMembers = service.findAll();
-            
-            // For now, return the two main committees with distributed member counts
-            List<Map<String, Object>> committeesWithCounts = List.of(
-                Map.of(
-                    "id", 1L,
-                    "name", "Commissioner General",
-                    "memberCount", Math.ceil(allMembers.size() / 2.0)
-                ),
-                Map.of(
-                    "id", 2L,
-                    "name", "Head Of Delegation",
-                    "memberCount", Math.floor(allMembers.size() / 2.0)
-                )
-            );
-            
+            List<Map<String, Object>> committeesWithCounts = new ArrayList<>();
+            for (MemberCountService.CommitteeCount count : memberCountService.getCommitteeCounts()) {
+                Map<String, Object> committee = new LinkedHashMap<>();
+                committee.put("id", count.id());
+                committee.put("name", count.name());
+                committee.put("memberCount", count.memberCount());
+                committeesWithCounts.add(committee);
+            }
             return ResponseEntity.ok(committeesWithCounts);
         } catch (Exception e) {
             log.error("Error getting committees with member counts", e);
@@ -369,29 +423,14 @@ public class CSubCommitteeMembersController {
     @GetMapping("/subcommittees/with-counts")
     public ResponseEntity<List<Map<String, Object>>> getAllSubcommitteesWithMemberCounts() {
         try {
-            // Get all subcommittees from the SubCommittee table
-            // For now, we'll use a hardcoded list and get member counts for each
-            List<Map<String, Object>> subcommittees = List.of(
-                Map.of("id", 1L, "name", "Head Of Delegation"),
-                Map.of("id", 2L, "name", "Domestic Revenue Sub Committee"),
-                Map.of("id", 3L, "name", "Customs Revenue Sub Committee"),
-                Map.of("id", 4L, "name", "IT Sub Committee"),
-                Map.of("id", 5L, "name", "Legal Sub Committee"),
-                Map.of("id", 6L, "name", "HR Sub Committee"),
-                Map.of("id", 7L, "name", "Research Sub Committee")
-            );
-            
             List<Map<String, Object>> subcommitteesWithCounts = new ArrayList<>();
-            
-            for (Map<String, Object> subcommittee : subcommittees) {
-                Long subcommitteeId = (Long) subcommittee.get("id");
-                List<CSubCommitteeMembers> members = service.findBySubCommitteeId(subcommitteeId);
-                
-                Map<String, Object> subcommitteeWithCount = new HashMap<>(subcommittee);
-                subcommitteeWithCount.put("memberCount", members.size());
-                subcommitteesWithCounts.add(subcommitteeWithCount);
+            for (MemberCountService.SubcommitteeCount count : memberCountService.getSubcommitteeCounts()) {
+                Map<String, Object> subcommittee = new LinkedHashMap<>();
+                subcommittee.put("id", count.id());
+                subcommittee.put("name", count.name());
+                subcommittee.put("memberCount", count.memberCount());
+                subcommitteesWithCounts.add(subcommittee);
             }
-            
             return ResponseEntity.ok(subcommitteesWithCounts);
         } catch (Exception e) {
             log.error("Error getting subcommittees with member counts", e);
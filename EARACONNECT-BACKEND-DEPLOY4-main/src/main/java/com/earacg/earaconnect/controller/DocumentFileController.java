@@ -0,0 +1,58 @@
+package com.earacg.earaconnect.controller;
+
+import com.earacg.earaconnect.model.Document;
+import com.earacg.earaconnect.service.DocumentDownloadService;
+import com.earacg.earaconnect.service.DocumentService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+/**
+ * Serves documents at content-fingerprinted URLs (see DocumentService.fileUrl).
+ * The digest is in the path, so responses are immutable and browsers never revalidate them.
+ */
+@RestController
+@RequestMapping("/files/documents")
+@RequiredArgsConstructor
+public class DocumentFileController {
+
+    private static final String IMMUTABLE = "private, max-age=31536000, immutable";
+
+    private final DocumentService documentService;
+    private final DocumentDownloadService documentDownloadService;
+
+    /**
+     * GET /files/documents/{sha256}{ext}
+     */
+    @GetMapping("/{filename:.+}")
+    public void getDocument(@PathVariable String filename,
+                            HttpServletRequest request,
+                            HttpServletResponse response) throws IOException {
+        int dot = filename.indexOf('.');
+        String fingerprint = dot == -1 ? filename : filename.substring(0, dot);
+        if (!fingerprint.matches("[0-9a-f]{64}")) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        // The ETag is the digest itself, so a revalidation is answered without touching the store
+        String etag = "\"" + fingerprint + "\"";
+        String ifNoneMatch = request.getHeader("If-None-Match");
+        if (ifNoneMatch != null && (ifNoneMatch.contains(etag) || ifNoneMatch.trim().equals("*"))) {
+            response.setHeader("ETag", etag);
+            response.setHeader("Cache-Control", IMMUTABLE);
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        Document document = documentService.findByContentHash(fingerprint);
+        if (document == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        documentDownloadService.serve(document, false, IMMUTABLE, request, response);
+    }
+}
@@ -0,0 +1,40 @@
+package com.earacg.earaconnect.controller;
+
+import com.earacg.earaconnect.service.DocumentIndexService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/documents")
+@RequiredArgsConstructor
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:3001"})
+public class DocumentSearchController {
+
+    private static final int MAX_LIMIT = 100;
+
+    private final DocumentIndexService documentIndexService;
+
+    /**
+     * Search the text of appointment letters and meeting invitations.
+     * q accepts web-search syntax ("quoted phrase", -excluded, or); entityType is CommitteeMember or Meeting.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<?> search(@RequestParam("q") String query,
+                                    @RequestParam(value = "entityType", required = false) String entityType,
+                                    @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        if (query == null || query.trim().isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Search query is required"));
+        }
+        try {
+            List<Map<String, Object>> results = documentIndexService.search(query.trim(), entityType,
+                    Math.max(1, Math.min(limit, MAX_LIMIT)));
+            return ResponseEntity.ok(results);
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(Map.of("error", "Document search failed: " + e.getMessage()));
+        }
+    }
+}
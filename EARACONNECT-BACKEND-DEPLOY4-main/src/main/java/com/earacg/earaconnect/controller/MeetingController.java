@@ -77,11 +77,15 @@ public class MeetingController {
             @PathVariable Long meetingId,
             @RequestParam("invitationPdf") MultipartFile invitationPdf) {
         
-        Meeting updatedMeeting = meetingService.uploadInvitationPdf(meetingId, invitationPdf);
-        if (updatedMeeting != null) {
-            return ResponseEntity.ok(updatedMeeting);
+        try {
+            Meeting updatedMeeting = meetingService.uploadInvitationPdf(meetingId, invitationPdf);
+            if (updatedMeeting != null) {
+                return ResponseEntity.ok(updatedMeeting);
+            }
+            return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         }
-        return ResponseEntity.notFound().build();
     }
     
     @PutMapping("/{id}")
@@ -0,0 +1,40 @@
+package com.earacg.earaconnect.controller;
+
+import com.earacg.earaconnect.service.NotificationPartitionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/notifications")
+@RequiredArgsConstructor
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:3001"})
+public class NotificationAdminController {
+
+    private final NotificationPartitionService notificationPartitionService;
+
+    /**
+     * One-off conversion of the notifications table to monthly partitions (requires
+     * app.notifications.partitioning.enabled=true). Locks the table while rows are copied;
+     * the old table is kept as notifications_legacy until dropped by hand.
+     */
+    @PostMapping("/partition")
+    public ResponseEntity<?> partitionNotifications() {
+        try {
+            int copied = notificationPartitionService.migrateToPartitionedTable();
+            return ResponseEntity.ok(Map.of(
+                "success", true,
+                "message", copied < 0
+                        ? "Notifications table is already partitioned"
+                        : "Copied " + copied + " notifications; notifications_legacy is kept until dropped manually"
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "success", false,
+                "error", "Failed to partition notifications: " + e.getMessage()
+            ));
+        }
+    }
+}
@@ -2,9 +2,13 @@ package com.earacg.earaconnect.controller;
 
 import com.earacg.earaconnect.model.Notification;
 import com.earacg.earaconnect.service.NotificationService;
+import com.earacg.earaconnect.service.NotificationStreamService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -16,11 +20,48 @@ public class NotificationController {
     @Autowired
     private NotificationService notificationService;
     
+    @Autowired
+    private NotificationStreamService notificationStreamService;
+    
+    /**
+     * Server-sent event stream of notification, report and meeting events for a user.
+     * EventSource resends Last-Event-ID on reconnect; lastEventId is accepted for manual resumes.
+     */
+    @GetMapping(value = "/user/{userId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamNotifications(
+            @PathVariable Long userId,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader,
+            @RequestParam(value = "lastEventId", required = false) String lastEventIdParam) {
+        String lastEventId = lastEventIdHeader != null ? lastEventIdHeader : lastEventIdParam;
+        return notificationStreamService.subscribe(userId, lastEventId);
+    }
+    
     @GetMapping("/user/{userId}")
     public ResponseEntity<List<Notification>> getUserNotifications(@PathVariable Long userId) {
         return ResponseEntity.ok(notificationService.getUserNotifications(userId));
     }
     
+    /**
+     * Newest notifications first, one page at a time. The body stays a plain array;
+     * the cursor for the next page is returned in the X-Next-Cursor header when more exist.
+     */
+    @GetMapping("/user/{userId}/page")
+    public ResponseEntity<?> getUserNotificationsPage(
+            @PathVariable Long userId,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "cursor", required = false) String cursor) {
+        try {
+            NotificationService.NotificationPage page = notificationService.getUserNotificationsPage(userId, limit, cursor);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.getNextCursor() != null) {
+                response.header("X-Next-Cursor", page.getNextCursor());
+            }
+            return response.body(page.getItems());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+    
     @GetMapping("/user/{userId}/unread")
     public ResponseEntity<List<Notification>> getUnreadNotifications(@PathVariable Long userId) {
         return ResponseEntity.ok(notificationService.getUnreadNotifications(userId));
@@ -42,9 +83,59 @@ public class NotificationController {
     }
     
     @PostMapping("/user/{userId}/mark-all-read")
-    public ResponseEntity<Map<String, String>> markAllAsRead(@PathVariable Long userId) {
-        notificationService.markAllAsRead(userId);
-        return ResponseEntity.ok(Map.of("message", "All notifications marked as read"));
+    public ResponseEntity<Map<String, Object>> markAllAsRead(@PathVariable Long userId) {
+        int updated = notificationService.markAllAsRead(userId);
+        return ResponseEntity.ok(Map.of("message", "All notifications marked as read", "updated", updated));
+    }
+    
+    /**
+     * Create the same notification for many users in one statement
+     * Body: { userIds: [..], title, message, type, relatedEntityType, relatedEntityId }
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<Map<String, Object>> createBulkNotifications(@RequestBody Map<String, Object> request) {
+        try {
+            List<Long> userIds = ((List<?>) request.get("userIds")).stream()
+                    .map(id -> Long.valueOf(id.toString()))
+                    .toList();
+            String title = (String) request.get("title");
+            String message = (String) request.get("message");
+            if (title == null || message == null) {
+                return ResponseEntity.badRequest().body(Map.of("error", "title and message are required"));
+            }
+            Notification.NotificationType type = request.get("type") != null
+                    ? Notification.NotificationType.valueOf(request.get("type").toString().toUpperCase())
+                    : Notification.NotificationType.GENERAL_ANNOUNCEMENT;
+            Long relatedEntityId = request.get("relatedEntityId") != null
+                    ? Long.valueOf(request.get("relatedEntityId").toString())
+                    : null;
+            
+            int created = notificationService.createNotifications(userIds, title, message, type,
+                    (String) request.get("relatedEntityType"), relatedEntityId);
+            return ResponseEntity.ok(Map.of("created", created));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Failed to create notifications: " + e.getMessage()));
+        }
+    }
+    
+    /**
+     * Bulk delete by age and/or type
+     * DELETE /api/notifications/bulk?olderThanDays=90&type=GENERAL_ANNOUNCEMENT
+     */
+    @DeleteMapping("/bulk")
+    public ResponseEntity<Map<String, Object>> deleteBulkNotifications(
+            @RequestParam(required = false) Integer olderThanDays,
+            @RequestParam(required = false) String type) {
+        try {
+            LocalDateTime cutoff = olderThanDays != null ? LocalDateTime.now().minusDays(olderThanDays) : null;
+            Notification.NotificationType notificationType = type != null
+                    ? Notification.NotificationType.valueOf(type.toUpperCase())
+                    : null;
+            int deleted = notificationService.deleteNotifications(cutoff, notificationType);
+            return ResponseEntity.ok(Map.of("deleted", deleted));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
     }
     
     @DeleteMapping("/{notificationId}")
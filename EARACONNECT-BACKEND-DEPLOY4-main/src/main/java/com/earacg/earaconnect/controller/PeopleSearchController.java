@@ -0,0 +1,46 @@
+package com.earacg.earaconnect.controller;
+
+import com.earacg.earaconnect.service.PeopleSearchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/people")
+@RequiredArgsConstructor
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:3001"})
+public class PeopleSearchController {
+
+    private static final int MAX_LIMIT = 50;
+    private static final Set<String> TYPES = Set.of(
+            PeopleSearchService.MEMBERS, PeopleSearchService.COMMISSIONERS, PeopleSearchService.USERS);
+
+    private final PeopleSearchService peopleSearchService;
+
+    /**
+     * Fuzzy search over name, email and position for member pickers and search boxes.
+     * type is member, commissioner or user (all when omitted); prefix matches rank first.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<?> search(@RequestParam("q") String query,
+                                    @RequestParam(value = "type", required = false) String type,
+                                    @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        if (query == null || query.trim().isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Search query is required"));
+        }
+        if (type != null && !TYPES.contains(type)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "type must be one of " + TYPES));
+        }
+        try {
+            List<Map<String, Object>> results = peopleSearchService.search(query, type,
+                    Math.max(1, Math.min(limit, MAX_LIMIT)));
+            return ResponseEntity.ok(results);
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(Map.of("error", "People search failed: " + e.getMessage()));
+        }
+    }
+}
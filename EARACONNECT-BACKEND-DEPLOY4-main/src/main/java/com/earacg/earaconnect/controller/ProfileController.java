@@ -35,7 +35,8 @@ public class ProfileController {
             Map<String, Object> response = Map.of(
                 "success", true,
                 "message", "Profile picture uploaded successfully",
-                "profilePictureUrl", profilePictureUrl
+                "profilePictureUrl", profilePictureUrl,
+                "thumbnails", profilePictureService.getThumbnailUrls(profilePictureUrl)
             );
             
             return ResponseEntity.ok(response);
@@ -89,7 +90,8 @@ public class ProfileController {
             
             Map<String, Object> response = Map.of(
                 "success", true,
-                "profilePictureUrl", profilePictureUrl
+                "profilePictureUrl", profilePictureUrl,
+                "thumbnails", profilePictureService.getThumbnailUrls(profilePictureUrl)
             );
             
             return ResponseEntity.ok(response);
@@ -0,0 +1,102 @@
+package com.earacg.earaconnect.controller;
+
+import com.earacg.earaconnect.service.ProfilePictureDerivativeService;
+import com.earacg.earaconnect.service.ProfilePictureService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves profile pictures and their thumbnails from the storage backend.
+ * New file names embed the content hash, so those responses are cacheable forever.
+ */
+@RestController
+@RequestMapping("/files/profile-pictures")
+@RequiredArgsConstructor
+@Slf4j
+public class ProfilePictureFileController {
+
+    private final ProfilePictureDerivativeService derivativeService;
+    private final ProfilePictureService profilePictureService;
+
+    /**
+     * GET /files/profile-pictures/{filename}
+     */
+    @GetMapping("/{filename:.+}")
+    public ResponseEntity<Resource> getPicture(
+            @PathVariable String filename,
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        // Hash-named pictures never change: the ETag is the digest from the name and revalidation needs no I/O
+        String fingerprint = ProfilePictureService.fingerprintOf(filename);
+        String etag = fingerprint != null ? "\"" + fingerprint + "\"" : null;
+        CacheControl immutable = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+        if (etag != null && etag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(304).eTag(etag).cacheControl(immutable).build();
+        }
+
+        try {
+            Resource picture = profilePictureService.openPicture(filename);
+            if (picture == null) {
+                return ResponseEntity.notFound().build();
+            }
+            // Older random names are unique per upload but are not fingerprinted, so they must revalidate
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .contentType(MediaTypeFactory.getMediaType(filename).orElse(MediaType.APPLICATION_OCTET_STREAM));
+            if (etag != null) {
+                response.eTag(etag).cacheControl(immutable);
+            } else {
+                response.cacheControl(CacheControl.noCache());
+            }
+            return response.body(picture);
+        } catch (IOException e) {
+            log.error("Error serving profile picture {}", filename, e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * GET /files/profile-pictures/thumbs/{size}/{key}.jpg
+     */
+    @GetMapping("/thumbs/{size}/{key}.jpg")
+    public ResponseEntity<byte[]> getThumbnail(
+            @PathVariable int size,
+            @PathVariable String key,
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        String etag = "\"" + key + "-" + size + "\"";
+        CacheControl immutable = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+
+        if (etag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(304).eTag(etag).cacheControl(immutable).build();
+        }
+
+        try {
+            byte[] thumbnail = derivativeService.getThumbnail(key, size);
+            if (thumbnail == null) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok()
+                    .contentType(MediaType.IMAGE_JPEG)
+                    .eTag(etag)
+                    .cacheControl(immutable)
+                    .body(thumbnail);
+        } catch (ProfilePictureDerivativeService.ThumbnailBusyException e) {
+            // Generation pool saturated: the client retries or falls back to the original
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "2")
+                    .build();
+        } catch (IOException e) {
+            log.error("Error serving {}px thumbnail for {}", size, key, e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+}
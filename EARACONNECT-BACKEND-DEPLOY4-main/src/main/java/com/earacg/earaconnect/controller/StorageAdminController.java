@@ -0,0 +1,36 @@
+package com.earacg.earaconnect.controller;
+
+import com.earacg.earaconnect.service.UploadGarbageCollector;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/storage")
+@RequiredArgsConstructor
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:3001"})
+public class StorageAdminController {
+
+    private final UploadGarbageCollector uploadGarbageCollector;
+
+    /**
+     * Run the orphaned upload collector now; dryRun=true only reports what would be retired
+     */
+    @PostMapping("/gc")
+    public ResponseEntity<?> collectOrphans(@RequestParam(value = "dryRun", defaultValue = "true") boolean dryRun) {
+        try {
+            UploadGarbageCollector.GcReport report = uploadGarbageCollector.collect(dryRun);
+            return ResponseEntity.ok(Map.of(
+                "success", true,
+                "report", report
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "success", false,
+                "error", "Failed to collect orphaned uploads: " + e.getMessage()
+            ));
+        }
+    }
+}
@@ -1,12 +1,20 @@
 package com.earacg.earaconnect.controller;
 
+import com.earacg.earaconnect.dto.UserDirectoryEntry;
 import com.earacg.earaconnect.model.User;
+import com.earacg.earaconnect.service.ActivityTracker;
 import com.earacg.earaconnect.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import java.time.Instant;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/users")
@@ -16,11 +24,77 @@ public class UserController {
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private ActivityTracker activityTracker;
+    
+    private static final int MAX_DIRECTORY_PAGE_SIZE = 100;
+    private static final int MAX_PRESENCE_IDS = 500;
+    private static final Set<String> DIRECTORY_SORT_FIELDS = Set.of("name", "email", "role", "id");
+    
     @GetMapping
     public ResponseEntity<List<User>> getAllUsers() {
         return ResponseEntity.ok(userService.getAllUsers());
     }
     
+    /**
+     * Paginated user directory for member pickers and admin screens.
+     * Returns id, name, email, role, country code and avatar URL only; q matches name or email.
+     * GET /api/users/directory?q=&role=&countryId=&subcommitteeId=&page=0&size=20&sortBy=name&sortDirection=ASC
+     */
+    @GetMapping("/directory")
+    public ResponseEntity<?> getDirectory(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String role,
+            @RequestParam(required = false) Long countryId,
+            @RequestParam(required = false) Long subcommitteeId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "name") String sortBy,
+            @RequestParam(defaultValue = "ASC") String sortDirection) {
+        User.UserRole userRole = null;
+        Sort.Direction direction;
+        try {
+            if (role != null && !role.isBlank()) {
+                userRole = User.UserRole.valueOf(role.trim().toUpperCase());
+            }
+            direction = Sort.Direction.fromString(sortDirection);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        if (!DIRECTORY_SORT_FIELDS.contains(sortBy)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "sortBy must be one of " + DIRECTORY_SORT_FIELDS));
+        }
+        if (page < 0 || size < 1 || size > MAX_DIRECTORY_PAGE_SIZE) {
+            return ResponseEntity.badRequest().body(Map.of("error", "page must be >= 0 and size between 1 and " + MAX_DIRECTORY_PAGE_SIZE));
+        }
+        // Secondary sort on id keeps pages stable when names repeat
+        Sort sort = Sort.by(direction, sortBy).and(Sort.by("id"));
+        Page<UserDirectoryEntry> entries = userService.getDirectory(q, userRole, countryId, subcommitteeId,
+                PageRequest.of(page, size, sort));
+        return ResponseEntity.ok(entries);
+    }
+    
+    /**
+     * Presence for many users: last-seen time and whether it falls within the online window.
+     * Served from memory; users never seen are reported offline with no lastSeen.
+     */
+    @GetMapping("/presence")
+    public ResponseEntity<?> getPresence(@RequestParam("ids") List<Long> ids) {
+        if (ids.size() > MAX_PRESENCE_IDS) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "At most " + MAX_PRESENCE_IDS + " user ids per request"));
+        }
+        Map<Long, Instant> lastSeen = activityTracker.getLastSeen(ids);
+        Map<Long, Map<String, Object>> presence = new LinkedHashMap<>();
+        for (Long id : ids) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("lastSeen", lastSeen.get(id));
+            entry.put("online", activityTracker.isOnline(lastSeen.get(id)));
+            presence.put(id, entry);
+        }
+        return ResponseEntity.ok(presence);
+    }
+    
     @GetMapping("/{id}")
     public ResponseEntity<User> getUserById(@PathVariable Long id) {
         return userService.getUserById(id)
@@ -0,0 +1,28 @@
+package com.earacg.earaconnect.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * One committee member in a bulk provisioning request (JSON array element or CSV row).
+ * CSV headers use the same names: name,email,phone,positionInRA,countryId,subcommitteeId,
+ * appointedDate,chair,viceChair,delegationSecretary,committeeSecretary,committeeMember
+ */
+@Data
+@NoArgsConstructor
+public class BulkMemberRow {
+    private String name;
+    private String email;
+    private String phone;
+    private String positionInRA;
+    private Long countryId;
+    private Long subcommitteeId;
+    private LocalDate appointedDate;
+    private boolean chair;
+    private boolean viceChair;
+    private boolean delegationSecretary;
+    private boolean committeeSecretary;
+    private boolean committeeMember;
+}
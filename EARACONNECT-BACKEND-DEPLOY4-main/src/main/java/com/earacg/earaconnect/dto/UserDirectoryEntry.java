@@ -0,0 +1,15 @@
+package com.earacg.earaconnect.dto;
+
+import com.earacg.earaconnect.model.User;
+
+/**
+ * Slim user row for directories and member pickers, read straight from a projection query
+ */
+public interface UserDirectoryEntry {
+    Long getId();
+    String getName();
+    String getEmail();
+    User.UserRole getRole();
+    String getCountryCode();
+    String getAvatarUrl();
+}
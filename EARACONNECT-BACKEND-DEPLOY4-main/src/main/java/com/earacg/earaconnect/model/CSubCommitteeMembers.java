@@ -1,11 +1,13 @@
 package com.earacg.earaconnect.model;
 
 import java.time.LocalDate;
+import com.earacg.earaconnect.service.MemberCountInvalidationListener;
 import jakarta.persistence.*;
 import lombok.*;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 @Entity
+@EntityListeners(MemberCountInvalidationListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -1,11 +1,13 @@
 package com.earacg.earaconnect.model;
 
+import com.earacg.earaconnect.service.MemberCountInvalidationListener;
 import jakarta.persistence.*;
 import lombok.*;
 
 import java.util.List;
 
 @Entity
+@EntityListeners(MemberCountInvalidationListener.class)
 @Table(name = "committee")
 @Getter
 @Setter
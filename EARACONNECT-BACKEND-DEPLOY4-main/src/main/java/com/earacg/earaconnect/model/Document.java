@@ -5,7 +5,9 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "documents")
+@Table(name = "documents", indexes = {
+    @Index(name = "idx_documents_content_hash", columnList = "content_hash")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -32,6 +34,18 @@ public class Document {
     @Column(name = "file_size")
     private Long fileSize;
     
+    // Key in the configured StorageBackend; null for files written before the storage SPI
+    @Column(name = "storage_key")
+    private String storageKey;
+    
+    // SHA-256 of the file body, hex encoded
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+    
+    // Encoding of the stored body (StorageCodec.GZIP) or null when stored verbatim; fileSize is always the decoded size
+    @Column(name = "storage_codec", length = 16)
+    private String storageCodec;
+    
     @Column(name = "upload_date")
     private LocalDateTime uploadDate;
     
@@ -0,0 +1,61 @@
+package com.earacg.earaconnect.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * Extracted text of an uploaded file plus the entity it belongs to, searchable through
+ * the search_vector tsvector column maintained by the database
+ */
+@Entity
+@Table(name = "document_texts", indexes = {
+    @Index(name = "idx_document_texts_entity", columnList = "entity_type, entity_id"),
+    @Index(name = "idx_document_texts_content_hash", columnList = "content_hash")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentText {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // "document:{id}" for Document rows, "invitation:{file name}" for meeting invitations
+    @Column(name = "source_key", nullable = false, unique = true)
+    private String sourceKey;
+
+    @Column(name = "document_id")
+    private Long documentId;
+
+    @Column(name = "entity_type")
+    private String entityType;
+
+    @Column(name = "entity_id")
+    private Long entityId;
+
+    @Column(name = "title")
+    private String title;
+
+    @Column(name = "content", columnDefinition = "TEXT")
+    private String content;
+
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Column(name = "status", length = 20)
+    @Enumerated(EnumType.STRING)
+    private ExtractionStatus status;
+
+    @Column(name = "extracted_at")
+    private LocalDateTime extractedAt;
+
+    public enum ExtractionStatus {
+        PENDING,
+        INDEXED,
+        UNSUPPORTED,
+        FAILED
+    }
+}
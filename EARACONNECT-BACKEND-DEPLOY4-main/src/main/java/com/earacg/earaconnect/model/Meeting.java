@@ -1,5 +1,6 @@
 package com.earacg.earaconnect.model;
 
+import com.earacg.earaconnect.security.CapabilityInvalidationListener;
 import jakarta.persistence.*;
 import lombok.*;
 import java.time.LocalDateTime;
@@ -9,6 +10,7 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 
 @Entity
+@EntityListeners(CapabilityInvalidationListener.class)
 @Table(name = "meetings")
 @Getter
 @Setter
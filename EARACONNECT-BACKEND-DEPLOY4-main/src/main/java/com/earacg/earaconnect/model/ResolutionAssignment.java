@@ -1,5 +1,6 @@
 package com.earacg.earaconnect.model;
 
+import com.earacg.earaconnect.security.CapabilityInvalidationListener;
 import jakarta.persistence.*;
 import lombok.*;
 import java.time.LocalDateTime;
@@ -7,6 +8,7 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 
 @Entity
+@EntityListeners(CapabilityInvalidationListener.class)
 @Table(name = "resolution_assignments")
 @Getter
 @Setter
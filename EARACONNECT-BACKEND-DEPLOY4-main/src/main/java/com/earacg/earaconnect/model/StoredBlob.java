@@ -0,0 +1,35 @@
+package com.earacg.earaconnect.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * A file body stored once under its SHA-256 digest and shared by every Document with the same content
+ */
+@Entity
+@Table(name = "stored_blobs")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StoredBlob {
+
+    @Id
+    @Column(name = "digest", length = 64)
+    private String digest;
+
+    @Column(name = "file_path", nullable = false)
+    private String filePath;
+
+    @Column(name = "file_size")
+    private Long fileSize;
+
+    // Number of Document rows pointing at this blob
+    @Column(name = "ref_count", nullable = false)
+    private long refCount;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+}
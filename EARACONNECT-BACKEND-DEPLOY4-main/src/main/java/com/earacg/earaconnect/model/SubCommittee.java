@@ -1,10 +1,13 @@
 package com.earacg.earaconnect.model;
 
+import com.earacg.earaconnect.security.CapabilityInvalidationListener;
+import com.earacg.earaconnect.service.MemberCountInvalidationListener;
 import jakarta.persistence.*;
 import lombok.*;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 @Entity
+@EntityListeners({CapabilityInvalidationListener.class, MemberCountInvalidationListener.class})
 @Table(name = "sub_committee")
 @Getter
 @Setter
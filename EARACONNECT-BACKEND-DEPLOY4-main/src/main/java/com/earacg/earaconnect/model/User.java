@@ -1,11 +1,13 @@
 package com.earacg.earaconnect.model;
 
+import com.earacg.earaconnect.security.CapabilityInvalidationListener;
 import jakarta.persistence.*;
 import lombok.*;
 import java.time.LocalDateTime;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 @Entity
+@EntityListeners(CapabilityInvalidationListener.class)
 @Table(name = "users")
 @Getter
 @Setter
@@ -54,6 +56,10 @@ public class User {
     @Column(name = "last_login")
     private LocalDateTime lastLogin;
     
+    // Written in batches by ActivityTracker, so it may lag real activity by one flush interval
+    @Column(name = "last_seen")
+    private LocalDateTime lastSeen;
+    
     @Column(name = "is_first_login")
     private Boolean firstLogin = true;
     
@@ -1,5 +1,6 @@
 package com.earacg.earaconnect.repository;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -71,4 +72,8 @@ public interface CSubCommitteeMembersRepo extends JpaRepository<CSubCommitteeMem
     
     @Query("SELECT c FROM CSubCommitteeMembers c WHERE c.subCommittee.id = :subCommitteeId AND c.isDelegationSecretary = true")
     List<CSubCommitteeMembers> findDelegationSecretariesBySubCommitteeId(@Param("subCommitteeId") Long subCommitteeId);
+
+    // Member id -> appointment letter document id, without loading members or documents
+    @Query("SELECT c.id, c.appointedLetterDoc.id FROM CSubCommitteeMembers c WHERE c.id IN :ids AND c.appointedLetterDoc IS NOT NULL")
+    List<Object[]> findAppointmentLetterIds(@Param("ids") Collection<Long> ids);
 }
@@ -31,6 +31,9 @@ public interface DocumentRepo extends JpaRepository<Document, Long>{
     // Find documents larger than specified size
     List<Document> findByFileSizeGreaterThan(Long size);
     
+    // Any document with this content; fingerprinted URLs address content, not rows
+    Optional<Document> findFirstByContentHash(String contentHash);
+    
     // Check if stored filename exists
     boolean existsByStoredFilename(String storedFilename);
 }
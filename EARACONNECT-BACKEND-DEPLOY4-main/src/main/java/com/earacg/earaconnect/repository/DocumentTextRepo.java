@@ -0,0 +1,62 @@
+package com.earacg.earaconnect.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.earacg.earaconnect.model.DocumentText;
+
+@Repository
+public interface DocumentTextRepo extends JpaRepository<DocumentText, Long> {
+    Optional<DocumentText> findBySourceKey(String sourceKey);
+
+    // Text already extracted from identical content, reused instead of parsing the file again
+    Optional<DocumentText> findFirstByContentHashAndStatus(String contentHash, DocumentText.ExtractionStatus status);
+
+    // Extraction result; leaves the entity link alone so it can land before or after link()
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO document_texts (source_key, document_id, content, content_hash, status, extracted_at) " +
+                   "VALUES (:sourceKey, :documentId, :content, :contentHash, :status, now()) " +
+                   "ON CONFLICT (source_key) DO UPDATE SET document_id = COALESCE(EXCLUDED.document_id, document_texts.document_id), " +
+                   "content = EXCLUDED.content, content_hash = EXCLUDED.content_hash, " +
+                   "status = EXCLUDED.status, extracted_at = EXCLUDED.extracted_at",
+           nativeQuery = true)
+    int upsertContent(@Param("sourceKey") String sourceKey, @Param("documentId") Long documentId,
+                      @Param("content") String content, @Param("contentHash") String contentHash,
+                      @Param("status") String status);
+
+    // Entity link; leaves extracted content alone
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO document_texts (source_key, document_id, entity_type, entity_id, title, status) " +
+                   "VALUES (:sourceKey, :documentId, :entityType, :entityId, :title, 'PENDING') " +
+                   "ON CONFLICT (source_key) DO UPDATE SET document_id = COALESCE(EXCLUDED.document_id, document_texts.document_id), " +
+                   "entity_type = EXCLUDED.entity_type, entity_id = EXCLUDED.entity_id, title = EXCLUDED.title",
+           nativeQuery = true)
+    int upsertLink(@Param("sourceKey") String sourceKey, @Param("documentId") Long documentId,
+                   @Param("entityType") String entityType, @Param("entityId") Long entityId,
+                   @Param("title") String title);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM DocumentText t WHERE t.sourceKey = :sourceKey")
+    int deleteBySourceKey(@Param("sourceKey") String sourceKey);
+
+    // Ranked full-text search on the GIN-indexed search_vector column
+    @Query(value = "SELECT t.source_key, t.document_id, t.entity_type, t.entity_id, t.title, " +
+                   "ts_headline('simple', coalesce(t.content, ''), q, 'MaxFragments=2, MaxWords=20, MinWords=5') AS snippet, " +
+                   "ts_rank(t.search_vector, q) AS rank " +
+                   "FROM document_texts t, websearch_to_tsquery('simple', :query) q " +
+                   "WHERE t.search_vector @@ q " +
+                   "AND (CAST(:entityType AS varchar) IS NULL OR t.entity_type = CAST(:entityType AS varchar)) " +
+                   "ORDER BY rank DESC LIMIT :limit",
+           nativeQuery = true)
+    List<Object[]> search(@Param("query") String query, @Param("entityType") String entityType, @Param("limit") int limit);
+}
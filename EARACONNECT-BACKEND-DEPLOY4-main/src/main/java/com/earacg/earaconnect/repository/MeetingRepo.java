@@ -2,9 +2,12 @@ package com.earacg.earaconnect.repository;
 
 import com.earacg.earaconnect.model.Meeting;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface MeetingRepo extends JpaRepository<Meeting, Long> {
@@ -14,4 +17,7 @@ public interface MeetingRepo extends JpaRepository<Meeting, Long> {
     List<Meeting> findByStatus(Meeting.MeetingStatus status);
     List<Meeting> findByMeetingDateBetween(LocalDateTime startDate, LocalDateTime endDate);
     List<Meeting> findByCreatedByIdAndStatus(Long createdById, Meeting.MeetingStatus status);
+
+    @Query("SELECT m.hostingCountry.id FROM Meeting m WHERE m.id = :id")
+    Optional<Long> findHostingCountryIdById(@Param("id") Long id);
 } 
\ No newline at end of file
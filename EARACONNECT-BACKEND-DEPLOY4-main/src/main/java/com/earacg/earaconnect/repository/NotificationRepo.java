@@ -1,8 +1,13 @@
 package com.earacg.earaconnect.repository;
 
 import com.earacg.earaconnect.model.Notification;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -13,4 +18,40 @@ public interface NotificationRepo extends JpaRepository<Notification, Long> {
     List<Notification> findByType(Notification.NotificationType type);
     long countByUserIdAndIsRead(Long userId, boolean isRead);
     long countByUserId(Long userId);
-} 
\ No newline at end of file
+
+    // Keyset pagination on (created_at, id), served by idx_notifications_user_created
+    @Query("SELECT n FROM Notification n WHERE n.user.id = :userId ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findLatestByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("SELECT n FROM Notification n WHERE n.user.id = :userId " +
+           "AND (n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id < :id)) " +
+           "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findByUserIdBefore(@Param("userId") Long userId, @Param("createdAt") LocalDateTime createdAt,
+                                          @Param("id") Long id, Pageable pageable);
+
+    // Unread totals for every user with unread notifications, used to reconcile in-memory counters
+    @Query("SELECT n.user.id, COUNT(n) FROM Notification n WHERE n.isRead = false GROUP BY n.user.id")
+    List<Object[]> countUnreadGroupedByUser();
+
+    // Conditional single-row read: returns 1 only for the caller that actually flipped it
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Notification n SET n.isRead = true, n.readAt = :readAt WHERE n.id = :id AND n.isRead = false")
+    int markAsReadIfUnread(@Param("id") Long id, @Param("readAt") LocalDateTime readAt);
+
+    // Set-based bulk operations: one statement regardless of row count
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Notification n SET n.isRead = true, n.readAt = :readAt WHERE n.user.id = :userId AND n.isRead = false")
+    int markAllAsReadByUserId(@Param("userId") Long userId, @Param("readAt") LocalDateTime readAt);
+
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM Notification n WHERE n.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM Notification n WHERE n.type = :type AND n.createdAt < :cutoff")
+    int deleteByTypeCreatedBefore(@Param("type") Notification.NotificationType type, @Param("cutoff") LocalDateTime cutoff);
+
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM Notification n WHERE n.type = :type")
+    int deleteAllByType(@Param("type") Notification.NotificationType type);
+}
@@ -2,6 +2,8 @@ package com.earacg.earaconnect.repository;
 
 import com.earacg.earaconnect.model.ResolutionAssignment;
 import org.springframework.data.jpa.repository.JpaRepository;   
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -15,4 +17,8 @@ public interface ResolutionAssignmentRepo extends JpaRepository<ResolutionAssign
     List<ResolutionAssignment> findByStatus(ResolutionAssignment.AssignmentStatus status);
     List<ResolutionAssignment> findByResolutionIdAndStatus(Long resolutionId, ResolutionAssignment.AssignmentStatus status);
 
+    // Resolution id and status for every resolution assigned to a subcommittee
+    @Query("SELECT a.resolution.id, a.resolution.status FROM ResolutionAssignment a WHERE a.subcommittee.id = :subcommitteeId")
+    List<Object[]> findResolutionStatusesBySubcommitteeId(@Param("subcommitteeId") Long subcommitteeId);
+
 }
\ No newline at end of file
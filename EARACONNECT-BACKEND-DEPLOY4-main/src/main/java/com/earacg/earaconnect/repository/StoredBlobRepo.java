@@ -0,0 +1,34 @@
+package com.earacg.earaconnect.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.earacg.earaconnect.model.StoredBlob;
+
+@Repository
+public interface StoredBlobRepo extends JpaRepository<StoredBlob, String> {
+
+    // Serialize acquire, release and body removal for one digest until the transaction ends.
+    // An advisory lock rather than SELECT ... FOR UPDATE, because the row may not exist yet.
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(hashtextextended(:digest, 0))", nativeQuery = true)
+    Integer lockDigest(@Param("digest") String digest);
+
+    // Insert the blob with one reference, or add a reference if the digest is already stored
+    @Modifying
+    @Query(value = "INSERT INTO stored_blobs (digest, file_path, file_size, ref_count, created_at) " +
+                   "VALUES (:digest, :filePath, :fileSize, 1, now()) " +
+                   "ON CONFLICT (digest) DO UPDATE SET ref_count = stored_blobs.ref_count + 1",
+           nativeQuery = true)
+    int acquire(@Param("digest") String digest, @Param("filePath") String filePath, @Param("fileSize") Long fileSize);
+
+    @Modifying
+    @Query("UPDATE StoredBlob b SET b.refCount = b.refCount - 1 WHERE b.digest = :digest AND b.refCount > 0")
+    int release(@Param("digest") String digest);
+
+    @Modifying
+    @Query("DELETE FROM StoredBlob b WHERE b.digest = :digest AND b.refCount <= 0")
+    int deleteIfUnreferenced(@Param("digest") String digest);
+}
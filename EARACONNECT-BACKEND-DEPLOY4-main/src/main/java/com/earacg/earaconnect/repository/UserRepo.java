@@ -1,11 +1,17 @@
 package com.earacg.earaconnect.repository;
 
+import com.earacg.earaconnect.dto.UserDirectoryEntry;
 import com.earacg.earaconnect.model.User;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 @Repository
 public interface UserRepo extends JpaRepository<User, Long> {
@@ -33,5 +39,35 @@ public interface UserRepo extends JpaRepository<User, Long> {
      * For now, we'll implement this through a service method that uses CountryCommitteeMember
      */
     // List<User> findByCommitteeId(Long committeeId); // Commented out - no direct relationship
+
+    /**
+     * One page of the user directory as projections; every filter is optional (null).
+     * search is a lower-case LIKE pattern matched against name and email.
+     */
+    @Query(value = "SELECT u.id AS id, u.name AS name, u.email AS email, u.role AS role, " +
+            "c.isCode AS countryCode, u.profilePicture AS avatarUrl " +
+            "FROM User u LEFT JOIN u.country c LEFT JOIN u.subcommittee s " +
+            "WHERE (:search IS NULL OR LOWER(u.name) LIKE :search OR LOWER(u.email) LIKE :search) " +
+            "AND (:role IS NULL OR u.role = :role) " +
+            "AND (:countryId IS NULL OR c.id = :countryId) " +
+            "AND (:subcommitteeId IS NULL OR s.id = :subcommitteeId)",
+            countQuery = "SELECT COUNT(u) FROM User u LEFT JOIN u.country c LEFT JOIN u.subcommittee s " +
+            "WHERE (:search IS NULL OR LOWER(u.name) LIKE :search OR LOWER(u.email) LIKE :search) " +
+            "AND (:role IS NULL OR u.role = :role) " +
+            "AND (:countryId IS NULL OR c.id = :countryId) " +
+            "AND (:subcommitteeId IS NULL OR s.id = :subcommitteeId)")
+    Page<UserDirectoryEntry> findDirectory(@Param("search") String search,
+                                           @Param("role") User.UserRole role,
+                                           @Param("countryId") Long countryId,
+                                           @Param("subcommitteeId") Long subcommitteeId,
+                                           Pageable pageable);
+
+    /**
+     * Replace only the stored password (rehash on login)
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.password = :password WHERE u.id = :id")
+    int updatePassword(@Param("id") Long id, @Param("password") String password);
     
 } 
\ No newline at end of file
@@ -0,0 +1,174 @@
+package com.earacg.earaconnect.security;
+
+import com.earacg.earaconnect.model.Resolution;
+import com.earacg.earaconnect.model.SubCommittee;
+import com.earacg.earaconnect.model.User;
+import com.earacg.earaconnect.repository.MeetingRepo;
+import com.earacg.earaconnect.repository.ResolutionAssignmentRepo;
+import com.earacg.earaconnect.repository.SubCommitteeRepo;
+import com.earacg.earaconnect.repository.UserRepo;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Precomputed authorization facts per user: role, HOD flag, subcommittee, country and the
+ * resolutions the user's subcommittee is assigned to. Permission checks read these from memory
+ * instead of reloading the user and resolution on every call.
+ * Entries are dropped by CapabilityInvalidationListener whenever a user, subcommittee, resolution,
+ * assignment or meeting row changes; a load that races with an invalidation is not stored.
+ */
+@Component
+@RequiredArgsConstructor
+public class CapabilityCache {
+
+    public static final String HEAD_OF_DELEGATION_SUBCOMMITTEE_NAME = "Head Of Delegation";
+
+    private static final Set<Resolution.ResolutionStatus> REPORTABLE = Set.of(
+            Resolution.ResolutionStatus.ASSIGNED, Resolution.ResolutionStatus.IN_PROGRESS);
+
+    private final UserRepo userRepo;
+    private final SubCommitteeRepo subCommitteeRepo;
+    private final ResolutionAssignmentRepo resolutionAssignmentRepo;
+    private final MeetingRepo meetingRepo;
+
+    private final ConcurrentHashMap<Long, Entry> users = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Optional<Long>> meetingCountries = new ConcurrentHashMap<>();
+    private volatile Optional<Long> headOfDelegationSubcommitteeId;
+
+    // Bumped on every invalidation so loads that started before it are discarded
+    private final AtomicLong generation = new AtomicLong();
+
+    // Safety net for writes that bypass JPA
+    @Value("${app.auth.capability-cache.ttl:10m}")
+    private Duration ttl;
+
+    @Value("${app.auth.capability-cache.max-entries:10000}")
+    private int maxEntries;
+
+    /**
+     * Capabilities of a user, or null if the user does not exist
+     */
+    public UserCapabilities get(Long userId) {
+        if (userId == null) {
+            return null;
+        }
+        Entry entry = users.get(userId);
+        if (entry != null && System.nanoTime() - entry.loadedAt < ttl.toNanos()) {
+            return entry.capabilities;
+        }
+        long startGeneration = generation.get();
+        UserCapabilities capabilities = userRepo.findById(userId).map(this::load).orElse(null);
+        if (capabilities != null && generation.get() == startGeneration) {
+            if (users.size() >= maxEntries) {
+                users.clear();
+            }
+            users.put(userId, new Entry(capabilities, System.nanoTime()));
+        }
+        return capabilities;
+    }
+
+    /**
+     * Id of the Head Of Delegation subcommittee, or null if it does not exist
+     */
+    public Long getHeadOfDelegationSubcommitteeId() {
+        Optional<Long> id = headOfDelegationSubcommitteeId;
+        if (id == null) {
+            long startGeneration = generation.get();
+            id = subCommitteeRepo.findByName(HEAD_OF_DELEGATION_SUBCOMMITTEE_NAME).map(SubCommittee::getId);
+            if (generation.get() == startGeneration) {
+                headOfDelegationSubcommitteeId = id;
+            }
+        }
+        return id.orElse(null);
+    }
+
+    /**
+     * Hosting country of a meeting; empty if the meeting does not exist or has none
+     */
+    public Optional<Long> getMeetingCountryId(Long meetingId) {
+        Optional<Long> countryId = meetingCountries.get(meetingId);
+        if (countryId == null) {
+            long startGeneration = generation.get();
+            countryId = meetingRepo.findHostingCountryIdById(meetingId);
+            if (generation.get() == startGeneration) {
+                if (meetingCountries.size() >= maxEntries) {
+                    meetingCountries.clear();
+                }
+                meetingCountries.put(meetingId, countryId);
+            }
+        }
+        return countryId;
+    }
+
+    public void invalidateUser(Long userId) {
+        invalidate(() -> users.remove(userId));
+    }
+
+    public void invalidateMeeting(Long meetingId) {
+        invalidate(() -> meetingCountries.remove(meetingId));
+    }
+
+    /**
+     * Drop everything; used when a change can affect many users (assignments, subcommittees)
+     */
+    public void invalidateAll() {
+        invalidate(() -> {
+            users.clear();
+            meetingCountries.clear();
+            headOfDelegationSubcommitteeId = null;
+        });
+    }
+
+    /**
+     * Apply now and again after commit, so a reader that loaded the old row in between is not kept
+     */
+    private void invalidate(Runnable eviction) {
+        generation.incrementAndGet();
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    generation.incrementAndGet();
+                    eviction.run();
+                }
+            });
+        }
+    }
+
+    private UserCapabilities load(User user) {
+        SubCommittee subcommittee = user.getSubcommittee();
+        Long subcommitteeId = subcommittee != null ? subcommittee.getId() : null;
+        boolean chairRole = user.getRole() == User.UserRole.CHAIR || user.getRole() == User.UserRole.VICE_CHAIR;
+        boolean headOfDelegation = chairRole && subcommittee != null
+                && HEAD_OF_DELEGATION_SUBCOMMITTEE_NAME.equals(subcommittee.getName());
+
+        Set<Long> accessible = new HashSet<>();
+        Set<Long> reportable = new HashSet<>();
+        if (subcommitteeId != null) {
+            for (Object[] row : resolutionAssignmentRepo.findResolutionStatusesBySubcommitteeId(subcommitteeId)) {
+                Long resolutionId = (Long) row[0];
+                accessible.add(resolutionId);
+                if (REPORTABLE.contains((Resolution.ResolutionStatus) row[1])) {
+                    reportable.add(resolutionId);
+                }
+            }
+        }
+        return new UserCapabilities(user.getId(), user.getRole(), headOfDelegation, subcommitteeId,
+                user.getCountry() != null ? user.getCountry().getId() : null,
+                Set.copyOf(accessible), Set.copyOf(reportable));
+    }
+
+    private record Entry(UserCapabilities capabilities, long loadedAt) {
+    }
+}
@@ -0,0 +1,38 @@
+package com.earacg.earaconnect.security;
+
+import com.earacg.earaconnect.model.Meeting;
+import com.earacg.earaconnect.model.User;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * JPA listener that drops cached capabilities when the rows they were computed from change.
+ * Registered on User, SubCommittee, Resolution, ResolutionAssignment and Meeting; Hibernate
+ * creates it through Spring, and the cache is looked up lazily to stay out of the
+ * EntityManagerFactory's startup graph.
+ */
+public class CapabilityInvalidationListener {
+
+    @Autowired
+    private ObjectProvider<CapabilityCache> capabilityCache;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void changed(Object entity) {
+        CapabilityCache cache = capabilityCache.getIfAvailable();
+        if (cache == null) {
+            return;
+        }
+        if (entity instanceof User user) {
+            cache.invalidateUser(user.getId());
+        } else if (entity instanceof Meeting meeting) {
+            cache.invalidateMeeting(meeting.getId());
+        } else {
+            cache.invalidateAll();
+        }
+    }
+}
@@ -4,22 +4,41 @@ import com.earacg.earaconnect.model.User;
 import com.earacg.earaconnect.repository.UserRepo;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 @Service
-public class DatabaseUserDetailsService implements UserDetailsService {
+public class DatabaseUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     @Autowired
     private UserRepo userRepo;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepo.findByEmail(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        User user = principalCache.get(username);
+        // The cache key is normalised; only reuse an entry for the exact address the database would match
+        if (user == null || !user.getEmail().equals(username)) {
+            user = userRepo.findByEmail(username)
+                    .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+            principalCache.put(user);
+        }
         return new CustomUserDetails(user);
     }
-}
-
 
+    /**
+     * Store a rehashed password after a successful login (plaintext or lower-cost rows)
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = ((CustomUserDetails) userDetails).getDomainUser();
+        userRepo.updatePassword(user.getId(), newPassword);
+        user.setPassword(newPassword);
+        principalCache.evict(user.getEmail());
+        return new CustomUserDetails(user);
+    }
+}
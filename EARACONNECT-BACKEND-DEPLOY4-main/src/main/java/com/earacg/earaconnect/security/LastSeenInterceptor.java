@@ -0,0 +1,39 @@
+package com.earacg.earaconnect.security;
+
+import com.earacg.earaconnect.service.ActivityTracker;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Records last-seen for the authenticated user of each request (session or token).
+ * Only touches ActivityTracker's in-memory buffer; nothing is written per request.
+ */
+@Component
+@RequiredArgsConstructor
+public class LastSeenInterceptor implements HandlerInterceptor {
+
+    private final ActivityTracker activityTracker;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()) {
+            Object principal = authentication.getPrincipal();
+            Long userId = null;
+            if (principal instanceof CustomUserDetails details) {
+                userId = details.getDomainUser().getId();
+            } else if (principal instanceof TokenClaims claims) {
+                userId = claims.getUserId();
+            }
+            if (userId != null) {
+                activityTracker.recordSeen(userId);
+            }
+        }
+        return true;
+    }
+}
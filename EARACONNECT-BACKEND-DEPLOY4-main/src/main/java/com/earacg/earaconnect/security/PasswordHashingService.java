@@ -0,0 +1,180 @@
+package com.earacg.earaconnect.security;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt password hashing on a small dedicated pool.
+ * Hashing is deliberately CPU-heavy, so it is capped at a fixed number of concurrent hashes
+ * with a short queue: a login storm gets fast "busy" rejections instead of saturating every
+ * request thread. The cost factor is either fixed or calibrated at startup to the largest value
+ * whose hash time fits app.auth.password.target-ms.
+ * Legacy plaintext rows still verify (constant-time) and report upgradeEncoding, so the
+ * authentication provider rehashes them on the next successful login.
+ */
+@Service
+@Slf4j
+public class PasswordHashingService implements PasswordEncoder {
+
+    // Stored passwords with this prefix never match (accounts awaiting generated credentials)
+    public static final String UNUSABLE_PREFIX = "{pending}";
+
+    private static final Pattern BCRYPT = Pattern.compile("^\\$2[aby]?\\$(\\d\\d)\\$[./0-9A-Za-z]{53}$");
+    private static final int MIN_COST = 10;
+    private static final int MAX_COST = 16;
+
+    // 0 calibrates against target-ms; any other value is used as-is (4-31)
+    @Value("${app.auth.password.cost:0}")
+    private int configuredCost;
+
+    @Value("${app.auth.password.target-ms:250}")
+    private long targetMs;
+
+    @Value("${app.auth.password.workers:0}")
+    private int workers;
+
+    @Value("${app.auth.password.queue:64}")
+    private int queueCapacity;
+
+    @Value("${app.auth.password.wait-timeout-ms:5000}")
+    private long waitTimeoutMs;
+
+    // Turn off once the rehash-on-login migration is complete to reject remaining plaintext rows
+    @Value("${app.auth.password.accept-legacy-plaintext:true}")
+    private boolean acceptLegacyPlaintext;
+
+    private int cost;
+    private BCryptPasswordEncoder bcrypt;
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void start() {
+        int threads = workers > 0 ? workers : Math.max(1, Runtime.getRuntime().availableProcessors());
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        cost = configuredCost > 0 ? configuredCost : calibrate();
+        bcrypt = new BCryptPasswordEncoder(cost);
+        log.info("Password hashing: bcrypt cost {}, {} workers, queue {}", cost, threads, queueCapacity);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdown();
+    }
+
+    public int getCost() {
+        return cost;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> bcrypt.encode(rawPassword));
+    }
+
+    /**
+     * Hash on the calling thread, outside the pool. For background jobs that already run on a
+     * dedicated thread and must not compete with logins for pool slots or fail when it is full.
+     */
+    public String encodeOnCurrentThread(CharSequence rawPassword) {
+        return bcrypt.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String storedPassword) {
+        if (rawPassword == null || storedPassword == null || storedPassword.isEmpty()
+                || storedPassword.startsWith(UNUSABLE_PREFIX)) {
+            return false;
+        }
+        if (isHashed(storedPassword)) {
+            return run(() -> bcrypt.matches(rawPassword, storedPassword));
+        }
+        return acceptLegacyPlaintext && MessageDigest.isEqual(
+                rawPassword.toString().getBytes(StandardCharsets.UTF_8),
+                storedPassword.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * True for plaintext rows and hashes made with a lower cost than the current one
+     */
+    @Override
+    public boolean upgradeEncoding(String storedPassword) {
+        if (storedPassword == null || storedPassword.isEmpty() || storedPassword.startsWith(UNUSABLE_PREFIX)) {
+            return false;
+        }
+        return !isHashed(storedPassword) || bcrypt.upgradeEncoding(storedPassword);
+    }
+
+    public static boolean isHashed(String storedPassword) {
+        return BCRYPT.matcher(storedPassword).matches();
+    }
+
+    private <T> T run(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw new HashingCapacityException("Password hashing is at capacity, try again shortly");
+        }
+        try {
+            return future.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new HashingCapacityException("Password hashing timed out, try again shortly");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HashingCapacityException("Password hashing interrupted");
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Password hashing failed", e.getCause());
+        }
+    }
+
+    /**
+     * Largest cost whose measured hash time fits the target; each step doubles the work
+     */
+    private int calibrate() {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(MIN_COST);
+        probe.encode("calibration");
+        long start = System.nanoTime();
+        probe.encode("calibration");
+        double millis = (System.nanoTime() - start) / 1_000_000.0;
+        int calibrated = MIN_COST;
+        while (calibrated < MAX_COST && millis * 2 <= targetMs) {
+            millis *= 2;
+            calibrated++;
+        }
+        log.info("Calibrated bcrypt cost {} (~{} ms per hash, target {} ms)", calibrated, Math.round(millis), targetMs);
+        return calibrated;
+    }
+
+    /**
+     * The hashing pool is full or did not answer in time
+     */
+    public static class HashingCapacityException extends RuntimeException {
+        public HashingCapacityException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.earacg.earaconnect.security;
+
+import com.earacg.earaconnect.model.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Short-lived cache of users resolved for authentication, keyed by normalised email.
+ * Writers that change credentials, activation or identity evict the entry; the TTL bounds
+ * staleness for any write path that does not.
+ */
+@Component
+public class PrincipalCache {
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    @Value("${app.auth.principal-cache.ttl:60s}")
+    private Duration ttl;
+
+    @Value("${app.auth.principal-cache.max-entries:10000}")
+    private int maxEntries;
+
+    public User get(String email) {
+        if (email == null) {
+            return null;
+        }
+        String key = normalise(email);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (System.nanoTime() - entry.loadedAt > ttl.toNanos()) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.user;
+    }
+
+    public void put(User user) {
+        if (ttl.isZero() || user.getEmail() == null) {
+            return;
+        }
+        if (entries.size() >= maxEntries) {
+            // Rare with a short TTL; dropping everything is cheaper than tracking recency
+            entries.clear();
+        }
+        entries.put(normalise(user.getEmail()), new Entry(user, System.nanoTime()));
+    }
+
+    public void evict(String email) {
+        if (email != null) {
+            entries.remove(normalise(email));
+        }
+    }
+
+    public void evictAll() {
+        entries.clear();
+    }
+
+    private static String normalise(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record Entry(User user, long loadedAt) {
+    }
+}
@@ -0,0 +1,329 @@
+package com.earacg.earaconnect.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+/**
+ * Per-route throttling for endpoints that cost a database lookup or an SMTP send per call
+ * (login, test email, credential resends). Each route has an optional per-IP and per-account
+ * limit; the account is the email in the JSON body or the id in the path. Over-limit requests get
+ * 429 with Retry-After before reaching the controller. Registered inside the security chain,
+ * right after CORS, so rejections still carry CORS headers.
+ */
+@Component
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    // Login and test-email bodies are tiny; anything larger is not parsed for an account key
+    private static final int MAX_BODY_BYTES = 16 * 1024;
+
+    private final RateLimiter rateLimiter;
+    private final ObjectMapper objectMapper;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final List<RoutePolicy> policies = new ArrayList<>();
+
+    @Value("${app.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    // Only behind a proxy that overwrites X-Forwarded-For; otherwise clients could pick their own key
+    @Value("${app.rate-limit.trust-forwarded-for:false}")
+    private boolean trustForwardedFor;
+
+    @Value("${app.rate-limit.login.per-ip:30/1m}")
+    private String loginPerIp;
+
+    @Value("${app.rate-limit.login.per-account:10/5m}")
+    private String loginPerAccount;
+
+    @Value("${app.rate-limit.test-email.per-ip:5/10m}")
+    private String testEmailPerIp;
+
+    @Value("${app.rate-limit.test-email.per-account:2/10m}")
+    private String testEmailPerAccount;
+
+    @Value("${app.rate-limit.resend-credentials.per-ip:20/10m}")
+    private String resendPerIp;
+
+    @Value("${app.rate-limit.resend-credentials.per-account:3/10m}")
+    private String resendPerAccount;
+
+    public RateLimitFilter(RateLimiter rateLimiter, ObjectMapper objectMapper) {
+        this.rateLimiter = rateLimiter;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    public void registerPolicies() {
+        policies.add(new RoutePolicy("login", "POST", "/api/auth/login",
+                RateLimiter.Limit.parse(loginPerIp), RateLimiter.Limit.parse(loginPerAccount), true, this::bodyEmail));
+        policies.add(new RoutePolicy("test-email", "POST", "/api/auth/test-email",
+                RateLimiter.Limit.parse(testEmailPerIp), RateLimiter.Limit.parse(testEmailPerAccount), true, this::bodyEmail));
+        policies.add(new RoutePolicy("resend-user", "POST", "/api/users/{id}/resend-credentials",
+                RateLimiter.Limit.parse(resendPerIp), RateLimiter.Limit.parse(resendPerAccount), false, pathVariable("id")));
+        policies.add(new RoutePolicy("resend-cg", "POST", "/api/commissioner-generals/{memberId}/resend-credentials",
+                RateLimiter.Limit.parse(resendPerIp), RateLimiter.Limit.parse(resendPerAccount), false, pathVariable("memberId")));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || match(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RoutePolicy policy = match(request);
+        HttpServletRequest forwarded = request;
+
+        if (policy.perIp() != null) {
+            long wait = rateLimiter.tryAcquire(policy.name() + ":ip:" + clientIp(request), policy.perIp());
+            if (wait > 0) {
+                reject(response, policy, wait);
+                return;
+            }
+        }
+        if (policy.perAccount() != null) {
+            CachedBodyRequest cached = policy.needsBody() ? CachedBodyRequest.of(request) : null;
+            if (cached != null) {
+                forwarded = cached;
+            }
+            String account = policy.account().apply(request, cached);
+            if (account != null && !account.isBlank()) {
+                long wait = rateLimiter.tryAcquire(policy.name() + ":account:" + account.trim().toLowerCase(Locale.ROOT),
+                        policy.perAccount());
+                if (wait > 0) {
+                    reject(response, policy, wait);
+                    return;
+                }
+            }
+        }
+        chain.doFilter(forwarded, response);
+    }
+
+    private RoutePolicy match(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (RoutePolicy policy : policies) {
+            if (policy.method().equals(request.getMethod()) && pathMatcher.match(policy.pattern(), path)) {
+                return policy;
+            }
+        }
+        return null;
+    }
+
+    private String clientIp(HttpServletRequest request) {
+        if (trustForwardedFor) {
+            String forwardedFor = request.getHeader("X-Forwarded-For");
+            if (forwardedFor != null && !forwardedFor.isBlank()) {
+                return forwardedFor.split(",", 2)[0].trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletResponse response, RoutePolicy policy, long waitNanos) throws IOException {
+        long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        log.debug("Rate limit hit on {}, retry after {}s", policy.name(), retryAfter);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), Map.of("error", "Too many requests, try again later"));
+    }
+
+    private String bodyEmail(HttpServletRequest request, CachedBodyRequest body) {
+        if (body == null || !body.complete() || body.body.length == 0) {
+            return null;
+        }
+        try {
+            JsonNode email = objectMapper.readTree(body.body).get("email");
+            return email != null && email.isTextual() ? email.asText() : null;
+        } catch (IOException e) {
+            // Malformed JSON is the controller's problem; the per-IP limit still applies
+            return null;
+        }
+    }
+
+    private BiFunction<HttpServletRequest, CachedBodyRequest, String> pathVariable(String name) {
+        return (request, body) -> {
+            RoutePolicy policy = match(request);
+            String path = request.getRequestURI().substring(request.getContextPath().length());
+            return pathMatcher.extractUriTemplateVariables(policy.pattern(), path).get(name);
+        };
+    }
+
+    /**
+     * A throttled route. account extracts the per-account key from the request or its cached body.
+     */
+    private record RoutePolicy(String name, String method, String pattern,
+                               RateLimiter.Limit perIp, RateLimiter.Limit perAccount,
+                               boolean needsBody,
+                               BiFunction<HttpServletRequest, CachedBodyRequest, String> account) {
+    }
+
+    /**
+     * Request whose body has been read once into memory and is replayed to the controller
+     */
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        /**
+         * Cache up to MAX_BODY_BYTES; a longer declared body is left unread (null) and streams through
+         * untouched. A chunked body of unknown length is read up to the cap; if it turns out longer,
+         * the bytes already read are replayed ahead of the rest and no body is exposed for parsing.
+         */
+        static CachedBodyRequest of(HttpServletRequest request) throws IOException {
+            long contentLength = request.getContentLengthLong();
+            if (contentLength > MAX_BODY_BYTES) {
+                return null;
+            }
+            if (contentLength >= 0) {
+                return new CachedBodyRequest(request, request.getInputStream().readNBytes((int) contentLength));
+            }
+            byte[] prefix = request.getInputStream().readNBytes(MAX_BODY_BYTES + 1);
+            if (prefix.length <= MAX_BODY_BYTES) {
+                return new CachedBodyRequest(request, prefix);
+            }
+            return new CachedBodyRequest(request, prefix) {
+                @Override
+                public ServletInputStream getInputStream() throws IOException {
+                    return new CachedInputStream(prefix, request.getInputStream());
+                }
+
+                @Override
+                boolean complete() {
+                    return false;
+                }
+            };
+        }
+
+        /**
+         * Whether body holds the whole request body
+         */
+        boolean complete() {
+            return true;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            return new CachedInputStream(body, null);
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Replays the cached bytes, then continues with the rest of the original stream if there is one
+     */
+    private static class CachedInputStream extends ServletInputStream {
+
+        private final ByteArrayInputStream in;
+        private final ServletInputStream rest;
+
+        CachedInputStream(byte[] body, ServletInputStream rest) {
+            this.in = new ByteArrayInputStream(body);
+            this.rest = rest;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = in.read();
+            return b >= 0 || rest == null ? b : rest.read();
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            int n = in.read(buffer, offset, length);
+            return n > 0 || rest == null ? n : rest.read(buffer, offset, length);
+        }
+
+        @Override
+        public boolean isFinished() {
+            return in.available() == 0 && (rest == null || rest.isFinished());
+        }
+
+        @Override
+        public boolean isReady() {
+            return in.available() > 0 || rest == null || rest.isReady();
+        }
+
+        /**
+         * A fully cached body is available at once; with a remainder, the original stream drives the
+         * callbacks and the cached prefix is served first by read()
+         */
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            if (rest != null) {
+                rest.setReadListener(new ReadListener() {
+                    @Override
+                    public void onDataAvailable() throws IOException {
+                        readListener.onDataAvailable();
+                    }
+
+                    @Override
+                    public void onAllDataRead() throws IOException {
+                        if (in.available() > 0) {
+                            readListener.onDataAvailable();
+                        }
+                        readListener.onAllDataRead();
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        readListener.onError(t);
+                    }
+                });
+                return;
+            }
+            try {
+                if (in.available() > 0) {
+                    readListener.onDataAvailable();
+                }
+                readListener.onAllDataRead();
+            } catch (IOException | RuntimeException e) {
+                readListener.onError(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.earacg.earaconnect.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process token buckets keyed by arbitrary strings (client IP, account).
+ * Each bucket is a single AtomicLong holding its "theoretical arrival time" (GCRA): a request
+ * is allowed if that time is no more than one period ahead of now, and a CAS moves it forward by
+ * one token's worth. This is equivalent to a token bucket of the given capacity and needs no locks.
+ * Buckets live in striped maps with a per-stripe size cap; a bucket whose arrival time has passed
+ * is full again and is dropped by the periodic sweep, which keeps memory bounded. New keys arriving
+ * at a full stripe share that stripe's overflow bucket for their limit, so a flood of distinct keys
+ * is throttled as one client instead of each getting a fresh bucket.
+ */
+@Component
+@Slf4j
+public class RateLimiter {
+
+    private static final int STRIPES = 16;
+
+    @SuppressWarnings("unchecked")
+    private final ConcurrentHashMap<String, AtomicLong>[] stripes = new ConcurrentHashMap[STRIPES];
+
+    @SuppressWarnings("unchecked")
+    private final ConcurrentHashMap<Limit, AtomicLong>[] overflow = new ConcurrentHashMap[STRIPES];
+
+    // Requests routed to each stripe's overflow bucket since it last filled up; -1 while the stripe has room
+    private final AtomicLong[] overflowHits = new AtomicLong[STRIPES];
+
+    @Value("${app.rate-limit.max-buckets:100000}")
+    private int maxBuckets;
+
+    public RateLimiter() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ConcurrentHashMap<>();
+            overflow[i] = new ConcurrentHashMap<>();
+            overflowHits[i] = new AtomicLong(-1);
+        }
+    }
+
+    /**
+     * Take one token from the bucket for key. Returns 0 when allowed, otherwise the nanoseconds
+     * until a token becomes available.
+     */
+    public long tryAcquire(String key, Limit limit) {
+        long now = System.nanoTime();
+        AtomicLong bucket = bucket(key, limit, now);
+        while (true) {
+            long arrival = bucket.get();
+            long next = Math.max(arrival, now) + limit.intervalNanos();
+            long ahead = next - now - limit.periodNanos();
+            if (ahead > 0) {
+                return ahead;
+            }
+            if (bucket.compareAndSet(arrival, next)) {
+                return 0;
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (ConcurrentHashMap<String, AtomicLong> stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    @Scheduled(fixedDelayString = "${app.rate-limit.sweep-ms:60000}")
+    public void sweep() {
+        long now = System.nanoTime();
+        for (int i = 0; i < STRIPES; i++) {
+            sweep(stripes[i], now);
+            if (stripes[i].size() < stripeCapacity()) {
+                long hits = overflowHits[i].getAndSet(-1);
+                if (hits >= 0) {
+                    log.info("Rate limiter stripe {} has room again after {} overflow requests", i, hits);
+                }
+            }
+        }
+    }
+
+    private AtomicLong bucket(String key, Limit limit, long now) {
+        int index = (key.hashCode() ^ (key.hashCode() >>> 16)) & (STRIPES - 1);
+        ConcurrentHashMap<String, AtomicLong> stripe = stripes[index];
+        AtomicLong bucket = stripe.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (stripe.size() >= stripeCapacity()) {
+            // While saturated, skip the inline sweep so a key flood does not rescan the stripe per request;
+            // the scheduled sweep frees room and resets the state
+            if (overflowHits[index].get() < 0) {
+                sweep(stripe, now);
+            }
+            if (stripe.size() >= stripeCapacity()) {
+                // Every bucket in this stripe is still draining; untracked keys share one bucket per limit
+                // Warn once when the stripe fills up, not on every overflow request
+                if (overflowHits[index].getAndUpdate(hits -> hits < 0 ? 1 : hits + 1) < 0) {
+                    log.warn("Rate limiter stripe {} full ({} buckets), new keys share its overflow bucket",
+                            index, stripe.size());
+                }
+                return overflow[index].computeIfAbsent(limit, l -> new AtomicLong(now));
+            }
+        }
+        return stripe.computeIfAbsent(key, k -> new AtomicLong(now));
+    }
+
+    private int stripeCapacity() {
+        return Math.max(1, maxBuckets / STRIPES);
+    }
+
+    /**
+     * Drop buckets that have refilled completely; they behave exactly like a new bucket
+     */
+    private void sweep(ConcurrentHashMap<String, AtomicLong> stripe, long now) {
+        stripe.entrySet().removeIf(entry -> entry.getValue().get() - now <= 0);
+    }
+
+    /**
+     * capacity requests per period, refilled continuously
+     */
+    public record Limit(int capacity, Duration period) {
+
+        public long periodNanos() {
+            return period.toNanos();
+        }
+
+        public long intervalNanos() {
+            return period.toNanos() / capacity;
+        }
+
+        /**
+         * Parse "20/1m" (capacity/period). Blank or a non-positive capacity means no limit (null).
+         */
+        public static Limit parse(String value) {
+            if (value == null || value.isBlank()) {
+                return null;
+            }
+            String[] parts = value.trim().split("/", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Rate limit must look like 20/1m: " + value);
+            }
+            int capacity = Integer.parseInt(parts[0].trim());
+            return capacity > 0 ? new Limit(capacity, DurationStyle.detectAndParse(parts[1].trim())) : null;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.earacg.earaconnect.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * Verified contents of a signed token. Used as the principal for token-authenticated requests.
+ */
+@Getter
+@AllArgsConstructor
+public class TokenClaims {
+    private final Long userId;
+    private final String email;
+    private final String role;
+    private final String type;
+    private final Instant expiresAt;
+
+    @Override
+    public String toString() {
+        return email;
+    }
+}
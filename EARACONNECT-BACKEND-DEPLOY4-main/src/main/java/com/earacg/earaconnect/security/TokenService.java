@@ -0,0 +1,154 @@
+package com.earacg.earaconnect.security;
+
+import com.earacg.earaconnect.model.User;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Issues and verifies compact HS256 JWTs (header.payload.signature, base64url).
+ * Verification is pure computation over the shared secret: no database or session lookup,
+ * so any node holding the same secret accepts a token issued by any other.
+ */
+@Service
+@Slf4j
+public class TokenService {
+
+    public static final String ACCESS = "access";
+    public static final String REFRESH = "refresh";
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final String HEADER = base64Url("{\"alg\":\"HS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8));
+
+    private final ObjectMapper objectMapper;
+    private final SecretKeySpec key;
+    private final Duration accessTtl;
+    private final Duration refreshTtl;
+
+    public TokenService(ObjectMapper objectMapper,
+                        @Value("${app.auth.token.secret:}") String secret,
+                        @Value("${app.auth.mode:session}") String authMode,
+                        @Value("${app.auth.token.access-ttl:15m}") Duration accessTtl,
+                        @Value("${app.auth.token.refresh-ttl:7d}") Duration refreshTtl) {
+        this.objectMapper = objectMapper;
+        this.accessTtl = accessTtl;
+        this.refreshTtl = refreshTtl;
+        byte[] secretBytes;
+        if (secret == null || secret.isBlank()) {
+            if ("token".equalsIgnoreCase(authMode)) {
+                // A per-node random key would make every node reject the others' tokens and log everyone out on restart
+                throw new IllegalStateException("app.auth.token.secret must be set when app.auth.mode=token");
+            }
+            // Session mode: tokens are incidental, so a per-process key is acceptable
+            secretBytes = new byte[32];
+            new SecureRandom().nextBytes(secretBytes);
+            log.warn("app.auth.token.secret is not set; using a random key, tokens will not survive a restart");
+        } else {
+            secretBytes = secret.getBytes(StandardCharsets.UTF_8);
+            if (secretBytes.length < 32) {
+                throw new IllegalStateException("app.auth.token.secret must be at least 32 bytes");
+            }
+        }
+        this.key = new SecretKeySpec(secretBytes, ALGORITHM);
+    }
+
+    public Duration getAccessTtl() {
+        return accessTtl;
+    }
+
+    public String issueAccessToken(User user) {
+        return issue(user, ACCESS, accessTtl);
+    }
+
+    public String issueRefreshToken(User user) {
+        return issue(user, REFRESH, refreshTtl);
+    }
+
+    /**
+     * Claims of a token with a valid signature, the expected type and not yet expired; empty otherwise
+     */
+    public Optional<TokenClaims> verify(String token, String expectedType) {
+        if (token == null) {
+            return Optional.empty();
+        }
+        int firstDot = token.indexOf('.');
+        int lastDot = token.lastIndexOf('.');
+        if (firstDot <= 0 || lastDot == firstDot) {
+            return Optional.empty();
+        }
+        String signingInput = token.substring(0, lastDot);
+        byte[] signature;
+        try {
+            signature = Base64.getUrlDecoder().decode(token.substring(lastDot + 1));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        if (!token.substring(0, firstDot).equals(HEADER) || !MessageDigest.isEqual(sign(signingInput), signature)) {
+            return Optional.empty();
+        }
+        try {
+            JsonNode payload = objectMapper.readTree(Base64.getUrlDecoder().decode(token.substring(firstDot + 1, lastDot)));
+            Instant expiresAt = Instant.ofEpochSecond(payload.path("exp").asLong());
+            if (!expectedType.equals(payload.path("typ").asText()) || !Instant.now().isBefore(expiresAt)) {
+                return Optional.empty();
+            }
+            return Optional.of(new TokenClaims(
+                    payload.path("uid").asLong(),
+                    payload.path("sub").asText(),
+                    payload.path("role").asText(null),
+                    expectedType,
+                    expiresAt));
+        } catch (Exception e) {
+            return Optional.empty();
+        }
+    }
+
+    private String issue(User user, String type, Duration ttl) {
+        Instant now = Instant.now();
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("sub", user.getEmail());
+        payload.put("uid", user.getId());
+        payload.put("role", user.getRole() != null ? user.getRole().name() : null);
+        payload.put("typ", type);
+        payload.put("iat", now.getEpochSecond());
+        payload.put("exp", now.plus(ttl).getEpochSecond());
+        payload.put("jti", UUID.randomUUID().toString());
+        try {
+            String signingInput = HEADER + "." + base64Url(objectMapper.writeValueAsBytes(payload));
+            return signingInput + "." + base64Url(sign(signingInput));
+        } catch (Exception e) {
+            throw new RuntimeException("Could not issue token", e);
+        }
+    }
+
+    private byte[] sign(String signingInput) {
+        try {
+            // Mac instances are not thread-safe; creating one per call is cheap next to the HMAC itself
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(signingInput.getBytes(StandardCharsets.US_ASCII));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+
+    private static String base64Url(byte[] bytes) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
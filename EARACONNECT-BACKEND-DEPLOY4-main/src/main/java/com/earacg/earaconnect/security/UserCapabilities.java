@@ -0,0 +1,36 @@
+package com.earacg.earaconnect.security;
+
+import com.earacg.earaconnect.model.User;
+
+import java.util.Set;
+
+/**
+ * Authorization facts about one user, precomputed by CapabilityCache.
+ * reportableResolutionIds is the subset of accessible resolutions still ASSIGNED or IN_PROGRESS.
+ */
+public record UserCapabilities(Long userId,
+                               User.UserRole role,
+                               boolean headOfDelegation,
+                               Long subcommitteeId,
+                               Long countryId,
+                               Set<Long> accessibleResolutionIds,
+                               Set<Long> reportableResolutionIds) {
+
+    public boolean isChair() {
+        return role == User.UserRole.CHAIR || role == User.UserRole.VICE_CHAIR;
+    }
+
+    public boolean isSecretary() {
+        return role == User.UserRole.SECRETARY
+                || role == User.UserRole.COMMITTEE_SECRETARY
+                || role == User.UserRole.DELEGATION_SECRETARY;
+    }
+
+    public boolean canAccessResolution(Long resolutionId) {
+        return accessibleResolutionIds.contains(resolutionId);
+    }
+
+    public boolean canSubmitReport(Long resolutionId) {
+        return isChair() && reportableResolutionIds.contains(resolutionId);
+    }
+}
@@ -0,0 +1,173 @@
+package com.earacg.earaconnect.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Login and last-seen timestamps buffered in memory and written in batches.
+ * Each flush is one UPDATE ... FROM (VALUES ...) per chunk of users instead of a read-modify-save per event;
+ * GREATEST keeps the newest value when several nodes flush the same user.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ActivityTracker {
+
+    private static final int FLUSH_CHUNK_SIZE = 500;
+    private static final int LOOKUP_CHUNK_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Pending writes, drained by flush()
+    private final ConcurrentHashMap<Long, Instant> pendingLogins = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Instant> pendingSeen = new ConcurrentHashMap<>();
+
+    // Latest last-seen known to this node, kept for presence reads
+    private final ConcurrentHashMap<Long, Instant> lastSeen = new ConcurrentHashMap<>();
+
+    // A request within this interval of the previous one is not recorded again
+    @Value("${app.activity.seen-resolution:60s}")
+    private Duration seenResolution;
+
+    @Value("${app.activity.online-window:5m}")
+    private Duration onlineWindow;
+
+    public void recordLogin(Long userId) {
+        Instant now = Instant.now();
+        pendingLogins.merge(userId, now, this::latest);
+        lastSeen.merge(userId, now, this::latest);
+        pendingSeen.merge(userId, now, this::latest);
+    }
+
+    /**
+     * Note that a user made a request. Cheap enough to call on every request.
+     */
+    public void recordSeen(Long userId) {
+        Instant now = Instant.now();
+        Instant previous = lastSeen.get(userId);
+        if (previous != null && Duration.between(previous, now).compareTo(seenResolution) < 0) {
+            return;
+        }
+        lastSeen.merge(userId, now, this::latest);
+        pendingSeen.merge(userId, now, this::latest);
+    }
+
+    /**
+     * Last-seen time per user, from memory and, for users this node has not seen, the database.
+     * Users never seen are left out.
+     */
+    public Map<Long, Instant> getLastSeen(Collection<Long> userIds) {
+        Map<Long, Instant> result = new HashMap<>();
+        List<Long> unknown = new ArrayList<>();
+        for (Long userId : new HashSet<>(userIds)) {
+            Instant seen = lastSeen.get(userId);
+            if (seen != null) {
+                result.put(userId, seen);
+            } else {
+                unknown.add(userId);
+            }
+        }
+        // Chunked so one statement stays well under the driver's bind-parameter limit
+        for (int from = 0; from < unknown.size(); from += LOOKUP_CHUNK_SIZE) {
+            List<Long> chunk = unknown.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, unknown.size()));
+            String placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+            jdbcTemplate.query("SELECT id, last_seen FROM users WHERE last_seen IS NOT NULL AND id IN (" + placeholders + ")",
+                    rs -> {
+                        result.put(rs.getLong("id"), rs.getTimestamp("last_seen").toInstant());
+                    }, chunk.toArray());
+        }
+        return result;
+    }
+
+    public boolean isOnline(Instant seen) {
+        return seen != null && Duration.between(seen, Instant.now()).compareTo(onlineWindow) < 0;
+    }
+
+    @Scheduled(fixedDelayString = "${app.activity.flush-ms:10000}")
+    public void flush() {
+        if (pendingLogins.isEmpty() && pendingSeen.isEmpty()) {
+            return;
+        }
+        // remove() hands over the current value atomically; an event racing with the drain is re-added and flushed next time
+        Set<Long> userIds = new HashSet<>(pendingLogins.keySet());
+        userIds.addAll(pendingSeen.keySet());
+        List<Object[]> rows = new ArrayList<>(userIds.size());
+        for (Long userId : userIds) {
+            Instant login = pendingLogins.remove(userId);
+            Instant seen = pendingSeen.remove(userId);
+            if (login != null || seen != null) {
+                rows.add(new Object[] { userId, timestamp(login), timestamp(seen) });
+            }
+        }
+        for (int from = 0; from < rows.size(); from += FLUSH_CHUNK_SIZE) {
+            List<Object[]> chunk = rows.subList(from, Math.min(from + FLUSH_CHUNK_SIZE, rows.size()));
+            try {
+                writeChunk(chunk);
+            } catch (Exception e) {
+                log.warn("Could not flush activity for {} users: {}", chunk.size(), e.getMessage());
+                requeue(chunk);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void writeChunk(List<Object[]> chunk) {
+        StringBuilder sql = new StringBuilder("UPDATE users u SET ")
+                .append("last_login = COALESCE(GREATEST(u.last_login, v.login), u.last_login), ")
+                .append("is_first_login = CASE WHEN v.login IS NOT NULL THEN false ELSE u.is_first_login END, ")
+                .append("last_seen = COALESCE(GREATEST(u.last_seen, v.seen), u.last_seen) ")
+                .append("FROM (VALUES ");
+        List<Object> args = new ArrayList<>(chunk.size() * 3);
+        for (int i = 0; i < chunk.size(); i++) {
+            sql.append(i == 0 ? "" : ", ").append("(CAST(? AS bigint), CAST(? AS timestamp), CAST(? AS timestamp))");
+            Object[] row = chunk.get(i);
+            args.add(row[0]);
+            args.add(row[1]);
+            args.add(row[2]);
+        }
+        sql.append(") AS v(id, login, seen) WHERE u.id = v.id");
+        jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+
+    private void requeue(List<Object[]> chunk) {
+        for (Object[] row : chunk) {
+            Long userId = (Long) row[0];
+            if (row[1] != null) {
+                pendingLogins.merge(userId, ((Timestamp) row[1]).toInstant(), this::latest);
+            }
+            if (row[2] != null) {
+                pendingSeen.merge(userId, ((Timestamp) row[2]).toInstant(), this::latest);
+            }
+        }
+    }
+
+    private Instant latest(Instant a, Instant b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private Timestamp timestamp(Instant instant) {
+        return instant != null ? Timestamp.from(instant) : null;
+    }
+}
@@ -0,0 +1,557 @@
+package com.earacg.earaconnect.service;
+
+import com.earacg.earaconnect.dto.BulkMemberRow;
+import com.earacg.earaconnect.model.CSubCommitteeMembers;
+import com.earacg.earaconnect.model.User;
+import com.earacg.earaconnect.repository.CountryRepo;
+import com.earacg.earaconnect.repository.SubCommitteeRepo;
+import com.earacg.earaconnect.security.CapabilityCache;
+import com.earacg.earaconnect.security.PasswordHashingService;
+import com.earacg.earaconnect.security.PrincipalCache;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Bulk onboarding of committee members and their user accounts.
+ * All rows are validated before anything is written; users and members are then upserted with
+ * JDBC batches in one transaction. New accounts are created with an unusable placeholder password,
+ * and a background job generates, hashes and emails real credentials one user at a time,
+ * reporting progress under a job id. The job hashes on its own single thread rather than through
+ * the shared hashing pool, so a login storm can neither reject it nor be slowed by more than one core.
+ * Jobs live in memory only; resumePending() re-dispatches accounts still on a placeholder after a restart.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BulkProvisioningService {
+
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CountryRepo countryRepo;
+    private final SubCommitteeRepo subCommitteeRepo;
+    private final PasswordHashingService passwordHashingService;
+    private final EmailService emailService;
+    private final PrincipalCache principalCache;
+    private final CapabilityCache capabilityCache;
+    private final MemberCountService memberCountService;
+
+    @Value("${app.provisioning.max-rows:1000}")
+    private int maxRows;
+
+    @Value("${app.provisioning.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.provisioning.queue:20}")
+    private int queueCapacity;
+
+    @Value("${app.provisioning.job-retention:24h}")
+    private Duration jobRetention;
+
+    private final Map<String, ProvisioningJob> jobs = new ConcurrentHashMap<>();
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void start() {
+        executor = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "bulk-provision");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdown();
+    }
+
+    /**
+     * Validate and write every row in one transaction, then queue credential emails for new accounts
+     * once it commits. Throws BulkValidationException listing all row errors when any row is invalid.
+     */
+    @Transactional
+    public ProvisioningResult provision(List<BulkMemberRow> rows) {
+        validate(rows);
+
+        List<String> emails = rows.stream().map(BulkMemberRow::getEmail).toList();
+        Set<String> existingUsers = new HashSet<>(selectEmails("users", emails));
+        Set<String> existingMembers = new HashSet<>(selectEmails("c_sub_committee_members", emails));
+
+        List<Object[]> userArgs = new ArrayList<>(rows.size());
+        List<Object[]> memberInserts = new ArrayList<>();
+        List<Object[]> memberUpdates = new ArrayList<>();
+        List<CredentialItem> credentials = new ArrayList<>();
+
+        for (BulkMemberRow row : rows) {
+            CSubCommitteeMembers member = toMember(row);
+            User.UserRole userRole = CSubCommitteeMembersService.determinePrimaryRole(member);
+            String placeholder = PasswordHashingService.UNUSABLE_PREFIX + UUID.randomUUID();
+            userArgs.add(new Object[] { row.getEmail(), placeholder, row.getName(), row.getPhone(), userRole.name(),
+                    row.getCountryId(), row.getSubcommitteeId() });
+            if (!existingUsers.contains(row.getEmail())) {
+                credentials.add(new CredentialItem(row.getEmail(), row.getName(), placeholder));
+            }
+
+            Object[] memberColumns = { row.getName(), row.getPhone(), row.getPositionInRA(), row.getCountryId(),
+                    row.getSubcommitteeId(), row.getAppointedDate() != null ? Date.valueOf(row.getAppointedDate()) : null,
+                    row.isDelegationSecretary(), row.isChair(), row.isViceChair(), row.isCommitteeSecretary(),
+                    row.isCommitteeMember(), member.determineUserRole().name(), row.getEmail() };
+            if (existingMembers.contains(row.getEmail())) {
+                memberUpdates.add(memberColumns);
+            } else {
+                memberInserts.add(memberColumns);
+            }
+        }
+
+        // Existing accounts keep their password; only profile, role and assignment are refreshed
+        jdbcTemplate.batchUpdate("INSERT INTO users (email, password, name, phone, role, country_id, subcommittee_id, " +
+                "created_at, updated_at, is_active, is_first_login, password_reset_required) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, now(), now(), true, true, false) " +
+                "ON CONFLICT (email) DO UPDATE SET name = EXCLUDED.name, phone = COALESCE(EXCLUDED.phone, users.phone), " +
+                "role = EXCLUDED.role, country_id = COALESCE(EXCLUDED.country_id, users.country_id), " +
+                "subcommittee_id = COALESCE(EXCLUDED.subcommittee_id, users.subcommittee_id), " +
+                "is_active = true, updated_at = now()", userArgs, batchSize, this::setArgs);
+        jdbcTemplate.batchUpdate("INSERT INTO c_sub_committee_members (name, phone, position_in_ra, country_id, " +
+                "position_in_ear, appointed_date, secretary_of_delegation, chair, vice_chair, committee_secretary, " +
+                "committee_member, user_role, email) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                memberInserts, batchSize, this::setArgs);
+        jdbcTemplate.batchUpdate("UPDATE c_sub_committee_members SET name = ?, phone = ?, position_in_ra = ?, " +
+                "country_id = ?, position_in_ear = ?, appointed_date = ?, secretary_of_delegation = ?, chair = ?, " +
+                "vice_chair = ?, committee_secretary = ?, committee_member = ?, user_role = ? WHERE email = ?",
+                memberUpdates, batchSize, this::setArgs);
+
+        // Plain JDBC bypasses the JPA listeners, so drop cached principals, capabilities and counts explicitly
+        existingUsers.forEach(principalCache::evict);
+        capabilityCache.invalidateAll();
+        memberCountService.invalidate();
+
+        ProvisioningJob job = newJob(credentials);
+        submitAfterCommit(job);
+        log.info("Bulk provisioning: {} users ({} new), {} members ({} new), job {}", rows.size(), credentials.size(),
+                rows.size(), memberInserts.size(), job.getId());
+        return new ProvisioningResult(job.getId(), credentials.size(), rows.size() - credentials.size(),
+                memberInserts.size(), memberUpdates.size());
+    }
+
+    public ProvisioningJob getJob(String jobId) {
+        return jobs.get(jobId);
+    }
+
+    /**
+     * Queue credentials for every active account still holding a placeholder password, e.g. after a
+     * restart dropped the in-memory queue. Safe to run on several nodes: the placeholder check in the
+     * update lets only one of them set and send each password. Returns null when nothing is pending.
+     */
+    public ProvisioningJob resumePending() {
+        List<CredentialItem> pending = jdbcTemplate.query(
+                "SELECT email, name, password FROM users WHERE is_active AND password LIKE ?",
+                (rs, rowNum) -> new CredentialItem(rs.getString("email"), rs.getString("name"), rs.getString("password")),
+                PasswordHashingService.UNUSABLE_PREFIX + "%");
+        if (pending.isEmpty()) {
+            return null;
+        }
+        ProvisioningJob job = newJob(pending);
+        log.info("Resuming credential dispatch for {} pending accounts, job {}", pending.size(), job.getId());
+        enqueue(job);
+        return job;
+    }
+
+    /**
+     * Parse CSV with a header row (names as in BulkMemberRow, any order and case).
+     * Quoted fields may contain commas, quotes ("") and line breaks.
+     */
+    public List<BulkMemberRow> parseCsv(Reader reader) throws IOException {
+        List<List<String>> records = readCsv(new BufferedReader(reader));
+        if (records.isEmpty()) {
+            return List.of();
+        }
+        List<String> header = records.get(0).stream().map(h -> h.trim().toLowerCase(Locale.ROOT)).toList();
+        List<Map<String, Object>> errors = new ArrayList<>();
+        List<BulkMemberRow> rows = new ArrayList<>();
+        for (int i = 1; i < records.size(); i++) {
+            List<String> record = records.get(i);
+            if (record.stream().allMatch(String::isBlank)) {
+                continue;
+            }
+            BulkMemberRow row = new BulkMemberRow();
+            for (int c = 0; c < header.size() && c < record.size(); c++) {
+                String value = record.get(c).trim();
+                try {
+                    applyCsvField(row, header.get(c), value);
+                } catch (IllegalArgumentException | DateTimeParseException e) {
+                    errors.add(error(i, header.get(c), "Invalid value '" + value + "'"));
+                }
+            }
+            rows.add(row);
+        }
+        if (!errors.isEmpty()) {
+            throw new BulkValidationException(errors);
+        }
+        return rows;
+    }
+
+    private void validate(List<BulkMemberRow> rows) {
+        List<Map<String, Object>> errors = new ArrayList<>();
+        if (rows == null || rows.isEmpty()) {
+            throw new BulkValidationException(List.of(error(0, null, "At least one row is required")));
+        }
+        if (rows.size() > maxRows) {
+            throw new BulkValidationException(List.of(error(0, null, "At most " + maxRows + " rows per request")));
+        }
+
+        Set<Long> countryIds = new HashSet<>();
+        Set<Long> subcommitteeIds = new HashSet<>();
+        for (BulkMemberRow row : rows) {
+            if (row.getCountryId() != null) {
+                countryIds.add(row.getCountryId());
+            }
+            if (row.getSubcommitteeId() != null) {
+                subcommitteeIds.add(row.getSubcommitteeId());
+            }
+        }
+        Set<Long> knownCountries = new HashSet<>();
+        countryRepo.findAllById(countryIds).forEach(country -> knownCountries.add(country.getId()));
+        Set<Long> knownSubcommittees = new HashSet<>();
+        subCommitteeRepo.findAllById(subcommitteeIds).forEach(subcommittee -> knownSubcommittees.add(subcommittee.getId()));
+
+        Map<String, Integer> seenEmails = new HashMap<>();
+        for (int i = 0; i < rows.size(); i++) {
+            BulkMemberRow row = rows.get(i);
+            int line = i + 1;
+            row.setName(trimToNull(row.getName()));
+            row.setEmail(trimToNull(row.getEmail()));
+            row.setPhone(trimToNull(row.getPhone()));
+            row.setPositionInRA(trimToNull(row.getPositionInRA()));
+
+            if (row.getName() == null) {
+                errors.add(error(line, "name", "Name is required"));
+            }
+            if (row.getEmail() == null || !EMAIL.matcher(row.getEmail()).matches()) {
+                errors.add(error(line, "email", "A valid email is required"));
+            } else {
+                Integer previous = seenEmails.putIfAbsent(row.getEmail().toLowerCase(Locale.ROOT), line);
+                if (previous != null) {
+                    errors.add(error(line, "email", "Duplicate of row " + previous));
+                }
+            }
+            if (row.getCountryId() == null) {
+                errors.add(error(line, "countryId", "Country is required"));
+            } else if (!knownCountries.contains(row.getCountryId())) {
+                errors.add(error(line, "countryId", "Country not found with ID: " + row.getCountryId()));
+            }
+            if (row.getSubcommitteeId() != null && !knownSubcommittees.contains(row.getSubcommitteeId())) {
+                errors.add(error(line, "subcommitteeId", "Subcommittee not found with ID: " + row.getSubcommitteeId()));
+            }
+            if (row.getAppointedDate() != null && row.getAppointedDate().isAfter(LocalDate.now())) {
+                errors.add(error(line, "appointedDate", "Appointment date cannot be in the future"));
+            }
+            int roles = (row.isChair() ? 1 : 0) + (row.isViceChair() ? 1 : 0) + (row.isDelegationSecretary() ? 1 : 0)
+                    + (row.isCommitteeSecretary() ? 1 : 0) + (row.isCommitteeMember() ? 1 : 0);
+            if (roles == 0) {
+                errors.add(error(line, "roles", "At least one role must be assigned"));
+            } else if (roles > 2) {
+                errors.add(error(line, "roles", "A maximum of two roles can be assigned"));
+            }
+            if ((row.isChair() || row.isViceChair()) && row.getSubcommitteeId() == null) {
+                errors.add(error(line, "subcommitteeId", "Subcommittee is required for chairs"));
+            }
+        }
+        if (!errors.isEmpty()) {
+            throw new BulkValidationException(errors);
+        }
+    }
+
+    private List<String> selectEmails(String table, List<String> emails) {
+        List<String> found = new ArrayList<>();
+        for (int from = 0; from < emails.size(); from += batchSize) {
+            List<String> chunk = emails.subList(from, Math.min(from + batchSize, emails.size()));
+            String placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+            found.addAll(jdbcTemplate.queryForList("SELECT DISTINCT email FROM " + table + " WHERE email IN (" + placeholders + ")",
+                    String.class, chunk.toArray()));
+        }
+        return found;
+    }
+
+    private void setArgs(PreparedStatement statement, Object[] args) throws SQLException {
+        for (int i = 0; i < args.length; i++) {
+            statement.setObject(i + 1, args[i]);
+        }
+    }
+
+    private CSubCommitteeMembers toMember(BulkMemberRow row) {
+        CSubCommitteeMembers member = new CSubCommitteeMembers();
+        member.setChair(row.isChair());
+        member.setViceChair(row.isViceChair());
+        member.setDelegationSecretary(row.isDelegationSecretary());
+        member.setCommitteeSecretary(row.isCommitteeSecretary());
+        member.setCommitteeMember(row.isCommitteeMember());
+        return member;
+    }
+
+    private ProvisioningJob newJob(List<CredentialItem> credentials) {
+        Instant cutoff = Instant.now().minus(jobRetention);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+        ProvisioningJob job = new ProvisioningJob(UUID.randomUUID().toString(), credentials);
+        jobs.put(job.getId(), job);
+        return job;
+    }
+
+    private void submitAfterCommit(ProvisioningJob job) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        enqueue(job);
+                    } else {
+                        jobs.remove(job.getId());
+                    }
+                }
+            });
+        } else {
+            enqueue(job);
+        }
+    }
+
+    private void enqueue(ProvisioningJob job) {
+        if (job.items.isEmpty()) {
+            job.finish(JobStatus.COMPLETED);
+            return;
+        }
+        try {
+            executor.execute(() -> dispatchCredentials(job));
+        } catch (RejectedExecutionException e) {
+            // Accounts exist but keep their placeholder password; credentials can be resent per user
+            log.warn("Provisioning queue full, credentials for job {} not sent", job.getId());
+            job.error(null, "Provisioning queue is full; resend credentials for these users");
+            job.finish(JobStatus.FAILED);
+        }
+    }
+
+    /**
+     * Generate, store and email credentials for each new account. A row whose password is no longer
+     * the placeholder (credentials resent or account changed meanwhile) is skipped.
+     */
+    private void dispatchCredentials(ProvisioningJob job) {
+        job.status = JobStatus.RUNNING;
+        for (CredentialItem item : job.items) {
+            try {
+                String password = UUID.randomUUID().toString().replace("-", "").substring(0, 12);
+                String hash = passwordHashingService.encodeOnCurrentThread(password);
+                int updated = jdbcTemplate.update("UPDATE users SET password = ?, updated_at = now() WHERE email = ? AND password = ?",
+                        hash, item.email, item.placeholder);
+                if (updated == 0) {
+                    job.skipped++;
+                    continue;
+                }
+                principalCache.evict(item.email);
+                emailService.sendCredentials(item.email, item.name, password);
+                job.sent++;
+            } catch (Exception e) {
+                log.warn("Credential dispatch failed for {} in job {}: {}", item.email, job.getId(), e.getMessage());
+                job.failed++;
+                job.error(item.email, e.getMessage());
+            }
+        }
+        job.finish(job.failed == 0 ? JobStatus.COMPLETED : JobStatus.COMPLETED_WITH_ERRORS);
+        log.info("Provisioning job {} finished: {} sent, {} failed, {} skipped", job.getId(), job.sent, job.failed, job.skipped);
+    }
+
+    private void applyCsvField(BulkMemberRow row, String column, String value) {
+        if (value.isEmpty()) {
+            return;
+        }
+        switch (column) {
+            case "name" -> row.setName(value);
+            case "email" -> row.setEmail(value);
+            case "phone" -> row.setPhone(value);
+            case "positioninra" -> row.setPositionInRA(value);
+            case "countryid" -> row.setCountryId(Long.valueOf(value));
+            case "subcommitteeid" -> row.setSubcommitteeId(Long.valueOf(value));
+            case "appointeddate" -> row.setAppointedDate(LocalDate.parse(value));
+            case "chair" -> row.setChair(parseFlag(value));
+            case "vicechair" -> row.setViceChair(parseFlag(value));
+            case "delegationsecretary" -> row.setDelegationSecretary(parseFlag(value));
+            case "committeesecretary" -> row.setCommitteeSecretary(parseFlag(value));
+            case "committeemember" -> row.setCommitteeMember(parseFlag(value));
+            default -> throw new IllegalArgumentException("Unknown column " + column);
+        }
+    }
+
+    private static boolean parseFlag(String value) {
+        return switch (value.toLowerCase(Locale.ROOT)) {
+            case "true", "yes", "y", "1", "x" -> true;
+            case "false", "no", "n", "0" -> false;
+            default -> throw new IllegalArgumentException("Not a boolean: " + value);
+        };
+    }
+
+    private static List<List<String>> readCsv(BufferedReader reader) throws IOException {
+        List<List<String>> records = new ArrayList<>();
+        List<String> record = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int c;
+        while ((c = reader.read()) != -1) {
+            char ch = (char) c;
+            if (quoted) {
+                if (ch == '"') {
+                    reader.mark(1);
+                    if (reader.read() == '"') {
+                        field.append('"');
+                    } else {
+                        reader.reset();
+                        quoted = false;
+                    }
+                } else {
+                    field.append(ch);
+                }
+            } else if (ch == '"') {
+                quoted = true;
+            } else if (ch == ',') {
+                record.add(field.toString());
+                field.setLength(0);
+            } else if (ch == '\n' || ch == '\r') {
+                if (ch == '\r') {
+                    reader.mark(1);
+                    if (reader.read() != '\n') {
+                        reader.reset();
+                    }
+                }
+                record.add(field.toString());
+                field.setLength(0);
+                records.add(record);
+                record = new ArrayList<>();
+            } else {
+                field.append(ch);
+            }
+        }
+        if (field.length() > 0 || !record.isEmpty()) {
+            record.add(field.toString());
+            records.add(record);
+        }
+        return records;
+    }
+
+    private static String trimToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private static Map<String, Object> error(int row, String field, String message) {
+        Map<String, Object> error = new LinkedHashMap<>();
+        error.put("row", row);
+        if (field != null) {
+            error.put("field", field);
+        }
+        error.put("message", message);
+        return error;
+    }
+
+    public enum JobStatus {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        COMPLETED_WITH_ERRORS,
+        FAILED
+    }
+
+    private record CredentialItem(String email, String name, String placeholder) {
+    }
+
+    /**
+     * Counts returned once the rows are written
+     */
+    public record ProvisioningResult(String jobId, int usersCreated, int usersUpdated,
+                                     int membersCreated, int membersUpdated) {
+    }
+
+    /**
+     * Progress of one credential dispatch job; updated by the single job thread only
+     */
+    @Getter
+    public static class ProvisioningJob {
+        private final String id;
+        private final int total;
+        private final Instant createdAt = Instant.now();
+        private volatile JobStatus status = JobStatus.QUEUED;
+        private volatile int sent;
+        private volatile int failed;
+        private volatile int skipped;
+        private volatile Instant finishedAt;
+        private final List<Map<String, Object>> errors = Collections.synchronizedList(new ArrayList<>());
+        @Getter(AccessLevel.NONE)
+        private final List<CredentialItem> items;
+
+        ProvisioningJob(String id, List<CredentialItem> items) {
+            this.id = id;
+            this.items = items;
+            this.total = items.size();
+        }
+
+        void error(String email, String message) {
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                Map<String, Object> error = new LinkedHashMap<>();
+                error.put("email", email);
+                error.put("message", message);
+                errors.add(error);
+            }
+        }
+
+        void finish(JobStatus finalStatus) {
+            finishedAt = Instant.now();
+            status = finalStatus;
+        }
+    }
+
+    /**
+     * One or more rows failed validation; nothing was written
+     */
+    public static class BulkValidationException extends RuntimeException {
+        @Getter
+        private final List<Map<String, Object>> errors;
+
+        public BulkValidationException(List<Map<String, Object>> errors) {
+            super(errors.size() + " row(s) failed validation");
+            this.errors = errors;
+        }
+    }
+}
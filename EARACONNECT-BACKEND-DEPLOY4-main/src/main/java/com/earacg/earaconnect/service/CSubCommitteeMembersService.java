@@ -12,7 +12,10 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.HashSet;
 import java.util.Optional;
@@ -27,6 +30,7 @@ public class CSubCommitteeMembersService {
     private final CSubCommitteeMembersRepo repository;
     private final DocumentService documentService;
     private final UserService userService;
+    private final DocumentIndexService documentIndexService;
 
 
     /**
@@ -65,6 +69,7 @@ public class CSubCommitteeMembersService {
         member.setUserRole(member.determineUserRole());
         
         CSubCommitteeMembers savedMember = repository.save(member);
+        linkAppointmentLetter(savedMember);
         log.info("✅ CSubCommitteeMembersService: Saved member {} with subcommittee: {}", 
                 savedMember.getName(), savedMember.getSubCommittee() != null ? savedMember.getSubCommittee().getName() : "NULL");
 
@@ -152,6 +157,7 @@ public class CSubCommitteeMembersService {
         }
 
         CSubCommitteeMembers savedMember = repository.save(existingMember);
+        linkAppointmentLetter(savedMember);
 
         // Sync to users table and update roles if needed
         syncMemberToUser(savedMember);
@@ -164,6 +170,17 @@ public class CSubCommitteeMembersService {
         return savedMember;
     }
 
+    /**
+     * Make the member's appointment letter findable by the member's name and text
+     */
+    private void linkAppointmentLetter(CSubCommitteeMembers member) {
+        Document letter = member.getAppointedLetterDoc();
+        if (letter != null) {
+            documentIndexService.link(DocumentIndexService.documentKey(letter.getId()), letter.getId(),
+                    "CommitteeMember", member.getId(), member.getName());
+        }
+    }
+
     /**
      * Delete committee member
      */
@@ -180,6 +197,35 @@ public class CSubCommitteeMembersService {
         repository.deleteById(id);
     }
 
+    /**
+     * Appointment letter metadata for many members in one call, keyed by member id.
+     * Members without a letter (or unknown ids) are left out.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, Document> findAppointmentLetters(Collection<Long> memberIds) {
+        Map<Long, Long> documentIds = new LinkedHashMap<>();
+        for (Object[] row : repository.findAppointmentLetterIds(memberIds)) {
+            documentIds.put((Long) row[0], (Long) row[1]);
+        }
+        Map<Long, Document> documents = documentService.getDocuments(documentIds.values());
+        Map<Long, Document> letters = new LinkedHashMap<>();
+        documentIds.forEach((memberId, documentId) -> {
+            Document document = documents.get(documentId);
+            if (document != null) {
+                letters.put(memberId, document);
+            }
+        });
+        return letters;
+    }
+
+    /**
+     * Appointment letter of one member, or null if none
+     */
+    @Transactional(readOnly = true)
+    public Document findAppointmentLetter(Long memberId) {
+        return findAppointmentLetters(List.of(memberId)).get(memberId);
+    }
+
     /**
      * Find members by country
      */
@@ -332,7 +378,7 @@ public class CSubCommitteeMembersService {
     /**
      * Determine the primary role based on member's assigned roles
      */
-    private User.UserRole determinePrimaryRole(CSubCommitteeMembers member) {
+    static User.UserRole determinePrimaryRole(CSubCommitteeMembers member) {
         if (member.isChair()) {
             return User.UserRole.CHAIR;
         } else if (member.isViceChair()) {
@@ -8,6 +8,8 @@ import com.earacg.earaconnect.repository.UserRepo;
 import com.earacg.earaconnect.repository.ReportRepo;
 import com.earacg.earaconnect.repository.ResolutionRepo;
 import com.earacg.earaconnect.repository.SubCommitteeRepo;
+import com.earacg.earaconnect.security.CapabilityCache;
+import com.earacg.earaconnect.security.UserCapabilities;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -29,61 +31,33 @@ public class ChairValidationService {
     @Autowired
     private SubCommitteeRepo subCommitteeRepo;
 
+    @Autowired
+    private CapabilityCache capabilityCache;
+
     /**
      * Validate if a user is a Chair
      */
     public boolean isChair(Long userId) {
-        Optional<User> userOpt = userRepo.findById(userId);
-        if (userOpt.isPresent()) {
-            User user = userOpt.get();
-            return User.UserRole.CHAIR.equals(user.getRole()) || 
-                   User.UserRole.VICE_CHAIR.equals(user.getRole());
-        }
-        return false;
+        UserCapabilities capabilities = capabilityCache.get(userId);
+        return capabilities != null && capabilities.isChair();
     }
 
     /**
      * Validate if a Chair can access a specific resolution
      */
     public boolean canAccessResolution(Long chairId, Long resolutionId) {
-        Optional<User> chairOpt = userRepo.findById(chairId);
-        Optional<Resolution> resolutionOpt = resolutionRepo.findById(resolutionId);
-        
-        if (chairOpt.isPresent() && resolutionOpt.isPresent()) {
-            User chair = chairOpt.get();
-            Resolution resolution = resolutionOpt.get();
-            
-            // Check if chair's subcommittee is assigned to this resolution
-            // Since Resolution doesn't have getSubcommittees(), we'll check through assignments
-            if (resolution.getAssignments() != null) {
-                return resolution.getAssignments().stream()
-                    .anyMatch(assignment -> assignment.getSubcommittee().getId().equals(chair.getSubcommittee().getId()));
-            }
-        }
-        return false;
+        // Chair's subcommittee must be assigned to this resolution
+        UserCapabilities capabilities = capabilityCache.get(chairId);
+        return capabilities != null && capabilities.canAccessResolution(resolutionId);
     }
 
     /**
      * Validate if a Chair can submit a report for a resolution
      */
     public boolean canSubmitReport(Long chairId, Long resolutionId) {
-        if (!isChair(chairId)) {
-            return false;
-        }
-        
-        if (!canAccessResolution(chairId, resolutionId)) {
-            return false;
-        }
-        
-        // Check if resolution is in a state that allows report submission
-        Optional<Resolution> resolutionOpt = resolutionRepo.findById(resolutionId);
-        if (resolutionOpt.isPresent()) {
-            Resolution resolution = resolutionOpt.get();
-            return "ASSIGNED".equals(resolution.getStatus().name()) || 
-                   "IN_PROGRESS".equals(resolution.getStatus().name());
-        }
-        
-        return false;
+        // Chair of an assigned subcommittee, and the resolution is still ASSIGNED or IN_PROGRESS
+        UserCapabilities capabilities = capabilityCache.get(chairId);
+        return capabilities != null && capabilities.canSubmitReport(resolutionId);
     }
 
     /**
@@ -4,6 +4,8 @@ import com.earacg.earaconnect.model.CountryCommitteeMember;
 import com.earacg.earaconnect.model.User;
 import com.earacg.earaconnect.repository.CountryCommitteeMemberRepo;
 import com.earacg.earaconnect.repository.UserRepo;
+import com.earacg.earaconnect.security.PasswordHashingService;
+import com.earacg.earaconnect.security.PrincipalCache;
 import com.earacg.earaconnect.service.EmailService;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -31,6 +33,12 @@ public class CountryCommitteeMemberService {
     
     @Autowired
     private EmailService emailService;
+    
+    @Autowired
+    private PrincipalCache principalCache;
+    
+    @Autowired
+    private PasswordHashingService passwordHashingService;
 
     // Create
     public CountryCommitteeMember save(CountryCommitteeMember member) {
@@ -160,9 +168,10 @@ public class CountryCommitteeMemberService {
             
             // Generate new password and send credentials for existing users
             String randomPassword = generateRandomPassword();
-            user.setPassword(randomPassword);
+            user.setPassword(passwordHashingService.encode(randomPassword));
             
             User savedUser = userRepo.save(user);
+            principalCache.evict(savedUser.getEmail());
             log.info("✅ CountryCommitteeMemberService: Updated existing user {} with role {} and country {}", 
                     user.getEmail(), primaryRole, member.getCountry() != null ? member.getCountry().getName() : "NULL");
             
@@ -186,7 +195,7 @@ public class CountryCommitteeMemberService {
             
             // Generate random password for new users
             String randomPassword = generateRandomPassword();
-            newUser.setPassword(randomPassword);
+            newUser.setPassword(passwordHashingService.encode(randomPassword));
             
             User savedUser = userRepo.save(newUser);
             log.info("✅ CountryCommitteeMemberService: Created new user {} with role {} and country {}", 
@@ -259,8 +268,9 @@ public class CountryCommitteeMemberService {
                     
                     // Generate new password
                     String newPassword = generateRandomPassword();
-                    user.setPassword(newPassword);
+                    user.setPassword(passwordHashingService.encode(newPassword));
                     userRepo.save(user);
+                    principalCache.evict(user.getEmail());
                     
                     // Send new credentials
                     emailService.sendCommissionerGeneralCredentials(user.getEmail(), user.getName(), newPassword);
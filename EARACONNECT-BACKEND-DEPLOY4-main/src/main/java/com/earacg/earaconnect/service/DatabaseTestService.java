@@ -4,6 +4,7 @@ import com.earacg.earaconnect.model.CSubCommitteeMembers;
 import com.earacg.earaconnect.model.User;
 import com.earacg.earaconnect.repository.CSubCommitteeMembersRepo;
 import com.earacg.earaconnect.repository.UserRepo;
+import com.earacg.earaconnect.security.PasswordHashingService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -21,6 +22,7 @@ public class DatabaseTestService {
     private final UserRepo userRepo;
     private final CSubCommitteeMembersRepo cSubCommitteeMembersRepo;
     private final UserService userService;
+    private final PasswordHashingService passwordHashingService;
 
     /**
      * Run all database validation tests
@@ -151,7 +153,7 @@ public class DatabaseTestService {
                 String testPassword = "testpassword123";
                 
                 // Set a known password for testing
-                testUser.setPassword(testPassword);
+                testUser.setPassword(passwordHashingService.encode(testPassword));
                 userRepo.save(testUser);
                 
                 boolean authResult = userService.authenticateUser(originalEmail, testPassword);
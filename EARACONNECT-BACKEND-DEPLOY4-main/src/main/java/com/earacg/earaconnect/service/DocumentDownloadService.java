@@ -0,0 +1,276 @@
+package com.earacg.earaconnect.service;
+
+import com.earacg.earaconnect.model.Document;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.net.URLEncoder;
+
+/**
+ * Streams stored documents straight from disk to the socket.
+ * Uses the container's sendfile support when available and FileChannel.transferTo otherwise
+ * (remote storage backends are relayed with ranged reads),
+ * honours single byte ranges (206) and answers If-None-Match on the content digest with 304.
+ * Compressed bodies are sent with Content-Encoding when the client accepts it and decoded otherwise.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DocumentDownloadService {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final DocumentService documentService;
+
+    /**
+     * Write a document to the response, inline or as an attachment, revalidating on every use
+     */
+    public void serve(Document document, boolean attachment, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        serve(document, attachment, "private, no-cache", request, response);
+    }
+
+    /**
+     * Write a document to the response with the given Cache-Control, e.g. immutable for fingerprinted URLs
+     */
+    public void serve(Document document, boolean attachment, String cacheControl,
+            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Path file = documentService.localFile(document).orElse(null);
+        long storedLength = documentService.storedSize(document);
+        if (storedLength < 0) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        // A compressed body goes out as stored when the client accepts its encoding, otherwise decoded.
+        // Range requests always address the decoded bytes.
+        String codec = document.getStorageCodec();
+        boolean sendEncoded = codec != null && request.getHeader(HttpHeaders.RANGE) == null
+                && acceptsEncoding(request.getHeader(HttpHeaders.ACCEPT_ENCODING), codec);
+        long length = codec == null || sendEncoded ? storedLength : document.getFileSize();
+
+        String etag = etagFor(document, file, storedLength);
+        if (sendEncoded) {
+            // Each representation needs its own strong validator
+            etag = etag.substring(0, etag.length() - 1) + "-" + codec + "\"";
+        }
+        response.setHeader(HttpHeaders.ETAG, etag);
+        if (codec != null) {
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        if (sendEncoded) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, codec);
+        }
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        // Content type comes from the Document row rather than a per-request probe
+        String contentType = document.getContentType() != null ? document.getContentType() : "application/octet-stream";
+        response.setContentType(contentType);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, contentDisposition(document, attachment));
+
+        long start = 0;
+        long end = length - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (range != null && (ifRange == null || ifRange.equals(etag))) {
+            long[] bounds = parseRange(range, length);
+            if (bounds == null) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            if (bounds.length == 2) {
+                start = bounds[0];
+                end = bounds[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentLengthLong(count);
+        if ("HEAD".equalsIgnoreCase(request.getMethod()) || count <= 0) {
+            return;
+        }
+
+        if (codec != null && !sendEncoded) {
+            // Decompress on the fly, skipping to the requested range; only small bodies are stored encoded,
+            // so decoding from the start stays cheap
+            try (InputStream in = documentService.openDecoded(document)) {
+                in.skipNBytes(start);
+                copy(in, response.getOutputStream(), count);
+            }
+            return;
+        }
+
+        if (file == null) {
+            // Remote store: ask it for exactly the requested range and relay it
+            try (InputStream in = documentService.openRange(document, start, count)) {
+                in.transferTo(response.getOutputStream());
+            }
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // The connector writes the file after the servlet returns, without copying it through the JVM heap
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, out);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+
+    /**
+     * Strong ETag from the content digest; older rows without one fall back to size and mtime
+     */
+    private String etagFor(Document document, Path file, long length) throws IOException {
+        if (document.getContentHash() != null || file == null) {
+            return "\"" + (document.getContentHash() != null ? document.getContentHash() : document.getStorageKey()) + "\"";
+        }
+        return "\"" + document.getId() + "-" + length + "-" + Files.getLastModifiedTime(file).toMillis() + "\"";
+    }
+
+    /**
+     * Whether an Accept-Encoding header allows the given coding (explicitly or via *) with a non-zero q
+     */
+    private boolean acceptsEncoding(String acceptEncoding, String codec) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String part : acceptEncoding.split(",")) {
+            String[] params = part.trim().split(";");
+            String coding = params[0].trim();
+            if (!coding.equalsIgnoreCase(codec) && !coding.equals("*")) {
+                continue;
+            }
+            for (int i = 1; i < params.length; i++) {
+                String param = params[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        if (Double.parseDouble(param.substring(2)) <= 0) {
+                            return false;
+                        }
+                    } catch (NumberFormatException ex) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private void copy(InputStream in, OutputStream out, long count) throws IOException {
+        byte[] buffer = new byte[64 * 1024];
+        long remaining = count;
+        while (remaining > 0) {
+            int n = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+            if (n < 0) {
+                break;
+            }
+            out.write(buffer, 0, n);
+            remaining -= n;
+        }
+    }
+
+    private boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals("*") || value.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Parse a single "bytes=" range. Returns {start, end}, an empty array to serve the whole
+     * file (unsupported or multi-range requests), or null when the range cannot be satisfied.
+     */
+    private long[] parseRange(String header, long length) {
+        if (!header.startsWith("bytes=") || header.contains(",")) {
+            return new long[0];
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return new long[0];
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            long start;
+            long end;
+            if (first.isEmpty()) {
+                // Suffix range: the last N bytes
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0) {
+                    return null;
+                }
+                start = Math.max(length - suffix, 0);
+                end = length - 1;
+            } else {
+                start = Long.parseLong(first);
+                end = last.isEmpty() ? length - 1 : Math.min(Long.parseLong(last), length - 1);
+            }
+            if (start >= length || start > end) {
+                return null;
+            }
+            return new long[] { start, end };
+        } catch (NumberFormatException ex) {
+            return new long[0];
+        }
+    }
+
+    private String contentDisposition(Document document, boolean attachment) {
+        if (!attachment) {
+            return "inline";
+        }
+        String filename = document.getOriginalFilename();
+        String encoded = URLEncoder.encode(filename, StandardCharsets.UTF_8).replace("+", "%20");
+        return "attachment; filename=\"" + filename.replace("\"", "") + "\"; filename*=UTF-8''" + encoded;
+    }
+}
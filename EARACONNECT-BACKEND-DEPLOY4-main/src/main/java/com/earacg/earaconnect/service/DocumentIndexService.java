@@ -0,0 +1,311 @@
+package com.earacg.earaconnect.service;
+
+import com.earacg.earaconnect.model.Document;
+import com.earacg.earaconnect.model.DocumentText;
+import com.earacg.earaconnect.repository.DocumentRepo;
+import com.earacg.earaconnect.repository.DocumentTextRepo;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.apache.poi.xwpf.extractor.XWPFWordExtractor;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Full-text index over uploaded PDFs and Word documents.
+ * Text is extracted on a small bounded pool once the upload has committed and stored in
+ * document_texts together with the entity the file belongs to (a committee member's appointment
+ * letter, a meeting's invitation). Postgres keeps a GIN-indexed tsvector of title and content,
+ * so a search is one index lookup instead of opening files.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DocumentIndexService {
+
+    public static final String DOCUMENT_PREFIX = "document:";
+    public static final String INVITATION_PREFIX = "invitation:";
+
+    private final DocumentTextRepo documentTextRepo;
+    private final DocumentRepo documentRepo;
+    private final StorageBackend storage;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.file.upload-dir:uploads}")
+    private String uploadDir;
+
+    @Value("${app.documents.index.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.documents.index.workers:2}")
+    private int workers;
+
+    @Value("${app.documents.index.queue:200}")
+    private int queueCapacity;
+
+    // Longer texts are truncated; appointment letters and invitations are a few pages
+    @Value("${app.documents.index.max-chars:200000}")
+    private int maxChars;
+
+    private ThreadPoolExecutor executor;
+
+    // Sources queued or being extracted on this node, so the retry sweep does not queue them twice
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "doc-index-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdown();
+    }
+
+    public static String documentKey(Long documentId) {
+        return DOCUMENT_PREFIX + documentId;
+    }
+
+    public static String invitationKey(String fileName) {
+        return INVITATION_PREFIX + fileName;
+    }
+
+    /**
+     * Create the generated search column and its GIN index. Called once at startup.
+     */
+    public void ensureSearchIndex() {
+        jdbcTemplate.execute("ALTER TABLE document_texts ADD COLUMN IF NOT EXISTS search_vector tsvector " +
+                "GENERATED ALWAYS AS (setweight(to_tsvector('simple', coalesce(title, '')), 'A') || " +
+                "setweight(to_tsvector('simple', coalesce(content, '')), 'B')) STORED");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_document_texts_search ON document_texts USING GIN (search_vector)");
+    }
+
+    /**
+     * Link files uploaded before the index existed to their entities and queue everything still pending
+     */
+    public void backfill() {
+        if (!enabled) {
+            return;
+        }
+        jdbcTemplate.update("INSERT INTO document_texts (source_key, document_id, entity_type, entity_id, title, status) " +
+                "SELECT 'document:' || m.appointed_letter_doc_id, m.appointed_letter_doc_id, 'CommitteeMember', m.id, m.name, 'PENDING' " +
+                "FROM c_sub_committee_members m WHERE m.appointed_letter_doc_id IS NOT NULL " +
+                "ON CONFLICT (source_key) DO NOTHING");
+        jdbcTemplate.update("INSERT INTO document_texts (source_key, entity_type, entity_id, title, status) " +
+                "SELECT 'invitation:' || m.invitation_pdf, 'Meeting', m.id, m.title, 'PENDING' " +
+                "FROM meetings m WHERE m.invitation_pdf IS NOT NULL " +
+                "ON CONFLICT (source_key) DO NOTHING");
+        List<String> pending = jdbcTemplate.queryForList(
+                "SELECT source_key FROM document_texts WHERE status = 'PENDING'", String.class);
+        pending.forEach(this::submit);
+        if (!pending.isEmpty()) {
+            log.info("Queued {} documents for text extraction", pending.size());
+        }
+    }
+
+    /**
+     * Re-queue sources left PENDING because the extraction queue was full, up to the free queue space
+     */
+    @Scheduled(fixedDelayString = "${app.documents.index.retry-ms:300000}")
+    public void retryPending() {
+        if (!enabled) {
+            return;
+        }
+        int capacity = executor.getQueue().remainingCapacity();
+        if (capacity == 0) {
+            return;
+        }
+        List<String> pending = jdbcTemplate.queryForList(
+                "SELECT source_key FROM document_texts WHERE status = 'PENDING' ORDER BY source_key LIMIT ?",
+                String.class, capacity + inFlight.size());
+        int queued = 0;
+        for (String sourceKey : pending) {
+            if (queued >= capacity) {
+                break;
+            }
+            if (!inFlight.contains(sourceKey)) {
+                enqueue(sourceKey);
+                queued++;
+            }
+        }
+        if (queued > 0) {
+            log.info("Re-queued {} pending documents for text extraction", queued);
+        }
+    }
+
+    /**
+     * Queue extraction for a source once the current transaction commits (immediately outside one).
+     * When the queue is full the row stays PENDING and is picked up by the periodic retry.
+     */
+    public void submit(String sourceKey) {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(sourceKey);
+                }
+            });
+        } else {
+            enqueue(sourceKey);
+        }
+    }
+
+    /**
+     * Record which entity a file belongs to. Independent of extraction, so either may happen first.
+     */
+    public void link(String sourceKey, Long documentId, String entityType, Long entityId, String title) {
+        documentTextRepo.upsertLink(sourceKey, documentId, entityType, entityId, title);
+    }
+
+    /**
+     * Drop a file from the index
+     */
+    public void remove(String sourceKey) {
+        documentTextRepo.deleteBySourceKey(sourceKey);
+    }
+
+    /**
+     * Ranked matches with a highlighted snippet, optionally restricted to one entity type
+     */
+    public List<Map<String, Object>> search(String query, String entityType, int limit) {
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (Object[] row : documentTextRepo.search(query, entityType, limit)) {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("sourceKey", row[0]);
+            result.put("documentId", row[1]);
+            result.put("entityType", row[2]);
+            result.put("entityId", row[3]);
+            result.put("title", row[4]);
+            result.put("snippet", row[5]);
+            result.put("rank", row[6]);
+            results.add(result);
+        }
+        return results;
+    }
+
+    private void enqueue(String sourceKey) {
+        if (!inFlight.add(sourceKey)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    index(sourceKey);
+                } catch (Exception e) {
+                    log.warn("Text extraction failed for {}: {}", sourceKey, e.getMessage());
+                    documentTextRepo.upsertContent(sourceKey, null, null, null, DocumentText.ExtractionStatus.FAILED.name());
+                } finally {
+                    inFlight.remove(sourceKey);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(sourceKey);
+            log.debug("Extraction queue full, {} left pending", sourceKey);
+        }
+    }
+
+    private void index(String sourceKey) throws IOException {
+        Long documentId = null;
+        String contentHash = null;
+        byte[] bytes;
+
+        if (sourceKey.startsWith(DOCUMENT_PREFIX)) {
+            documentId = Long.valueOf(sourceKey.substring(DOCUMENT_PREFIX.length()));
+            Document document = documentRepo.findById(documentId).orElse(null);
+            if (document == null) {
+                remove(sourceKey);
+                return;
+            }
+            contentHash = document.getContentHash();
+            if (contentHash != null) {
+                // Identical bytes were extracted before: copy the text instead of parsing again
+                DocumentText previous = documentTextRepo
+                        .findFirstByContentHashAndStatus(contentHash, DocumentText.ExtractionStatus.INDEXED).orElse(null);
+                if (previous != null) {
+                    documentTextRepo.upsertContent(sourceKey, documentId, previous.getContent(), contentHash,
+                            DocumentText.ExtractionStatus.INDEXED.name());
+                    return;
+                }
+            }
+            try (InputStream in = StorageCodec.decode(document.getStorageCodec(), document.getStorageKey() != null
+                    ? storage.open(document.getStorageKey())
+                    : Files.newInputStream(DocumentService.legacyFile(uploadDir, document)))) {
+                bytes = in.readAllBytes();
+            }
+        } else if (sourceKey.startsWith(INVITATION_PREFIX)) {
+            String storageKey = "invitations/" + sourceKey.substring(INVITATION_PREFIX.length());
+            if (!storage.exists(storageKey)) {
+                remove(sourceKey);
+                return;
+            }
+            try (InputStream in = storage.open(storageKey)) {
+                bytes = in.readAllBytes();
+            }
+        } else {
+            throw new IllegalArgumentException("Unknown index source: " + sourceKey);
+        }
+
+        String text = extract(bytes);
+        DocumentText.ExtractionStatus status = text != null
+                ? DocumentText.ExtractionStatus.INDEXED
+                : DocumentText.ExtractionStatus.UNSUPPORTED;
+        documentTextRepo.upsertContent(sourceKey, documentId, text, contentHash, status.name());
+    }
+
+    /**
+     * Plain text of a PDF or DOCX body, or null for formats without a text layer we can read
+     */
+    private String extract(byte[] bytes) throws IOException {
+        UploadPipeline.FileKind kind = UploadPipeline.sniff(bytes);
+        String text;
+        if (kind == UploadPipeline.FileKind.PDF) {
+            try (PDDocument pdf = Loader.loadPDF(bytes)) {
+                text = new PDFTextStripper().getText(pdf);
+            }
+        } else if (kind == UploadPipeline.FileKind.DOCX) {
+            try (XWPFDocument docx = new XWPFDocument(new ByteArrayInputStream(bytes));
+                 XWPFWordExtractor extractor = new XWPFWordExtractor(docx)) {
+                text = extractor.getText();
+            }
+        } else {
+            return null;
+        }
+        // Postgres text columns reject NUL; collapse whitespace runs left by layout
+        text = text.replace('\u0000', ' ').replaceAll("\\s+", " ").trim();
+        return text.length() > maxChars ? text.substring(0, maxChars) : text;
+    }
+}
@@ -0,0 +1,80 @@
+package com.earacg.earaconnect.service;
+
+import com.earacg.earaconnect.model.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU of document metadata keyed by id, with a secondary index by stored filename.
+ * Holds detached copies of Document rows; DocumentService writes through on store and evicts on delete.
+ * Cached instances are shared, so callers must treat them as read-only.
+ */
+@Service
+public class DocumentMetadataCache {
+
+    @Value("${app.documents.metadata-cache.max-entries:10000}")
+    private int maxEntries;
+
+    // Access-ordered map used as an LRU bounded by entry count
+    private final LinkedHashMap<Long, Document> byId = new LinkedHashMap<>(256, 0.75f, true);
+    private final Map<String, Long> idsByStoredFilename = new HashMap<>();
+
+    public synchronized Document get(Long id) {
+        return byId.get(id);
+    }
+
+    public synchronized Document getByStoredFilename(String storedFilename) {
+        Long id = idsByStoredFilename.get(storedFilename);
+        return id != null ? byId.get(id) : null;
+    }
+
+    /**
+     * Cache a copy of a document row and return the copy
+     */
+    public synchronized Document put(Document document) {
+        Document copy = snapshot(document);
+        Document previous = byId.put(copy.getId(), copy);
+        if (previous != null) {
+            idsByStoredFilename.remove(previous.getStoredFilename());
+        }
+        idsByStoredFilename.put(copy.getStoredFilename(), copy.getId());
+        Iterator<Map.Entry<Long, Document>> eldest = byId.entrySet().iterator();
+        while (byId.size() > maxEntries && eldest.hasNext()) {
+            idsByStoredFilename.remove(eldest.next().getValue().getStoredFilename());
+            eldest.remove();
+        }
+        return copy;
+    }
+
+    public synchronized void evict(Long id) {
+        Document removed = byId.remove(id);
+        if (removed != null) {
+            idsByStoredFilename.remove(removed.getStoredFilename());
+        }
+    }
+
+    public synchronized void clear() {
+        byId.clear();
+        idsByStoredFilename.clear();
+    }
+
+    private Document snapshot(Document document) {
+        return Document.builder()
+                .id(document.getId())
+                .originalFilename(document.getOriginalFilename())
+                .storedFilename(document.getStoredFilename())
+                .filePath(document.getFilePath())
+                .contentType(document.getContentType())
+                .fileSize(document.getFileSize())
+                .storageKey(document.getStorageKey())
+                .contentHash(document.getContentHash())
+                .storageCodec(document.getStorageCodec())
+                .uploadDate(document.getUploadDate())
+                .build();
+    }
+}
@@ -2,22 +2,36 @@ package com.earacg.earaconnect.service;
 
 import com.earacg.earaconnect.model.Document;
 import com.earacg.earaconnect.repository.DocumentRepo;
+import com.earacg.earaconnect.repository.StoredBlobRepo;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.net.MalformedURLException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 @Service
@@ -26,13 +40,39 @@ import java.util.UUID;
 public class DocumentService {
 
     private final DocumentRepo documentRepository;
+    private final StoredBlobRepo storedBlobRepository;
+    private final UploadPipeline uploadPipeline;
+    private final StorageBackend storage;
+    private final DocumentIndexService documentIndexService;
+    private final StorageCodec storageCodec;
+    private final DocumentMetadataCache metadataCache;
+    private final PlatformTransactionManager transactionManager;
+
+    // Work started from afterCommit callbacks must not join the finished transaction
+    private TransactionTemplate requiresNew;
+
+    private static final long MAX_FILE_SIZE = 10 * 1024 * 1024; // 10MB
 
     @Value("${app.file.upload-dir:uploads}")
     private String uploadDir;
 
+    // "content-addressed" stores each distinct body once under its digest, "legacy" writes one file per upload
+    @Value("${app.file.storage-mode:content-addressed}")
+    private String storageMode;
+
+    @PostConstruct
+    void initTransactionTemplate() {
+        requiresNew = new TransactionTemplate(transactionManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
     /**
-     * Store uploaded file and save document metadata
+     * Store uploaded file and save document metadata.
+     * The body is written once through the upload pipeline (digest, magic-byte check, size limit);
+     * in content-addressed mode identical uploads share one blob and the Document row holds a reference to it.
+     * Compressible bodies may be stored gzip-encoded, recorded in storageCodec.
      */
+    @Transactional
     public Document storeFile(MultipartFile file) {
         // Validate file
         validateFile(file);
@@ -40,7 +80,7 @@ public class DocumentService {
         // Create upload directory if it doesn't exist
         Path uploadPath = Paths.get(uploadDir).toAbsolutePath().normalize();
         try {
-            Files.createDirectories(uploadPath);
+            Files.createDirectories(uploadPath.resolve("tmp"));
         } catch (IOException ex) {
             throw new RuntimeException("Could not create upload directory", ex);
         }
@@ -50,25 +90,79 @@ public class DocumentService {
         String fileExtension = getFileExtension(originalFilename);
         String storedFilename = UUID.randomUUID().toString() + fileExtension;
 
-        // Store file
-        Path targetLocation = uploadPath.resolve(storedFilename);
+        // Stage in tmp (same volume as the filesystem store, so handing over is a rename)
+        Path writeLocation = uploadPath.resolve("tmp").resolve(storedFilename);
+        UploadPipeline.StoredUpload upload;
         try {
-            Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
+            upload = uploadPipeline.write(file.getInputStream(), writeLocation, MAX_FILE_SIZE, UploadPipeline.FileKind.DOCUMENTS);
         } catch (IOException ex) {
             throw new RuntimeException("Could not store file " + originalFilename, ex);
         }
+        String contentHash = upload.getSha256();
+        String contentType = upload.getKind().getMimeType();
+
+        // Content-addressed: reuse whichever copy of this content is already stored, encoded or not.
+        // The digest lock is held until commit, so a concurrent delete cannot remove the body we decide to reuse.
+        String codec = null;
+        String storageKey = null;
+        if (isContentAddressed()) {
+            storedBlobRepository.lockDigest(contentHash);
+            for (String candidate : new String[] { StorageCodec.GZIP, null }) {
+                if (storage.exists(blobKey(contentHash, candidate))) {
+                    codec = candidate;
+                    storageKey = blobKey(contentHash, candidate);
+                    break;
+                }
+            }
+        }
+        long storedBytes = upload.getSize();
+        try {
+            if (storageKey != null) {
+                // Same content already stored: keep one copy
+                Files.deleteIfExists(writeLocation);
+                storedBytes = storage.size(storageKey);
+            } else {
+                Path body = writeLocation;
+                Optional<Path> compressed = storageCodec.compress(writeLocation, upload.getKind());
+                if (compressed.isPresent()) {
+                    codec = StorageCodec.GZIP;
+                    body = compressed.get();
+                    storedBytes = Files.size(body);
+                    Files.deleteIfExists(writeLocation);
+                }
+                storageKey = isContentAddressed()
+                        ? blobKey(contentHash, codec)
+                        : "documents/" + storedFilename + StorageCodec.keySuffix(codec);
+                storage.put(storageKey, body, codec != null ? "application/gzip" : contentType);
+            }
+        } catch (IOException ex) {
+            deleteQuietly(writeLocation);
+            deleteQuietly(writeLocation.resolveSibling(writeLocation.getFileName() + ".gz"));
+            throw new RuntimeException("Could not store file " + originalFilename, ex);
+        }
+        if (isContentAddressed()) {
+            storedBlobRepository.acquire(contentHash, storage.describe(storageKey), storedBytes);
+        }
 
         // Create and save document entity
         Document document = Document.builder()
                 .originalFilename(originalFilename)
                 .storedFilename(storedFilename)
-                .filePath(targetLocation.toString())
-                .contentType(file.getContentType())
-                .fileSize(file.getSize())
+                .filePath(storage.describe(storageKey))
+                .storageKey(storageKey)
+                .contentType(contentType)
+                .fileSize(upload.getSize())
+                .contentHash(contentHash)
+                .storageCodec(codec)
                 .uploadDate(LocalDateTime.now())
                 .build();
 
-        return documentRepository.save(document);
+        Document saved = documentRepository.save(document);
+        // Cached only once committed, so a rollback never leaves a ghost entry behind
+        afterCommit(() -> metadataCache.put(saved));
+        // Text extraction for search runs in the background once this upload commits
+        documentIndexService.submit(DocumentIndexService.documentKey(saved.getId()));
+        return saved;
     }
 
     /**
@@ -76,7 +170,16 @@ public class DocumentService {
      */
     public Resource loadFileAsResource(String storedFilename) {
         try {
-            Path filePath = Paths.get(uploadDir).resolve(storedFilename).normalize();
+            Document document = findByStoredFilename(storedFilename);
+            if (document != null && document.getStorageKey() != null
+                    && (localFile(document).isEmpty() || document.getStorageCodec() != null)) {
+                // Remote store or compressed body: stream the decoded object
+                return new InputStreamResource(openDecoded(document));
+            }
+            // Local documents live at their stored path; older ones directly under the upload dir
+            Path filePath = document != null
+                    ? localFile(document).orElseThrow()
+                    : Paths.get(uploadDir).resolve(storedFilename).normalize();
             Resource resource = new UrlResource(filePath.toUri());
             
             if (resource.exists() && resource.isReadable()) {
@@ -84,37 +187,222 @@ public class DocumentService {
             } else {
                 throw new RuntimeException("File not found: " + storedFilename);
             }
-        } catch (MalformedURLException ex) {
+        } catch (IOException ex) {
             throw new RuntimeException("File not found: " + storedFilename, ex);
         }
     }
 
     /**
-     * Get document by ID
+     * Location of a document's body on this node's disk, empty when it lives in a remote store
+     */
+    public Optional<Path> localFile(Document document) {
+        if (document.getStorageKey() != null) {
+            return storage.localPath(document.getStorageKey());
+        }
+        return Optional.of(legacyFile(uploadDir, document));
+    }
+
+    /**
+     * Body of a document stored before the storage backend: uploadDir/storedFilename, falling back to
+     * the absolute path recorded at upload only when the file is not under the current upload dir
+     */
+    public static Path legacyFile(String uploadDir, Document document) {
+        Path current = Paths.get(uploadDir).resolve(document.getStoredFilename()).normalize();
+        if (!Files.exists(current) && document.getFilePath() != null) {
+            Path recorded = Paths.get(document.getFilePath()).normalize();
+            if (Files.exists(recorded)) {
+                return recorded;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Size of a document's stored body, or -1 if it is missing
+     */
+    public long storedSize(Document document) throws IOException {
+        Optional<Path> local = localFile(document);
+        if (local.isPresent()) {
+            return Files.exists(local.get()) ? Files.size(local.get()) : -1;
+        }
+        return storage.size(document.getStorageKey());
+    }
+
+    /**
+     * Stream of a document's original bytes, decompressing if it is stored encoded
+     */
+    public InputStream openDecoded(Document document) throws IOException {
+        InputStream stored = document.getStorageKey() != null
+                ? storage.open(document.getStorageKey())
+                : Files.newInputStream(localFile(document).orElseThrow());
+        return StorageCodec.decode(document.getStorageCodec(), stored);
+    }
+
+    /**
+     * Read part of a document's body from the storage backend
+     */
+    public InputStream openRange(Document document, long offset, long length) throws IOException {
+        return storage.openRange(document.getStorageKey(), offset, length);
+    }
+
+    /**
+     * Get document by ID, served from the metadata cache when present
      */
     public Document getDocument(Long id) {
-        return documentRepository.findById(id)
+        Document cached = metadataCache.get(id);
+        if (cached != null) {
+            return cached;
+        }
+        Document document = documentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Document not found with id: " + id));
+        return metadataCache.put(document);
+    }
+
+    /**
+     * Get many documents at once; cache misses are loaded in a single query. Unknown ids are left out.
+     */
+    public Map<Long, Document> getDocuments(Collection<Long> ids) {
+        Map<Long, Document> documents = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            Document cached = metadataCache.get(id);
+            if (cached != null) {
+                documents.put(id, cached);
+            } else if (id != null) {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (Document document : documentRepository.findAllById(missing)) {
+                documents.put(document.getId(), metadataCache.put(document));
+            }
+        }
+        return documents;
     }
 
     /**
-     * Delete document and associated file
+     * Content-fingerprinted URL of a document, /files/documents/{sha256}{ext}.
+     * The URL changes whenever the content does, so it can be cached as immutable. Null for rows without a digest.
      */
+    public String fileUrl(Document document) {
+        if (document.getContentHash() == null) {
+            return null;
+        }
+        String extension = "";
+        for (UploadPipeline.FileKind kind : UploadPipeline.FileKind.values()) {
+            if (kind.getMimeType().equals(document.getContentType())) {
+                extension = kind.getExtension();
+            }
+        }
+        return "/files/documents/" + document.getContentHash() + extension;
+    }
+
+    /**
+     * Some document with the given content digest, or null
+     */
+    public Document findByContentHash(String contentHash) {
+        return documentRepository.findFirstByContentHash(contentHash).map(metadataCache::put).orElse(null);
+    }
+
+    private Document findByStoredFilename(String storedFilename) {
+        Document cached = metadataCache.getByStoredFilename(storedFilename);
+        if (cached != null) {
+            return cached;
+        }
+        return documentRepository.findByStoredFilename(storedFilename).map(metadataCache::put).orElse(null);
+    }
+
+    /**
+     * Delete document and associated file.
+     * A shared blob is only removed when its last referencing document goes, and its body only
+     * after commit, once it is confirmed that no upload re-acquired the digest in between.
+     */
+    @Transactional
     public void deleteDocument(Long id) {
         Document document = getDocument(id);
         
-        // Delete physical file
-        try {
-            Path filePath = Paths.get(document.getFilePath());
-            Files.deleteIfExists(filePath);
-        } catch (IOException ex) {
-            log.warn("Could not delete file: " + document.getFilePath(), ex);
+        if (document.getContentHash() != null) {
+            storedBlobRepository.lockDigest(document.getContentHash());
+        }
+        boolean sharedBlob = document.getContentHash() != null && storedBlobRepository.findById(document.getContentHash())
+                .map(blob -> blob.getFilePath().equals(document.getFilePath()))
+                .orElse(false);
+        
+        if (sharedBlob) {
+            storedBlobRepository.release(document.getContentHash());
+            if (storedBlobRepository.deleteIfUnreferenced(document.getContentHash()) > 0) {
+                afterCommit(() -> deleteUnreferencedBlob(document));
+            }
+        } else {
+            afterCommit(() -> deleteBody(document));
         }
         
         // Delete from database
+        documentIndexService.remove(DocumentIndexService.documentKey(id));
+        metadataCache.evict(id);
         documentRepository.deleteById(id);
     }
 
+    /**
+     * Remove a blob body in a new transaction under the digest lock, unless an upload
+     * acquired the digest again after the delete committed. A body left behind on failure
+     * is collected by UploadGarbageCollector.
+     */
+    private void deleteUnreferencedBlob(Document document) {
+        try {
+            requiresNew.executeWithoutResult(status -> {
+                storedBlobRepository.lockDigest(document.getContentHash());
+                if (!storedBlobRepository.existsById(document.getContentHash())) {
+                    deleteBody(document);
+                }
+            });
+        } catch (Exception ex) {
+            log.warn("Could not remove blob {}: {}", document.getContentHash(), ex.getMessage());
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private String blobKey(String contentHash, String codec) {
+        return "blobs/" + contentHash + StorageCodec.keySuffix(codec);
+    }
+
+    private boolean isContentAddressed() {
+        return "content-addressed".equalsIgnoreCase(storageMode);
+    }
+
+    private void deleteBody(Document document) {
+        if (document.getStorageKey() == null) {
+            deleteQuietly(legacyFile(uploadDir, document));
+            return;
+        }
+        try {
+            storage.delete(document.getStorageKey());
+        } catch (IOException ex) {
+            log.warn("Could not delete stored object: " + document.getStorageKey(), ex);
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ex) {
+            log.warn("Could not delete file: " + path, ex);
+        }
+    }
+
+
     /**
      * Validate uploaded file
      */
@@ -128,27 +416,12 @@ public class DocumentService {
             throw new IllegalArgumentException("Invalid file path: " + filename);
         }
 
-        // Add file size validation (e.g., max 10MB)
-        long maxSize = 10 * 1024 * 1024; // 10MB
-        if (file.getSize() > maxSize) {
+        // Reject oversized uploads up front; the pipeline enforces the limit again on the actual bytes
+        if (file.getSize() > MAX_FILE_SIZE) {
             throw new IllegalArgumentException("File size exceeds maximum allowed size of 10MB");
         }
 
-        // Add allowed file types validation
-        String contentType = file.getContentType();
-        if (contentType == null || !isAllowedContentType(contentType)) {
-            throw new IllegalArgumentException("File type not allowed: " + contentType);
-        }
-    }
-
-    /**
-     * Check if content type is allowed
-     */
-    private boolean isAllowedContentType(String contentType) {
-        return contentType.equals("application/pdf") ||
-               contentType.equals("application/msword") ||
-               contentType.equals("application/vnd.openxmlformats-officedocument.wordprocessingml.document") ||
-               contentType.startsWith("image/");
+        // The file type is checked from the content's magic bytes while streaming, not from the client header
     }
 
     /**
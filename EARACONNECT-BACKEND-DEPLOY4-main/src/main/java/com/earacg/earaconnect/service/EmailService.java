@@ -2,6 +2,10 @@
 
 package com.earacg.earaconnect.service;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.SimpleMailMessage;
@@ -10,6 +14,8 @@ import org.springframework.stereotype.Service;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.mail.MailException;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 @Service
 @Slf4j
 public class EmailService {
@@ -17,9 +23,22 @@ public class EmailService {
     @Autowired
     private JavaMailSender mailSender;
     
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
     @Value("${spring.mail.username}")
     private String fromEmail;
     
+    // Sends currently waiting on or holding an SMTP connection
+    private final AtomicInteger inFlight = new AtomicInteger();
+    
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("email.inflight", inFlight, AtomicInteger::get)
+                .description("Emails currently being sent")
+                .register(meterRegistry);
+    }
+    
     public void sendCredentials(String email, String name, String password) {
         try {
             log.info("Attempting to send credentials email to: {}", email);
@@ -41,7 +60,7 @@ public class EmailService {
             // Test the mail sender configuration
             log.info("Mail sender host: {}", mailSender.toString());
             
-            mailSender.send(message);
+            dispatch("credentials", message);
             log.info("✅ Credentials email sent successfully to: {} from: {}", email, fromEmail);
             
         } catch (MailException e) {
@@ -85,7 +104,7 @@ public class EmailService {
                     "EaraConnect System Administration Team\n" +
                     "Committee Management System");
             
-            mailSender.send(message);
+            dispatch("commissioner-credentials", message);
             log.info("✅ Commissioner General credentials email sent successfully to: {} from: {}", email, fromEmail);
             
         } catch (MailException e) {
@@ -115,7 +134,7 @@ public class EmailService {
                     "Best regards,\n" +
                     "EaraConnect System Team");
             
-            mailSender.send(message);
+            dispatch("meeting-invitation", message);
             log.info("✅ Meeting invitation email sent successfully to: {}", email);
             
         } catch (MailException e) {
@@ -141,7 +160,7 @@ public class EmailService {
                     "Best regards,\n" +
                     "EaraConnect System Team");
             
-            mailSender.send(message);
+            dispatch("report-notification", message);
             log.info("✅ Report notification email sent successfully to: {}", email);
             
         } catch (MailException e) {
@@ -168,7 +187,7 @@ public class EmailService {
                     "Best regards,\n" +
                     "EaraConnect System Team");
             
-            mailSender.send(message);
+            dispatch("report-rejection", message);
             log.info("✅ Report rejection email sent successfully to: {}", email);
             
         } catch (MailException e) {
@@ -196,7 +215,7 @@ public class EmailService {
                     "Best regards,\n" +
                     "EaraConnect System Team");
             
-            mailSender.send(message);
+            dispatch("report-approval", message);
             log.info("✅ Report approval email sent successfully to: {}", email);
             
         } catch (MailException e) {
@@ -220,7 +239,7 @@ public class EmailService {
                     "Best regards,\n" +
                     "EaraConnect System Team");
             
-            mailSender.send(mailMessage);
+            dispatch("general-notification", mailMessage);
             log.info("✅ General notification email sent successfully to: {}", email);
             
         } catch (MailException e) {
@@ -245,7 +264,7 @@ public class EmailService {
                     "If you receive this email, your email setup is functioning properly.\n\n" +
                     "Timestamp: " + java.time.LocalDateTime.now());
             
-            mailSender.send(testMessage);
+            dispatch("configuration-test", testMessage);
             log.info("✅ Test email sent successfully!");
             return true;
             
@@ -254,4 +273,28 @@ public class EmailService {
             return false;
         }
     }
+    
+    /**
+     * Send a message and record per-template timing and outcome metrics
+     */
+    private void dispatch(String template, SimpleMailMessage message) {
+        inFlight.incrementAndGet();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            mailSender.send(message);
+        } catch (RuntimeException e) {
+            outcome = "failure";
+            meterRegistry.counter("email.errors", "template", template, "exception", e.getClass().getSimpleName())
+                    .increment();
+            throw e;
+        } finally {
+            inFlight.decrementAndGet();
+            sample.stop(Timer.builder("email.send")
+                    .description("End-to-end time to send an email, including SMTP connect")
+                    .tags("template", template, "outcome", outcome)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry));
+        }
+    }
 }
\ No newline at end of file
@@ -2,15 +2,13 @@ package com.earacg.earaconnect.service;
 
 import com.earacg.earaconnect.model.User;
 import com.earacg.earaconnect.model.SubCommittee;
-import com.earacg.earaconnect.repository.UserRepo;
-import com.earacg.earaconnect.repository.SubCommitteeRepo;
+import com.earacg.earaconnect.security.CapabilityCache;
+import com.earacg.earaconnect.security.UserCapabilities;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Optional;
-
 /**
  * Service to handle HOD (Head of Delegation) permissions
  * Treats the Chair of "Head Of Delegation" subcommittee as having HOD privileges
@@ -20,13 +18,10 @@ public class HODPermissionService {
 
     private static final Logger logger = LoggerFactory.getLogger(HODPermissionService.class);
     
-    private static final String HEAD_OF_DELEGATION_SUBCOMMITTEE_NAME = "Head Of Delegation";
-
-    @Autowired
-    private UserRepo userRepo;
+    private static final String HEAD_OF_DELEGATION_SUBCOMMITTEE_NAME = CapabilityCache.HEAD_OF_DELEGATION_SUBCOMMITTEE_NAME;
 
     @Autowired
-    private SubCommitteeRepo subCommitteeRepo;
+    private CapabilityCache capabilityCache;
 
     /**
      * Check if a user has HOD privileges
@@ -38,14 +33,12 @@ public class HODPermissionService {
      */
     public boolean hasHODPrivileges(Long userId) {
         try {
-            Optional<User> userOpt = userRepo.findById(userId);
-            if (userOpt.isEmpty()) {
+            UserCapabilities capabilities = capabilityCache.get(userId);
+            if (capabilities == null) {
                 logger.warn("User with ID {} not found", userId);
                 return false;
             }
-
-            User user = userOpt.get();
-            return hasHODPrivileges(user);
+            return capabilities.headOfDelegation();
         } catch (Exception e) {
             logger.error("Error checking HOD privileges for user ID {}: {}", userId, e.getMessage());
             return false;
@@ -103,9 +96,9 @@ public class HODPermissionService {
      */
     public Long getHeadOfDelegationSubcommitteeId() {
         try {
-            Optional<SubCommittee> hodSubcommittee = subCommitteeRepo.findByName(HEAD_OF_DELEGATION_SUBCOMMITTEE_NAME);
-            if (hodSubcommittee.isPresent()) {
-                return hodSubcommittee.get().getId();
+            Long hodSubcommitteeId = capabilityCache.getHeadOfDelegationSubcommitteeId();
+            if (hodSubcommitteeId != null) {
+                return hodSubcommitteeId;
             }
             logger.warn("Head Of Delegation subcommittee not found");
             return null;
@@ -120,11 +113,7 @@ public class HODPermissionService {
      */
     public boolean isHeadOfDelegationSubcommittee(Long subcommitteeId) {
         try {
-            Optional<SubCommittee> subcommitteeOpt = subCommitteeRepo.findById(subcommitteeId);
-            if (subcommitteeOpt.isEmpty()) {
-                return false;
-            }
-            return HEAD_OF_DELEGATION_SUBCOMMITTEE_NAME.equals(subcommitteeOpt.get().getName());
+            return subcommitteeId != null && subcommitteeId.equals(capabilityCache.getHeadOfDelegationSubcommitteeId());
         } catch (Exception e) {
             logger.error("Error checking if subcommittee {} is Head Of Delegation: {}", subcommitteeId, e.getMessage());
             return false;
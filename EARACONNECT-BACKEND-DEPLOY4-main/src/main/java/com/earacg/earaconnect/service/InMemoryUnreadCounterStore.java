@@ -0,0 +1,66 @@
+package com.earacg.earaconnect.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Default single-node counter store: a concurrent map of per-user counters.
+ * Every change goes through the map's per-bin lock, so a reconcile can tell which counters
+ * were touched after its snapshot and never overwrites a concurrent change.
+ */
+@Service
+@ConditionalOnProperty(name = "app.notifications.unread-counter.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryUnreadCounterStore implements UnreadCounterStore {
+
+    private final ConcurrentHashMap<Long, Counter> counters = new ConcurrentHashMap<>();
+
+    @Override
+    public long getOrLoad(Long userId, Function<Long, Long> loader) {
+        Counter counter = counters.computeIfAbsent(userId, id -> new Counter(loader.apply(id)));
+        return Math.max(counter.value, 0L);
+    }
+
+    @Override
+    public void add(Long userId, long delta) {
+        counters.computeIfPresent(userId, (id, counter) -> new Counter(counter.value + delta));
+    }
+
+    @Override
+    public void set(Long userId, long count) {
+        counters.put(userId, new Counter(count));
+    }
+
+    @Override
+    public long reconcileMark() {
+        return System.nanoTime();
+    }
+
+    @Override
+    public void reconcile(Map<Long, Long> counts, long mark) {
+        for (Long userId : counters.keySet()) {
+            counters.computeIfPresent(userId, (id, counter) ->
+                    counter.touchedAt - mark >= 0 ? counter : new Counter(counts.getOrDefault(id, 0L)));
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        counters.clear();
+    }
+
+    /**
+     * Immutable value with the time it was last written
+     */
+    private static final class Counter {
+        private final long value;
+        private final long touchedAt = System.nanoTime();
+
+        private Counter(Long value) {
+            this.value = value != null ? value : 0L;
+        }
+    }
+}
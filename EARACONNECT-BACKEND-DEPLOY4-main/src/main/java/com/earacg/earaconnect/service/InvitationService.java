@@ -117,7 +117,7 @@ public class InvitationService {
                 
                 // Create in-system notification
                 notificationService.createNotification(
-                    recipient.getId(),
+                    recipient,
                     "Meeting Invitation",
                     "You have been invited to attend: " + meeting.getTitle(),
                     Notification.NotificationType.MEETING_INVITATION,
@@ -249,7 +249,7 @@ public class InvitationService {
         User respondent = invitation.getUser();
         
         notificationService.createNotification(
-            meeting.getCreatedBy().getId(),
+            meeting.getCreatedBy(),
             "Invitation Response",
             respondent.getName() + " has " + status.toLowerCase() + " the invitation to " + meeting.getTitle(),
             Notification.NotificationType.GENERAL_ANNOUNCEMENT,
@@ -462,7 +462,7 @@ public class InvitationService {
                     
                     // Create in-system notification
                     notificationService.createNotification(
-                        recipient.getId(),
+                        recipient,
                         "Meeting Invitation",
                         "You have been invited to attend: " + meeting.getTitle(),
                         Notification.NotificationType.MEETING_INVITATION,
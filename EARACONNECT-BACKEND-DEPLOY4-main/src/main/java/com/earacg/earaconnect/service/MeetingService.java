@@ -3,15 +3,23 @@ package com.earacg.earaconnect.service;
 import com.earacg.earaconnect.model.*;
 import com.earacg.earaconnect.repository.*;
 import com.earacg.earaconnect.controller.MeetingController.AttendanceRecord;
+import com.earacg.earaconnect.security.CapabilityCache;
+import com.earacg.earaconnect.security.UserCapabilities;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.Set;
 
 @Service
@@ -41,6 +49,26 @@ public class MeetingService {
     @Autowired
     private SecretaryValidationService secretaryValidationService;
     
+    @Autowired
+    private NotificationStreamService notificationStreamService;
+    
+    @Autowired
+    private UploadPipeline uploadPipeline;
+    
+    @Autowired
+    private StorageBackend storage;
+    
+    @Autowired
+    private DocumentIndexService documentIndexService;
+
+    @Autowired
+    private CapabilityCache capabilityCache;
+    
+    @Value("${app.file.upload-dir:uploads}")
+    private String uploadDir;
+    
+    private static final long MAX_INVITATION_SIZE = 10 * 1024 * 1024; // 10MB
+    
     // Basic CRUD Operations
     public List<Meeting> getAllMeetings() {
         return meetingRepo.findAll();
@@ -104,10 +132,32 @@ public class MeetingService {
             
             try {
                 // Generate unique filename
-                String fileName = "invitation_" + System.currentTimeMillis() + "_" + invitationPdf.getOriginalFilename();
-                // Store file path (you might want to implement actual file storage)
+                String originalFilename = StringUtils.getFilename(StringUtils.cleanPath(invitationPdf.getOriginalFilename()));
+                String fileName = "invitation_" + System.currentTimeMillis() + "_" + originalFilename;
+                
+                // Stream to staging in one pass, accepting only real PDFs, then hand over to the storage backend
+                Path staged = Paths.get(uploadDir, "tmp").toAbsolutePath().normalize().resolve(fileName);
+                uploadPipeline.write(invitationPdf.getInputStream(), staged, MAX_INVITATION_SIZE,
+                        Set.of(UploadPipeline.FileKind.PDF));
+                storage.put("invitations/" + fileName, staged, UploadPipeline.FileKind.PDF.getMimeType());
+                
+                String previousPdf = meeting.getInvitationPdf();
                 meeting.setInvitationPdf(fileName);
-                return meetingRepo.save(meeting);
+                Meeting savedMeeting = meetingRepo.save(meeting);
+                
+                // Index the invitation text under this meeting for document search
+                if (previousPdf != null) {
+                    documentIndexService.remove(DocumentIndexService.invitationKey(previousPdf));
+                }
+                documentIndexService.link(DocumentIndexService.invitationKey(fileName), null,
+                        "Meeting", savedMeeting.getId(), savedMeeting.getTitle());
+                documentIndexService.submit(DocumentIndexService.invitationKey(fileName));
+                publishMeetingEvent(savedMeeting, "invitation-uploaded");
+                return savedMeeting;
+            } catch (IllegalArgumentException e) {
+                throw e;
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to read invitation PDF", e);
             } catch (Exception e) {
                 throw new RuntimeException("Failed to process invitation PDF", e);
             }
@@ -127,14 +177,25 @@ public class MeetingService {
             meeting.setMeetingType(meetingDetails.getMeetingType());
             meeting.setStatus(meetingDetails.getStatus());
             meeting.setMinutes(meetingDetails.getMinutes());
-            return meetingRepo.save(meeting);
+            Meeting savedMeeting = meetingRepo.save(meeting);
+            if (savedMeeting.getInvitationPdf() != null) {
+                documentIndexService.link(DocumentIndexService.invitationKey(savedMeeting.getInvitationPdf()), null,
+                        "Meeting", savedMeeting.getId(), savedMeeting.getTitle());
+            }
+            publishMeetingEvent(savedMeeting, "updated");
+            return savedMeeting;
         }
         return null;
     }
     
     public boolean deleteMeeting(Long id) {
-        if (meetingRepo.existsById(id)) {
+        Optional<Meeting> meetingOpt = meetingRepo.findById(id);
+        if (meetingOpt.isPresent()) {
+            // Resolve recipients before the invitations are removed with the meeting
+            Set<Long> recipients = getMeetingParticipantIds(meetingOpt.get());
             meetingRepo.deleteById(id);
+            notificationStreamService.publish(recipients, NotificationStreamService.EVENT_MEETING,
+                    Map.of("meetingId", id, "action", "deleted"));
             return true;
         }
         return false;
@@ -157,6 +218,29 @@ public class MeetingService {
         return false;
     }
     
+    /**
+     * Push a meeting change to the creator and every invitee with an open stream
+     */
+    private void publishMeetingEvent(Meeting meeting, String action) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("meetingId", meeting.getId());
+        payload.put("action", action);
+        payload.put("status", meeting.getStatus());
+        payload.put("meetingDate", meeting.getMeetingDate());
+        notificationStreamService.publish(getMeetingParticipantIds(meeting), NotificationStreamService.EVENT_MEETING, payload);
+    }
+    
+    private Set<Long> getMeetingParticipantIds(Meeting meeting) {
+        Set<Long> participantIds = new LinkedHashSet<>();
+        if (meeting.getCreatedBy() != null) {
+            participantIds.add(meeting.getCreatedBy().getId());
+        }
+        for (MeetingInvitation invitation : meetingInvitationRepo.findByMeetingId(meeting.getId())) {
+            participantIds.add(invitation.getUser().getId());
+        }
+        return participantIds;
+    }
+    
     // Invitation Management
     
     /**
@@ -243,7 +327,7 @@ public class MeetingService {
         // Create in-system notification
         try {
             notificationService.createNotification(
-                user.getId(),
+                user,
                 "Meeting Invitation",
                 "You have been invited to attend: " + meeting.getTitle(),
                 Notification.NotificationType.MEETING_INVITATION,
@@ -335,7 +419,9 @@ public class MeetingService {
             meeting.setMinutes(minutes);
             meeting.setStatus(Meeting.MeetingStatus.COMPLETED);
             meeting.setUpdatedAt(LocalDateTime.now());
-            return meetingRepo.save(meeting);
+            Meeting savedMeeting = meetingRepo.save(meeting);
+            publishMeetingEvent(savedMeeting, "minutes-updated");
+            return savedMeeting;
         }
         return null;
     }
@@ -378,16 +464,14 @@ public class MeetingService {
         // Get relevant users to notify about new resolutions
         List<User> usersToNotify = getUsersForMeetingType(meeting.getMeetingType(), meeting.getHostingCountry().getId());
         
-        for (User user : usersToNotify) {
-            notificationService.createNotification(
-                user.getId(),
-                "New Resolutions Available",
-                "New resolutions have been created for meeting: " + meeting.getTitle(),
-                Notification.NotificationType.TASK_ASSIGNMENT,
-                "Resolution",
-                meeting.getId()
-            );
-        }
+        notificationService.createNotifications(
+            usersToNotify.stream().map(User::getId).collect(Collectors.toList()),
+            "New Resolutions Available",
+            "New resolutions have been created for meeting: " + meeting.getTitle(),
+            Notification.NotificationType.TASK_ASSIGNMENT,
+            "Resolution",
+            meeting.getId()
+        );
     }
     
     // Utility Methods
@@ -499,7 +583,9 @@ public class MeetingService {
         meeting.setStatus(Meeting.MeetingStatus.COMPLETED);
         meeting.setUpdatedAt(LocalDateTime.now());
         
-        return meetingRepo.save(meeting);
+        Meeting savedMeeting = meetingRepo.save(meeting);
+        publishMeetingEvent(savedMeeting, "minutes-updated");
+        return savedMeeting;
     }
     
     /**
@@ -526,13 +612,12 @@ public class MeetingService {
      */
     public boolean validateSecretaryMeetingAccess(Long secretaryId, Long meetingId) {
         try {
-            User secretary = userRepo.findById(secretaryId)
-                    .orElseThrow(() -> new RuntimeException("Secretary not found"));
-            
-            Meeting meeting = meetingRepo.findById(meetingId)
-                    .orElseThrow(() -> new RuntimeException("Meeting not found"));
-            
-            return secretaryValidationService.validateSecretaryLocation(secretary, meeting);
+            UserCapabilities secretary = capabilityCache.get(secretaryId);
+            if (secretary == null) {
+                throw new RuntimeException("Secretary not found");
+            }
+            Long hostingCountryId = capabilityCache.getMeetingCountryId(meetingId).orElse(null);
+            return secretaryValidationService.validateSecretaryLocation(secretary, hostingCountryId);
         } catch (Exception e) {
             return false;
         }
@@ -0,0 +1,28 @@
+package com.earacg.earaconnect.service;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * JPA listener that drops the cached member counts when a member, subcommittee or committee row changes.
+ * Registered on CSubCommitteeMembers, SubCommittee and Committee; the service is looked up lazily
+ * like CapabilityInvalidationListener does.
+ */
+public class MemberCountInvalidationListener {
+
+    @Autowired
+    private ObjectProvider<MemberCountService> memberCountService;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void changed(Object entity) {
+        MemberCountService service = memberCountService.getIfAvailable();
+        if (service != null) {
+            service.invalidate();
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.earacg.earaconnect.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Member counts per subcommittee and per committee, computed with one GROUP BY over
+ * committee, sub_committee and c_sub_committee_members and kept as an in-memory snapshot.
+ * A committee's count is the sum of its subcommittees. The snapshot is dropped by
+ * MemberCountInvalidationListener on member, subcommittee and committee writes; JDBC writers
+ * call invalidate() themselves.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MemberCountService {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile Snapshot snapshot;
+
+    // Bumped on every invalidation so loads that started before it are discarded
+    private final AtomicLong generation = new AtomicLong();
+
+    // Safety net for writes that bypass JPA
+    @Value("${app.member-counts.ttl:10m}")
+    private Duration ttl;
+
+    public record SubcommitteeCount(Long id, String name, Long committeeId, long memberCount) {
+    }
+
+    public record CommitteeCount(Long id, String name, long memberCount, List<SubcommitteeCount> subcommittees) {
+    }
+
+    /**
+     * Create the indexes the count query is answered from; called once at startup
+     */
+    public void ensureIndexes() {
+        // COUNT(m.position_in_ear) lets the join be an index-only scan
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_c_sub_committee_members_position_in_ear " +
+                "ON c_sub_committee_members (position_in_ear)");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_sub_committee_parent_committee " +
+                "ON sub_committee (parent_committee_id, id) INCLUDE (subcommittee_name)");
+    }
+
+    /**
+     * Every subcommittee with its member count, ordered by id
+     */
+    public List<SubcommitteeCount> getSubcommitteeCounts() {
+        return current().subcommittees;
+    }
+
+    /**
+     * Every committee with its member count, ordered by id
+     */
+    public List<CommitteeCount> getCommitteeCounts() {
+        return new ArrayList<>(current().committees.values());
+    }
+
+    /**
+     * Count for one subcommittee, or null if it does not exist
+     */
+    public SubcommitteeCount getSubcommitteeCount(Long subCommitteeId) {
+        for (SubcommitteeCount count : current().subcommittees) {
+            if (count.id().equals(subCommitteeId)) {
+                return count;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Count for one committee, or null if it does not exist
+     */
+    public CommitteeCount getCommitteeCount(Long committeeId) {
+        return current().committees.get(committeeId);
+    }
+
+    /**
+     * Drop the snapshot now and again after commit, so a reader that counted the old rows in between is not kept
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        snapshot = null;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    generation.incrementAndGet();
+                    snapshot = null;
+                }
+            });
+        }
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current != null && System.nanoTime() - current.loadedAt < ttl.toNanos()) {
+            return current;
+        }
+        long startGeneration = generation.get();
+        Snapshot loaded = load();
+        if (generation.get() == startGeneration) {
+            snapshot = loaded;
+        }
+        return loaded;
+    }
+
+    private Snapshot load() {
+        // FULL JOIN keeps committees without subcommittees and subcommittees without a committee
+        List<Object[]> rows = jdbcTemplate.query(
+                "SELECT c.id AS committee_id, c.committee_name, s.id AS subcommittee_id, s.subcommittee_name, " +
+                "COUNT(m.position_in_ear) AS member_count " +
+                "FROM committee c FULL JOIN sub_committee s ON s.parent_committee_id = c.id " +
+                "LEFT JOIN c_sub_committee_members m ON m.position_in_ear = s.id " +
+                "GROUP BY c.id, c.committee_name, s.id, s.subcommittee_name " +
+                "ORDER BY c.id NULLS LAST, s.id",
+                (rs, rowNum) -> new Object[] {
+                        rs.getObject("committee_id", Long.class), rs.getString("committee_name"),
+                        rs.getObject("subcommittee_id", Long.class), rs.getString("subcommittee_name"),
+                        rs.getLong("member_count") });
+
+        List<SubcommitteeCount> subcommittees = new ArrayList<>();
+        Map<Long, List<SubcommitteeCount>> byCommittee = new LinkedHashMap<>();
+        Map<Long, String> committeeNames = new LinkedHashMap<>();
+        for (Object[] row : rows) {
+            Long committeeId = (Long) row[0];
+            Long subcommitteeId = (Long) row[2];
+            if (committeeId != null) {
+                committeeNames.put(committeeId, (String) row[1]);
+                byCommittee.computeIfAbsent(committeeId, id -> new ArrayList<>());
+            }
+            if (subcommitteeId != null) {
+                SubcommitteeCount count = new SubcommitteeCount(subcommitteeId, (String) row[3], committeeId, (Long) row[4]);
+                subcommittees.add(count);
+                if (committeeId != null) {
+                    byCommittee.get(committeeId).add(count);
+                }
+            }
+        }
+        subcommittees.sort(Comparator.comparing(SubcommitteeCount::id));
+
+        Map<Long, CommitteeCount> committees = new LinkedHashMap<>();
+        committeeNames.forEach((id, name) -> {
+            List<SubcommitteeCount> children = byCommittee.get(id);
+            long total = children.stream().mapToLong(SubcommitteeCount::memberCount).sum();
+            committees.put(id, new CommitteeCount(id, name, total, List.copyOf(children)));
+        });
+        log.debug("Loaded member counts for {} committees and {} subcommittees", committees.size(), subcommittees.size());
+        return new Snapshot(List.copyOf(subcommittees), Collections.unmodifiableMap(committees), System.nanoTime());
+    }
+
+    private record Snapshot(List<SubcommitteeCount> subcommittees, Map<Long, CommitteeCount> committees, long loadedAt) {
+    }
+}
@@ -0,0 +1,243 @@
+package com.earacg.earaconnect.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Keeps the notifications table range-partitioned by month on created_at (PostgreSQL).
+ * Old months are detached into standalone archive tables or dropped outright,
+ * so retention never needs a row-by-row DELETE.
+ * Off by default. Converting an existing table is an explicit operator step
+ * (POST /api/admin/notifications/partition) and is never run on startup; retention only
+ * applies when app.notifications.retention.months is set.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationPartitionService {
+
+    private static final String TABLE = "notifications";
+    private static final String PARTITION_PREFIX = "notifications_p";
+    private static final String ID_SEQUENCE = "notifications_part_id_seq";
+    private static final String ARCHIVE_PREFIX = "notifications_archive_";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+    // Arbitrary advisory lock key shared by every node that runs partition DDL
+    private static final long PARTITION_LOCK_KEY = 0x4541524E4F54L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UnreadCounterStore unreadCounterStore;
+
+    @Value("${app.notifications.partitioning.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.notifications.partitioning.months-ahead:3}")
+    private int monthsAhead;
+
+    // 0 keeps every month
+    @Value("${app.notifications.retention.months:0}")
+    private int retentionMonths;
+
+    // "archive" detaches expired partitions and keeps them as tables, "drop" removes them
+    @Value("${app.notifications.retention.mode:archive}")
+    private String retentionMode;
+
+    /**
+     * Convert a plain notifications table into a monthly partitioned one, copying existing rows.
+     * The old table is kept as notifications_legacy for the operator to check and drop.
+     * Holds an exclusive lock on notifications while rows are copied, so run it in a quiet window.
+     * Returns the number of rows copied, or -1 if the table was already partitioned.
+     */
+    public int migrateToPartitionedTable() {
+        if (!enabled) {
+            throw new IllegalStateException("Set app.notifications.partitioning.enabled=true before converting");
+        }
+        Integer result = transactionTemplate.execute(status -> {
+            lockPartitionDdl();
+            if (isPartitioned()) {
+                ensureFuturePartitions();
+                return -1;
+            }
+
+            log.info("Converting {} to a monthly range-partitioned table", TABLE);
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " RENAME TO " + TABLE + "_legacy");
+            jdbcTemplate.execute("DROP INDEX IF EXISTS idx_notifications_user_created");
+
+            // The legacy table keeps its identity sequence, so ids continue from a new one
+            jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS " + ID_SEQUENCE);
+            jdbcTemplate.execute("SELECT setval('" + ID_SEQUENCE + "', COALESCE((SELECT MAX(id) FROM " + TABLE + "_legacy), 0) + 1, false)");
+
+            // The partition key has to be part of the primary key
+            jdbcTemplate.execute("CREATE TABLE " + TABLE + " (" +
+                    "id bigint NOT NULL DEFAULT nextval('" + ID_SEQUENCE + "'), " +
+                    "user_id bigint NOT NULL REFERENCES users(id), " +
+                    "title varchar(255) NOT NULL, " +
+                    "message text NOT NULL, " +
+                    "type varchar(255), " +
+                    "is_read boolean NOT NULL DEFAULT false, " +
+                    "created_at timestamp(6) NOT NULL, " +
+                    "read_at timestamp(6), " +
+                    "related_entity_type varchar(255), " +
+                    "related_entity_id bigint, " +
+                    "CONSTRAINT notifications_part_pkey PRIMARY KEY (id, created_at)" +
+                    ") PARTITION BY RANGE (created_at)");
+            jdbcTemplate.execute("ALTER SEQUENCE " + ID_SEQUENCE + " OWNED BY " + TABLE + ".id");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_notifications_user_created ON " + TABLE +
+                    " (user_id, created_at DESC, id DESC)");
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + PARTITION_PREFIX + "_default PARTITION OF " + TABLE + " DEFAULT");
+
+            Timestamp oldest = jdbcTemplate.queryForObject("SELECT MIN(created_at) FROM " + TABLE + "_legacy", Timestamp.class);
+            YearMonth from = oldest != null ? YearMonth.from(oldest.toLocalDateTime()) : YearMonth.now();
+            for (YearMonth month = from; !month.isAfter(YearMonth.now().plusMonths(monthsAhead)); month = month.plusMonths(1)) {
+                createPartition(month);
+            }
+
+            int copied = jdbcTemplate.update("INSERT INTO " + TABLE +
+                    " (id, user_id, title, message, type, is_read, created_at, read_at, related_entity_type, related_entity_id) " +
+                    "SELECT id, user_id, title, message, type, is_read, created_at, read_at, related_entity_type, related_entity_id " +
+                    "FROM " + TABLE + "_legacy");
+            log.info("Copied {} notifications into the partitioned table; {}_legacy is kept until dropped manually",
+                    copied, TABLE);
+            return copied;
+        });
+        return result != null ? result : 0;
+    }
+
+    /**
+     * Startup hook: create upcoming partitions if the table has already been converted
+     */
+    public void prepareExistingPartitions() {
+        if (!enabled || !isPartitioned()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            lockPartitionDdl();
+            ensureFuturePartitions();
+        });
+    }
+
+    /**
+     * Daily housekeeping: create upcoming monthly partitions and retire expired ones
+     */
+    @Scheduled(cron = "${app.notifications.partitioning.cron:0 30 2 * * *}")
+    public void maintainPartitions() {
+        if (!enabled || !isPartitioned()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            lockPartitionDdl();
+            ensureFuturePartitions();
+            applyRetention();
+        });
+    }
+
+    /**
+     * Create partitions from the current month up to monthsAhead months in the future
+     */
+    public void ensureFuturePartitions() {
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            createPartition(current.plusMonths(i));
+        }
+    }
+
+    /**
+     * Detach or drop partitions whose whole month lies before the retention window.
+     * Returns the number of partitions retired.
+     */
+    public int applyRetention() {
+        if (retentionMonths <= 0) {
+            return 0;
+        }
+        YearMonth cutoff = YearMonth.now().minusMonths(retentionMonths);
+        List<String> partitions = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i " +
+                "JOIN pg_class c ON c.oid = i.inhrelid " +
+                "JOIN pg_class p ON p.oid = i.inhparent " +
+                "WHERE p.relname = ? AND c.relname LIKE ? ORDER BY c.relname",
+                String.class, TABLE, PARTITION_PREFIX + "2%");
+
+        int retired = 0;
+        for (String partition : partitions) {
+            YearMonth month = YearMonth.parse(partition.substring(PARTITION_PREFIX.length()), SUFFIX);
+            if (!month.isBefore(cutoff)) {
+                continue;
+            }
+            if ("drop".equalsIgnoreCase(retentionMode)) {
+                jdbcTemplate.execute("DROP TABLE " + partition);
+                log.info("Dropped notification partition {}", partition);
+            } else {
+                jdbcTemplate.execute("ALTER TABLE " + TABLE + " DETACH PARTITION " + partition);
+                jdbcTemplate.execute("ALTER TABLE " + partition + " RENAME TO " + ARCHIVE_PREFIX + month.format(SUFFIX));
+                log.info("Archived notification partition {} as {}{}", partition, ARCHIVE_PREFIX, month.format(SUFFIX));
+            }
+            retired++;
+        }
+
+        // Unread notifications may have gone with the partitions
+        if (retired > 0) {
+            unreadCounterStore.invalidateAll();
+        }
+        return retired;
+    }
+
+    private void createPartition(YearMonth month) {
+        String name = PARTITION_PREFIX + month.format(SUFFIX);
+        LocalDate start = month.atDay(1);
+        LocalDate end = month.plusMonths(1).atDay(1);
+        if (partitionExists(name)) {
+            return;
+        }
+        Timestamp from = Timestamp.valueOf(start.atStartOfDay());
+        Timestamp to = Timestamp.valueOf(end.atStartOfDay());
+        Integer stray = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM " + PARTITION_PREFIX + "_default WHERE created_at >= ? AND created_at < ?",
+                Integer.class, from, to);
+        if (stray == null || stray == 0) {
+            jdbcTemplate.execute("CREATE TABLE " + name + " PARTITION OF " + TABLE +
+                    " FOR VALUES FROM ('" + start + "') TO ('" + end + "')");
+            log.info("Created notification partition {}", name);
+            return;
+        }
+        // Rows for this month that landed in the default partition are moved into a standalone table,
+        // which is then attached once the default partition no longer overlaps the range
+        jdbcTemplate.execute("CREATE TABLE " + name + " (LIKE " + TABLE + " INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+        int moved = jdbcTemplate.update("WITH moved AS (DELETE FROM " + PARTITION_PREFIX + "_default " +
+                "WHERE created_at >= ? AND created_at < ? RETURNING *) INSERT INTO " + name + " SELECT * FROM moved",
+                from, to);
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " ATTACH PARTITION " + name +
+                " FOR VALUES FROM ('" + start + "') TO ('" + end + "')");
+        log.info("Created notification partition {} with {} rows moved from the default partition", name, moved);
+    }
+
+    /**
+     * Hold the partition DDL lock until the surrounding transaction ends
+     */
+    private void lockPartitionDdl() {
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock(?)", rs -> { }, PARTITION_LOCK_KEY);
+    }
+
+    private boolean partitionExists(String name) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_class WHERE relname = ?", Integer.class, name);
+        return count != null && count > 0;
+    }
+
+    private boolean isPartitioned() {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_partitioned_table pt JOIN pg_class c ON c.oid = pt.partrelid WHERE c.relname = ?",
+                Integer.class, TABLE);
+        return count != null && count > 0;
+    }
+}
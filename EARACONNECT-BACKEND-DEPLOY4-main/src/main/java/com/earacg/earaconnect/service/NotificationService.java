@@ -4,10 +4,29 @@ import com.earacg.earaconnect.model.Notification;
 import com.earacg.earaconnect.model.User;
 import com.earacg.earaconnect.repository.NotificationRepo;
 import com.earacg.earaconnect.repository.UserRepo;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class NotificationService {
@@ -18,16 +37,79 @@ public class NotificationService {
     @Autowired
     private UserRepo userRepo;
     
+    @Autowired
+    private NotificationStreamService notificationStreamService;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private UnreadCounterStore unreadCounterStore;
+    
+    @Value("${app.notifications.page.default-size:50}")
+    private int defaultPageSize;
+    
+    @Value("${app.notifications.page.max-size:200}")
+    private int maxPageSize;
+    
+    // Inserts one row per existing user in a single statement; unknown ids are skipped by the join
+    private static final String BULK_INSERT_SQL =
+            "INSERT INTO notifications (user_id, title, message, type, is_read, created_at, related_entity_type, related_entity_id) " +
+            "SELECT u.id, ?, ?, ?, false, ?, ?, CAST(? AS bigint) FROM users u WHERE u.id = ANY (?) " +
+            "RETURNING id, user_id";
+    
     public List<Notification> getUserNotifications(Long userId) {
         return notificationRepo.findByUserIdOrderByCreatedAtDesc(userId);
     }
     
+    /**
+     * One page of a user's notifications, newest first, using a keyset cursor on (createdAt, id).
+     * A null cursor starts from the newest notification.
+     */
+    public NotificationPage getUserNotificationsPage(Long userId, Integer limit, String cursor) {
+        int size = limit == null || limit <= 0 ? defaultPageSize : Math.min(limit, maxPageSize);
+        // Fetch one extra row to know whether another page exists without a count query
+        PageRequest pageRequest = PageRequest.of(0, size + 1);
+        
+        List<Notification> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = notificationRepo.findLatestByUserId(userId, pageRequest);
+        } else {
+            Object[] position = decodeCursor(cursor);
+            rows = notificationRepo.findByUserIdBefore(userId, (LocalDateTime) position[0], (Long) position[1], pageRequest);
+        }
+        
+        if (rows.size() <= size) {
+            return new NotificationPage(rows, null);
+        }
+        List<Notification> items = rows.subList(0, size);
+        Notification last = items.get(size - 1);
+        return new NotificationPage(items, encodeCursor(last.getCreatedAt(), last.getId()));
+    }
+    
     public List<Notification> getUnreadNotifications(Long userId) {
         return notificationRepo.findByUserIdAndIsRead(userId, false);
     }
     
+    /**
+     * Served from the unread counter store; the database is only hit the first time a user is read
+     */
     public long getUnreadNotificationCount(Long userId) {
-        return notificationRepo.countByUserIdAndIsRead(userId, false);
+        return unreadCounterStore.getOrLoad(userId, id -> notificationRepo.countByUserIdAndIsRead(id, false));
+    }
+    
+    /**
+     * Periodically overwrite the counters with authoritative DB counts to correct any drift.
+     * Counters changed after the snapshot query started are left alone, so no concurrent change is lost.
+     */
+    @Scheduled(fixedDelayString = "${app.notifications.unread-counter.reconcile-ms:300000}")
+    public void reconcileUnreadCounts() {
+        long mark = unreadCounterStore.reconcileMark();
+        Map<Long, Long> counts = new HashMap<>();
+        for (Object[] row : notificationRepo.countUnreadGroupedByUser()) {
+            counts.put((Long) row[0], (Long) row[1]);
+        }
+        unreadCounterStore.reconcile(counts, mark);
     }
     
     public Notification createNotification(Long userId, String title, String message, 
@@ -38,6 +120,14 @@ public class NotificationService {
             return null;
         }
         
+        return createNotification(user, title, message, type, relatedEntityType, relatedEntityId);
+    }
+    
+    /**
+     * Create a notification for an already loaded user, skipping the user lookup
+     */
+    public Notification createNotification(User user, String title, String message,
+                                       Notification.NotificationType type, String relatedEntityType, Long relatedEntityId) {
         Notification notification = new Notification();
         notification.setUser(user);
         notification.setTitle(title);
@@ -48,32 +138,124 @@ public class NotificationService {
         notification.setRead(false);
         notification.setCreatedAt(LocalDateTime.now());
         
-        return notificationRepo.save(notification);
+        Notification saved = notificationRepo.save(notification);
+        Map<String, Object> payload = toStreamPayload(saved);
+        afterCommit(() -> {
+            unreadCounterStore.add(user.getId(), 1);
+            notificationStreamService.publish(user.getId(), NotificationStreamService.EVENT_NOTIFICATION, payload);
+        });
+        return saved;
+    }
+    
+    /**
+     * Create the same notification for many users with one multi-row INSERT ... SELECT.
+     * Returns the number of notifications created.
+     */
+    @Transactional
+    public int createNotifications(Collection<Long> userIds, String title, String message,
+                                   Notification.NotificationType type, String relatedEntityType, Long relatedEntityId) {
+        if (userIds == null || userIds.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime createdAt = LocalDateTime.now();
+        
+        List<long[]> created = jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(BULK_INSERT_SQL);
+            Array ids = connection.createArrayOf("bigint", userIds.toArray());
+            ps.setString(1, title);
+            ps.setString(2, message);
+            ps.setString(3, type != null ? type.name() : null);
+            ps.setTimestamp(4, Timestamp.valueOf(createdAt));
+            ps.setString(5, relatedEntityType);
+            ps.setObject(6, relatedEntityId, Types.BIGINT);
+            ps.setArray(7, ids);
+            return ps;
+        }, (rs, rowNum) -> new long[] { rs.getLong("id"), rs.getLong("user_id") });
+        
+        afterCommit(() -> {
+            for (long[] row : created) {
+                unreadCounterStore.add(row[1], 1);
+                notificationStreamService.publish(row[1], NotificationStreamService.EVENT_NOTIFICATION,
+                        streamPayload(row[0], title, message, type, false, createdAt, relatedEntityType, relatedEntityId));
+            }
+        });
+        return created.size();
     }
     
+    /**
+     * Mark one notification as read. The counter is decremented only when the conditional UPDATE
+     * flipped the row, so concurrent reads of the same notification decrement once.
+     */
+    @Transactional
     public Notification markAsRead(Long notificationId) {
-        return notificationRepo.findById(notificationId).map(notification -> {
-            notification.setRead(true);
-            notification.setReadAt(LocalDateTime.now());
-            return notificationRepo.save(notification);
-        }).orElse(null);
-    }
-    
-    public void markAllAsRead(Long userId) {
-        List<Notification> unreadNotifications = getUnreadNotifications(userId);
-        for (Notification notification : unreadNotifications) {
-            notification.setRead(true);
-            notification.setReadAt(LocalDateTime.now());
-            notificationRepo.save(notification);
+        Notification notification = notificationRepo.findById(notificationId).orElse(null);
+        if (notification == null) {
+            return null;
         }
+        Long userId = notification.getUser().getId();
+        boolean flipped = notificationRepo.markAsReadIfUnread(notificationId, LocalDateTime.now()) == 1;
+        afterCommit(() -> {
+            if (flipped) {
+                unreadCounterStore.add(userId, -1);
+            }
+            publishUpdate(userId, "read", notificationId);
+        });
+        return notificationRepo.findById(notificationId).orElse(null);
+    }
+    
+    /**
+     * Mark every unread notification of a user as read with a single UPDATE.
+     * Returns the number of notifications updated.
+     */
+    @Transactional
+    public int markAllAsRead(Long userId) {
+        int updated = notificationRepo.markAllAsReadByUserId(userId, LocalDateTime.now());
+        afterCommit(() -> {
+            unreadCounterStore.set(userId, 0);
+            if (updated > 0) {
+                publishUpdate(userId, "all-read", null);
+            }
+        });
+        return updated;
     }
     
     public boolean deleteNotification(Long notificationId) {
-        if (notificationRepo.existsById(notificationId)) {
-            notificationRepo.deleteById(notificationId);
+        return notificationRepo.findById(notificationId).map(notification -> {
+            notificationRepo.delete(notification);
+            boolean wasUnread = !notification.isRead();
+            Long userId = notification.getUser().getId();
+            afterCommit(() -> {
+                if (wasUnread) {
+                    unreadCounterStore.add(userId, -1);
+                }
+                publishUpdate(userId, "deleted", notificationId);
+            });
             return true;
+        }).orElse(false);
+    }
+    
+    /**
+     * Bulk delete notifications older than a cutoff, optionally limited to one type.
+     * Returns the number of notifications deleted.
+     */
+    @Transactional
+    public int deleteNotifications(LocalDateTime olderThan, Notification.NotificationType type) {
+        if (olderThan == null && type == null) {
+            throw new IllegalArgumentException("Either an age cutoff or a notification type is required");
         }
-        return false;
+        int deleted;
+        if (type == null) {
+            deleted = notificationRepo.deleteCreatedBefore(olderThan);
+        } else if (olderThan == null) {
+            deleted = notificationRepo.deleteAllByType(type);
+        } else {
+            deleted = notificationRepo.deleteByTypeCreatedBefore(type, olderThan);
+        }
+        // Affected users are unknown here, so let every counter reload lazily
+        if (deleted > 0) {
+            afterCommit(unreadCounterStore::invalidateAll);
+        }
+        return deleted;
     }
     
     public void createTaskAssignmentNotification(Long userId, String taskTitle) {
@@ -111,4 +293,79 @@ public class NotificationService {
             null
         );
     }
-} 
\ No newline at end of file
+    
+    private String encodeCursor(LocalDateTime createdAt, Long id) {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private Object[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new Object[] {
+                LocalDateTime.parse(raw.substring(0, separator)),
+                Long.parseLong(raw.substring(separator + 1))
+            };
+        } catch (IllegalArgumentException | DateTimeParseException | StringIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid notification cursor");
+        }
+    }
+    
+    /**
+     * Slim notification view pushed over the stream (avoids serializing the user graph)
+     */
+    private Map<String, Object> toStreamPayload(Notification notification) {
+        return streamPayload(notification.getId(), notification.getTitle(), notification.getMessage(),
+                notification.getType(), notification.isRead(), notification.getCreatedAt(),
+                notification.getRelatedEntityType(), notification.getRelatedEntityId());
+    }
+    
+    private Map<String, Object> streamPayload(Long id, String title, String message, Notification.NotificationType type,
+                                              boolean isRead, LocalDateTime createdAt, String relatedEntityType, Long relatedEntityId) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("id", id);
+        payload.put("title", title);
+        payload.put("message", message);
+        payload.put("type", type);
+        payload.put("isRead", isRead);
+        payload.put("createdAt", createdAt);
+        payload.put("relatedEntityType", relatedEntityType);
+        payload.put("relatedEntityId", relatedEntityId);
+        return payload;
+    }
+    
+    /**
+     * Counter and stream side effects run only once the rows are committed, so a rollback never
+     * pushes phantom notifications and a client refetching after a push sees the new state
+     */
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+    
+    private void publishUpdate(Long userId, String action, Long notificationId) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("action", action);
+        payload.put("notificationId", notificationId);
+        notificationStreamService.publish(userId, NotificationStreamService.EVENT_NOTIFICATIONS_UPDATED, payload);
+    }
+    
+    /**
+     * A page of notifications plus the cursor for the next page (null on the last page)
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class NotificationPage {
+        private final List<Notification> items;
+        private final String nextCursor;
+    }
+}
@@ -0,0 +1,225 @@
+package com.earacg.earaconnect.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process registry of per-user server-sent event subscriptions.
+ * Domain services publish events here instead of clients polling for changes.
+ * A short replay buffer per user lets a reconnecting client resume from its Last-Event-ID;
+ * buffers of users with no open stream are dropped once the replay window has passed.
+ */
+@Service
+@Slf4j
+public class NotificationStreamService {
+
+    public static final String EVENT_NOTIFICATION = "notification";
+    public static final String EVENT_NOTIFICATIONS_UPDATED = "notifications-updated";
+    public static final String EVENT_REPORT = "report";
+    public static final String EVENT_MEETING = "meeting";
+
+    private final Map<Long, CopyOnWriteArrayList<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    private final Map<Long, Deque<StreamEvent>> replayBuffers = new ConcurrentHashMap<>();
+
+    // Seeded from the clock so ids keep increasing across restarts and resume never skips new events
+    private final AtomicLong sequence = new AtomicLong(System.currentTimeMillis() * 1000);
+
+    @Value("${app.notifications.stream.timeout-ms:1800000}")
+    private long streamTimeoutMs;
+
+    @Value("${app.notifications.stream.replay-size:50}")
+    private int replaySize;
+
+    // How long a disconnected client can still resume from its buffer
+    @Value("${app.notifications.stream.replay-window:10m}")
+    private Duration replayWindow;
+
+    /**
+     * Open a stream for a user, replaying buffered events newer than lastEventId
+     */
+    public SseEmitter subscribe(Long userId, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        CopyOnWriteArrayList<SseEmitter> emitters = subscribers.computeIfAbsent(userId, id -> new CopyOnWriteArrayList<>());
+        emitters.add(emitter);
+
+        emitter.onCompletion(() -> removeEmitter(userId, emitter));
+        emitter.onTimeout(() -> removeEmitter(userId, emitter));
+        emitter.onError(e -> removeEmitter(userId, emitter));
+
+        try {
+            emitter.send(SseEmitter.event().comment("connected"));
+            Long resumeFrom = parseEventId(lastEventId);
+            if (resumeFrom != null) {
+                for (StreamEvent event : eventsAfter(userId, resumeFrom)) {
+                    emitter.send(toSse(event));
+                }
+            }
+        } catch (IOException e) {
+            removeEmitter(userId, emitter);
+            emitter.completeWithError(e);
+        }
+
+        log.debug("User {} subscribed to notification stream ({} open)", userId, emitters.size());
+        return emitter;
+    }
+
+    /**
+     * Push an event to every open stream of a user. Never throws into the caller.
+     */
+    public void publish(Long userId, String eventName, Object payload) {
+        if (userId == null) {
+            return;
+        }
+        StreamEvent event = new StreamEvent(sequence.incrementAndGet(), eventName, payload, System.nanoTime());
+        buffer(userId, event);
+
+        List<SseEmitter> emitters = subscribers.get(userId);
+        if (emitters == null) {
+            return;
+        }
+        for (SseEmitter emitter : emitters) {
+            try {
+                emitter.send(toSse(event));
+            } catch (Exception e) {
+                log.debug("Dropping notification stream for user {}: {}", userId, e.getMessage());
+                removeEmitter(userId, emitter);
+            }
+        }
+    }
+
+    /**
+     * Push the same event to several users
+     */
+    public void publish(Collection<Long> userIds, String eventName, Object payload) {
+        for (Long userId : userIds) {
+            publish(userId, eventName, payload);
+        }
+    }
+
+    /**
+     * Number of users with at least one open stream
+     */
+    public int getSubscribedUserCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Keep idle connections open through proxies and detect dead clients
+     */
+    @Scheduled(fixedRateString = "${app.notifications.stream.heartbeat-ms:25000}")
+    public void heartbeat() {
+        subscribers.forEach((userId, emitters) -> {
+            for (SseEmitter emitter : emitters) {
+                try {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                } catch (Exception e) {
+                    removeEmitter(userId, emitter);
+                }
+            }
+        });
+    }
+
+    /**
+     * Drop replay buffers of users with no open stream whose newest event is older than the replay window
+     */
+    @Scheduled(fixedRateString = "${app.notifications.stream.prune-ms:60000}")
+    public void pruneReplayBuffers() {
+        long cutoff = System.nanoTime() - replayWindow.toNanos();
+        for (Long userId : replayBuffers.keySet()) {
+            replayBuffers.computeIfPresent(userId, (id, buffer) -> {
+                if (subscribers.containsKey(id)) {
+                    return buffer;
+                }
+                synchronized (buffer) {
+                    StreamEvent newest = buffer.peekLast();
+                    return newest != null && newest.getCreatedAt() - cutoff > 0 ? buffer : null;
+                }
+            });
+        }
+    }
+
+    private void buffer(Long userId, StreamEvent event) {
+        // compute() so a concurrent prune cannot drop the buffer between lookup and append
+        replayBuffers.compute(userId, (id, buffer) -> {
+            Deque<StreamEvent> target = buffer != null ? buffer : new ArrayDeque<>();
+            synchronized (target) {
+                target.addLast(event);
+                while (target.size() > replaySize) {
+                    target.removeFirst();
+                }
+            }
+            return target;
+        });
+    }
+
+    private List<StreamEvent> eventsAfter(Long userId, long lastEventId) {
+        Deque<StreamEvent> buffer = replayBuffers.get(userId);
+        List<StreamEvent> missed = new ArrayList<>();
+        if (buffer == null) {
+            return missed;
+        }
+        synchronized (buffer) {
+            for (StreamEvent event : buffer) {
+                if (event.getId() > lastEventId) {
+                    missed.add(event);
+                }
+            }
+        }
+        return missed;
+    }
+
+    private void removeEmitter(Long userId, SseEmitter emitter) {
+        subscribers.computeIfPresent(userId, (id, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+
+    private SseEmitter.SseEventBuilder toSse(StreamEvent event) {
+        return SseEmitter.event()
+                .id(String.valueOf(event.getId()))
+                .name(event.getName())
+                .data(event.getPayload());
+    }
+
+    private Long parseEventId(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Event held in the replay buffer
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class StreamEvent {
+        private final long id;
+        private final String name;
+        private final Object payload;
+        // System.nanoTime() when published, for pruning
+        private final long createdAt;
+    }
+}
@@ -0,0 +1,140 @@
+package com.earacg.earaconnect.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Search-as-you-type over committee members, commissioners general and users.
+ * Each table has a pg_trgm GIN index on lower(name || email || position), so substring, prefix and
+ * typo-tolerant (word_similarity) matches are index lookups instead of LIKE '%x%' scans.
+ * Results rank prefix matches on name or email first, then by trigram similarity.
+ * Without the pg_trgm extension the same queries fall back to plain substring matching.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PeopleSearchService {
+
+    public static final String MEMBERS = "member";
+    public static final String COMMISSIONERS = "commissioner";
+    public static final String USERS = "user";
+
+    private static final List<Source> SOURCES = List.of(
+            new Source(MEMBERS, "c_sub_committee_members", "position_in_ra", "idx_members_people_search", null),
+            new Source(COMMISSIONERS, "country_committee_member", null, "idx_commissioners_people_search", null),
+            new Source(USERS, "users", "position", "idx_users_people_search", "is_active"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Lower accepts more typos but returns weaker matches; pg_trgm's own default is 0.6
+    @Value("${app.people-search.similarity-threshold:0.3}")
+    private double similarityThreshold;
+
+    private volatile boolean trigramAvailable;
+
+    /**
+     * Enable pg_trgm and create one trigram index per table. Called once at startup.
+     */
+    public void ensureIndexes() {
+        try {
+            jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+            trigramAvailable = true;
+        } catch (Exception e) {
+            log.warn("pg_trgm is not available ({}); people search falls back to substring scans", e.getMessage());
+            trigramAvailable = false;
+            return;
+        }
+        for (Source source : SOURCES) {
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS " + source.indexName() + " ON " + source.table()
+                    + " USING GIN ((" + source.document() + ") gin_trgm_ops)");
+        }
+    }
+
+    /**
+     * Ranked matches for q. type restricts to member, commissioner or user; null searches all three.
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> search(String query, String type, int limit) {
+        String q = query.trim().toLowerCase(Locale.ROOT);
+        if (q.isEmpty()) {
+            return List.of();
+        }
+        if (trigramAvailable) {
+            // Transaction-local, so the pooled connection keeps the server default afterwards
+            jdbcTemplate.queryForObject("SELECT set_config('pg_trgm.word_similarity_threshold', ?, true)",
+                    String.class, String.valueOf(similarityThreshold));
+        }
+        String escaped = q.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (Source source : SOURCES) {
+            if (type == null || type.equals(source.type())) {
+                results.addAll(search(source, q, escaped, limit));
+            }
+        }
+        results.sort(Comparator.comparing((Map<String, Object> r) -> (Boolean) r.get("prefixMatch")).reversed()
+                .thenComparing(r -> (Double) r.get("score"), Comparator.reverseOrder()));
+        return results.size() > limit ? new ArrayList<>(results.subList(0, limit)) : results;
+    }
+
+    private List<Map<String, Object>> search(Source source, String q, String escaped, int limit) {
+        String document = source.document();
+        String prefix = escaped + "%";
+        List<Object> args = new ArrayList<>(List.of(prefix, prefix));
+        StringBuilder sql = new StringBuilder("SELECT id, name, email, ")
+                .append(source.positionColumn() != null ? source.positionColumn() : "NULL").append(" AS position, ")
+                .append("(lower(name) LIKE ? OR lower(email) LIKE ?) AS prefix_match, ");
+        if (trigramAvailable) {
+            sql.append("word_similarity(?, ").append(document).append(") AS score ");
+            args.add(q);
+        } else {
+            sql.append("0.0 AS score ");
+        }
+        sql.append("FROM ").append(source.table()).append(" WHERE (").append(document).append(" LIKE ?");
+        args.add("%" + escaped + "%");
+        if (trigramAvailable) {
+            // <% is word_similarity above the threshold: tolerates typos and is served by the same index
+            sql.append(" OR ? <% ").append(document);
+            args.add(q);
+        }
+        sql.append(")");
+        if (source.activeColumn() != null) {
+            sql.append(" AND ").append(source.activeColumn());
+        }
+        sql.append(" ORDER BY prefix_match DESC, score DESC, name LIMIT ?");
+        args.add(limit);
+
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("type", source.type());
+            result.put("id", rs.getLong("id"));
+            result.put("name", rs.getString("name"));
+            result.put("email", rs.getString("email"));
+            result.put("position", rs.getString("position"));
+            result.put("prefixMatch", rs.getBoolean("prefix_match"));
+            result.put("score", rs.getDouble("score"));
+            return result;
+        }, args.toArray());
+    }
+
+    /**
+     * A searchable table. The document expression must match the index definition exactly.
+     */
+    private record Source(String type, String table, String positionColumn, String indexName, String activeColumn) {
+
+        String document() {
+            return "lower(coalesce(name, '') || ' ' || coalesce(email, '')"
+                    + (positionColumn != null ? " || ' ' || coalesce(" + positionColumn + ", '')" : "") + ")";
+        }
+    }
+}
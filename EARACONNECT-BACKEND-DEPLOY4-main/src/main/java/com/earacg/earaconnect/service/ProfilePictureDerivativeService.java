@@ -0,0 +1,383 @@
+package com.earacg.earaconnect.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Square JPEG thumbnails of profile pictures in a few fixed sizes.
+ * Thumbnails are generated after upload on a small bounded pool, stored in the storage backend
+ * under profile-pictures/thumbs/{size}/{key}.jpg and kept in an in-memory LRU while hot.
+ * The key is the original's file name without extension, which embeds its content hash,
+ * so a thumbnail URL never changes meaning and can be cached as immutable.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProfilePictureDerivativeService {
+
+    private static final List<String> ORIGINAL_EXTENSIONS = List.of(".jpg", ".jpeg", ".png", ".gif", ".webp");
+
+    private final StorageBackend storage;
+
+    @Value("${app.file.upload-dir:uploads}")
+    private String uploadDir;
+
+    @Value("${app.file.upload-dir:uploads}/profile-pictures")
+    private String profilePictureDir;
+
+    @Value("${app.profile-pictures.thumbnail-sizes:48,128,512}")
+    private List<Integer> sizes;
+
+    @Value("${app.profile-pictures.thumbnail-workers:2}")
+    private int workers;
+
+    @Value("${app.profile-pictures.thumbnail-queue:100}")
+    private int queueCapacity;
+
+    @Value("${app.profile-pictures.thumbnail-cache-bytes:16777216}")
+    private long cacheCapacityBytes;
+
+    // Originals declaring more pixels than this are never decoded (a small file can claim a huge canvas)
+    @Value("${app.profile-pictures.max-pixels:40000000}")
+    private long maxPixels;
+
+    // How long a request waits for on-demand generation before giving up
+    @Value("${app.profile-pictures.thumbnail-wait-ms:10000}")
+    private long waitMs;
+
+    private ThreadPoolExecutor executor;
+
+    // Access-ordered map used as an LRU bounded by total bytes
+    private final LinkedHashMap<String, byte[]> cache = new LinkedHashMap<>(64, 0.75f, true);
+    private long cachedBytes;
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "thumbnail-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdown();
+    }
+
+    public List<Integer> getSizes() {
+        return sizes;
+    }
+
+    /**
+     * Queue thumbnail generation for a freshly stored original. When the queue is full the
+     * thumbnails are simply generated on first request instead.
+     */
+    public void scheduleDerivatives(String originalFilename) {
+        String key = keyOf(originalFilename);
+        try {
+            executor.execute(() -> {
+                for (Integer size : sizes) {
+                    try {
+                        generate(originalFilename, key, size);
+                    } catch (Exception e) {
+                        log.warn("Could not generate {}px thumbnail for {}: {}", size, key, e.getMessage());
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.debug("Thumbnail queue full, {} will be generated on demand", key);
+        }
+    }
+
+    /**
+     * Thumbnail bytes for a key and size, from memory, disk or generated on demand on the thumbnail pool.
+     * Returns null if the size is not offered or the original is missing or not decodable;
+     * throws ThumbnailBusyException when the pool cannot take the work.
+     */
+    public byte[] getThumbnail(String key, int size) throws IOException {
+        if (!sizes.contains(size) || !isSafeKey(key)) {
+            return null;
+        }
+        String cacheKey = key + "@" + size;
+        byte[] cached = cacheGet(cacheKey);
+        if (cached != null) {
+            return cached;
+        }
+
+        String thumbnailKey = thumbnailKey(key, size);
+        byte[] bytes;
+        if (storage.exists(thumbnailKey)) {
+            try (InputStream in = storage.open(thumbnailKey)) {
+                bytes = in.readAllBytes();
+            }
+        } else {
+            String original = findOriginal(key);
+            if (original == null) {
+                return null;
+            }
+            bytes = generateOnPool(original, key, size);
+            if (bytes == null) {
+                return null;
+            }
+        }
+        cachePut(cacheKey, bytes);
+        return bytes;
+    }
+
+    /**
+     * Public URLs of every thumbnail size for a stored profile picture URL
+     */
+    public Map<Integer, String> getThumbnailUrls(String profilePictureUrl) {
+        Map<Integer, String> urls = new LinkedHashMap<>();
+        if (profilePictureUrl == null || profilePictureUrl.isEmpty()) {
+            return urls;
+        }
+        String filename = profilePictureUrl.substring(profilePictureUrl.lastIndexOf('/') + 1);
+        if (!canDecode(filename)) {
+            // No reader for this format (e.g. WebP): clients use the original
+            return urls;
+        }
+        String key = keyOf(filename);
+        for (Integer size : sizes) {
+            urls.put(size, "/files/profile-pictures/thumbs/" + size + "/" + key + ".jpg");
+        }
+        return urls;
+    }
+
+    /**
+     * Storage keys of every thumbnail derived from an original
+     */
+    public List<String> thumbnailKeys(String originalFilename) {
+        String key = keyOf(originalFilename);
+        return sizes.stream().map(size -> thumbnailKey(key, size)).toList();
+    }
+
+    /**
+     * Remove all thumbnails of an original, on disk and in memory
+     */
+    public void deleteDerivatives(String originalFilename) {
+        String key = keyOf(originalFilename);
+        for (Integer size : sizes) {
+            cacheRemove(key + "@" + size);
+            try {
+                storage.delete(thumbnailKey(key, size));
+            } catch (IOException e) {
+                log.warn("Could not delete {}px thumbnail for {}: {}", size, key, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Generate on the bounded pool and wait for it, so request threads never decode images themselves
+     */
+    private byte[] generateOnPool(String originalFilename, String key, int size) throws IOException {
+        Future<byte[]> result;
+        try {
+            result = executor.submit(() -> generate(originalFilename, key, size));
+        } catch (RejectedExecutionException e) {
+            throw new ThumbnailBusyException("Thumbnail generation is busy, retry shortly");
+        }
+        try {
+            return result.get(waitMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Left running: the stored thumbnail is served on the next request
+            throw new ThumbnailBusyException("Thumbnail generation is busy, retry shortly");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ThumbnailBusyException("Interrupted while generating thumbnail");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException("Could not generate thumbnail for " + key, e.getCause());
+        }
+    }
+
+    private byte[] generate(String originalFilename, String key, int size) throws IOException {
+        BufferedImage source = decode(originalFilename);
+        if (source == null) {
+            // Missing, no ImageIO reader for this format (e.g. WebP) or too large; callers fall back to the original
+            return null;
+        }
+        BufferedImage scaled = scaleSquare(source, size);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(scaled, "jpg", out);
+        byte[] bytes = out.toByteArray();
+
+        Path staging = Paths.get(uploadDir, "tmp");
+        Files.createDirectories(staging);
+        Path partial = Files.createTempFile(staging, "thumb-", ".jpg");
+        Files.write(partial, bytes);
+        storage.put(thumbnailKey(key, size), partial, "image/jpeg");
+        return bytes;
+    }
+
+    /**
+     * Decode an original after checking its declared dimensions from the header, or null if it cannot be read
+     */
+    private BufferedImage decode(String originalFilename) throws IOException {
+        try (InputStream in = openOriginal(originalFilename);
+             ImageInputStream image = in != null ? ImageIO.createImageInputStream(in) : null) {
+            if (image == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(image);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(image, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxPixels) {
+                    log.warn("Not decoding {}: {} pixels exceeds the {} pixel limit", originalFilename, pixels, maxPixels);
+                    return null;
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private boolean canDecode(String filename) {
+        int dot = filename.lastIndexOf('.');
+        return dot != -1 && ImageIO.getImageReadersBySuffix(filename.substring(dot + 1)).hasNext();
+    }
+
+    /**
+     * Centre-crop to a square and scale down in halving steps for decent quality with bilinear filtering
+     */
+    private BufferedImage scaleSquare(BufferedImage source, int size) {
+        int side = Math.min(source.getWidth(), source.getHeight());
+        BufferedImage current = source.getSubimage((source.getWidth() - side) / 2, (source.getHeight() - side) / 2, side, side);
+
+        int currentSize = side;
+        do {
+            currentSize = Math.max(currentSize / 2, size);
+            BufferedImage step = new BufferedImage(currentSize, currentSize, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = step.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            // JPEG has no alpha: flatten transparent pixels onto white
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, currentSize, currentSize);
+            g.drawImage(current, 0, 0, currentSize, currentSize, null);
+            g.dispose();
+            current = step;
+        } while (currentSize > size);
+        return current;
+    }
+
+    /**
+     * Stored filename of the original for a key, checking the storage backend then the legacy flat directory
+     */
+    private String findOriginal(String key) throws IOException {
+        for (String extension : ORIGINAL_EXTENSIONS) {
+            if (storage.exists(ProfilePictureService.STORAGE_PREFIX + key + extension)) {
+                return key + extension;
+            }
+        }
+        Path dir = Paths.get(profilePictureDir);
+        if (!Files.isDirectory(dir)) {
+            return null;
+        }
+        try (DirectoryStream<Path> matches = Files.newDirectoryStream(dir, key + ".*")) {
+            for (Path match : matches) {
+                if (Files.isRegularFile(match)) {
+                    return match.getFileName().toString();
+                }
+            }
+        }
+        return null;
+    }
+
+    private InputStream openOriginal(String filename) throws IOException {
+        String storageKey = ProfilePictureService.STORAGE_PREFIX + filename;
+        if (storage.exists(storageKey)) {
+            return storage.open(storageKey);
+        }
+        Path legacy = Paths.get(profilePictureDir, filename);
+        return Files.isRegularFile(legacy) ? Files.newInputStream(legacy) : null;
+    }
+
+    private String thumbnailKey(String key, int size) {
+        return ProfilePictureService.STORAGE_PREFIX + "thumbs/" + size + "/" + key + ".jpg";
+    }
+
+    private String keyOf(String filename) {
+        int dot = filename.lastIndexOf('.');
+        return dot == -1 ? filename : filename.substring(0, dot);
+    }
+
+    private boolean isSafeKey(String key) {
+        return key.matches("[A-Za-z0-9_-]+");
+    }
+
+    private synchronized byte[] cacheGet(String key) {
+        return cache.get(key);
+    }
+
+    private synchronized void cachePut(String key, byte[] bytes) {
+        if (bytes.length > cacheCapacityBytes) {
+            return;
+        }
+        byte[] previous = cache.put(key, bytes);
+        cachedBytes += bytes.length - (previous != null ? previous.length : 0);
+        Iterator<Map.Entry<String, byte[]>> eldest = cache.entrySet().iterator();
+        while (cachedBytes > cacheCapacityBytes && eldest.hasNext()) {
+            cachedBytes -= eldest.next().getValue().length;
+            eldest.remove();
+        }
+    }
+
+    private synchronized void cacheRemove(String key) {
+        byte[] removed = cache.remove(key);
+        if (removed != null) {
+            cachedBytes -= removed.length;
+        }
+    }
+
+    /**
+     * The thumbnail pool is saturated; the caller should retry or use the original
+     */
+    public static class ThumbnailBusyException extends RuntimeException {
+        public ThumbnailBusyException(String message) {
+            super(message);
+        }
+    }
+}
@@ -2,9 +2,13 @@ package com.earacg.earaconnect.service;
 
 import com.earacg.earaconnect.model.User;
 import com.earacg.earaconnect.repository.UserRepo;
+import com.earacg.earaconnect.security.PrincipalCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.util.StringUtils;
@@ -13,8 +17,11 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Service
 @RequiredArgsConstructor
@@ -22,6 +29,17 @@ import java.util.UUID;
 public class ProfilePictureService {
 
     private final UserRepo userRepo;
+    private final UploadPipeline uploadPipeline;
+    private final ProfilePictureDerivativeService derivativeService;
+    private final StorageBackend storage;
+    private final PrincipalCache principalCache;
+
+    // Storage key namespace for original pictures
+    static final String STORAGE_PREFIX = "profile-pictures/";
+
+    private static final Pattern FINGERPRINTED_NAME = Pattern.compile("profile_\\d+_([0-9a-f]{64})\\.[a-z]+");
+
+    private static final long MAX_PICTURE_SIZE = 5 * 1024 * 1024; // 5MB
 
     @Value("${app.file.upload-dir:uploads}")
     private String uploadDir;
@@ -40,18 +58,28 @@ public class ProfilePictureService {
         User user = userRepo.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found with ID: " + userId));
 
-        // Create profile picture directory if it doesn't exist
-        Path profilePicturePath = Paths.get(profilePictureDir).toAbsolutePath().normalize();
-        Files.createDirectories(profilePicturePath);
+        // Stage uploads next to the filesystem store so handing over is a rename
+        Path stagingPath = Paths.get(uploadDir, "tmp").toAbsolutePath().normalize();
+        Files.createDirectories(stagingPath);
 
         // Generate unique filename
         String originalFilename = StringUtils.cleanPath(file.getOriginalFilename());
         String fileExtension = getFileExtension(originalFilename);
         String storedFilename = "profile_" + userId + "_" + UUID.randomUUID().toString() + fileExtension;
 
-        // Store file
-        Path targetLocation = profilePicturePath.resolve(storedFilename);
-        Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
+        // Store file in one pass; the image format is checked from its magic bytes
+        Path targetLocation = stagingPath.resolve(storedFilename);
+        UploadPipeline.StoredUpload upload;
+        try {
+            upload = uploadPipeline.write(file.getInputStream(), targetLocation, MAX_PICTURE_SIZE, UploadPipeline.FileKind.IMAGES);
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Only JPG, JPEG, PNG, GIF, and WebP images up to 5MB are allowed for profile pictures", e);
+        }
+
+        // Store under a content-hash name so the picture and its thumbnail URLs are immutable
+        storedFilename = "profile_" + userId + "_" + upload.getSha256() + upload.getKind().getExtension();
+        storage.put(STORAGE_PREFIX + storedFilename, targetLocation, upload.getKind().getMimeType());
+        derivativeService.scheduleDerivatives(storedFilename);
 
         // Generate URL for the uploaded file
         String profilePictureUrl = "/files/profile-pictures/" + storedFilename;
@@ -59,6 +87,7 @@ public class ProfilePictureService {
         // Update user's profile picture URL
         user.setProfilePicture(profilePictureUrl);
         userRepo.save(user);
+        principalCache.evict(user.getEmail());
 
         log.info("Profile picture uploaded successfully for user {}: {}", userId, profilePictureUrl);
         return profilePictureUrl;
@@ -76,16 +105,19 @@ public class ProfilePictureService {
                 // Extract filename from URL
                 String filename = user.getProfilePicture().substring(user.getProfilePicture().lastIndexOf("/") + 1);
                 Path filePath = Paths.get(profilePictureDir).resolve(filename);
+                storage.delete(STORAGE_PREFIX + filename);
                 
-                // Delete file if it exists
+                // Pictures uploaded before the storage backend sit directly in the profile picture directory
                 if (Files.exists(filePath)) {
                     Files.delete(filePath);
                     log.info("Profile picture file deleted: {}", filePath);
                 }
+                derivativeService.deleteDerivatives(filename);
 
                 // Clear profile picture URL from user
                 user.setProfilePicture(null);
                 userRepo.save(user);
+                principalCache.evict(user.getEmail());
                 
                 log.info("Profile picture deleted successfully for user: {}", userId);
             } catch (IOException e) {
@@ -105,6 +137,39 @@ public class ProfilePictureService {
         return user.getProfilePicture();
     }
 
+    /**
+     * Original picture by stored filename, from the storage backend or the legacy flat directory.
+     * Returns null when it does not exist.
+     */
+    public Resource openPicture(String filename) throws IOException {
+        String key = STORAGE_PREFIX + filename;
+        if (storage.exists(key)) {
+            Optional<Path> local = storage.localPath(key);
+            return local.isPresent() ? new FileSystemResource(local.get()) : new InputStreamResource(storage.open(key));
+        }
+        Path legacy = Paths.get(profilePictureDir).resolve(filename).normalize();
+        if (legacy.startsWith(Paths.get(profilePictureDir).normalize()) && Files.isRegularFile(legacy)) {
+            return new FileSystemResource(legacy);
+        }
+        return null;
+    }
+
+    /**
+     * Content digest embedded in a picture's file name (profile_{userId}_{sha256}.ext), or null for
+     * pictures stored under a random name before pictures were fingerprinted
+     */
+    public static String fingerprintOf(String filename) {
+        Matcher matcher = FINGERPRINTED_NAME.matcher(filename);
+        return matcher.matches() ? matcher.group(1) : null;
+    }
+
+    /**
+     * Thumbnail URLs by pixel size for a user's current profile picture
+     */
+    public Map<Integer, String> getThumbnailUrls(String profilePictureUrl) {
+        return derivativeService.getThumbnailUrls(profilePictureUrl);
+    }
+
     /**
      * Validate profile picture file
      */
@@ -120,8 +185,7 @@ public class ProfilePictureService {
         }
 
         // Check file size (max 5MB)
-        long maxSize = 5 * 1024 * 1024; // 5MB
-        if (file.getSize() > maxSize) {
+        if (file.getSize() > MAX_PICTURE_SIZE) {
             throw new RuntimeException("Profile picture file size must be less than 5MB");
         }
 
@@ -6,8 +6,12 @@ import com.earacg.earaconnect.repository.UserRepo;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class ReportService {
@@ -27,6 +31,9 @@ public class ReportService {
     @Autowired
     private HODPermissionService hodPermissionService;
     
+    @Autowired
+    private NotificationStreamService notificationStreamService;
+    
     public List<Report> getAllReports() {
         return reportRepo.findAll();
     }
@@ -67,6 +74,7 @@ public class ReportService {
         
         // Notify HODs about new report submission
         notifyHodsAboutReport(savedReport);
+        publishReportEvent(savedReport);
         
         return savedReport;
     }
@@ -117,6 +125,7 @@ public class ReportService {
             
             Report savedReport = reportRepo.save(report);
             System.out.println("✅ Report saved with new status: " + savedReport.getStatus());
+            publishReportEvent(savedReport);
             return savedReport;
         } else {
             System.err.println("❌ User " + hod.getName() + " does not have HOD privileges");
@@ -141,7 +150,9 @@ public class ReportService {
                     report.setStatus(Report.ReportStatus.REJECTED_BY_COMMISSIONER);
                 }
                 
-                return reportRepo.save(report);
+                Report savedReport = reportRepo.save(report);
+                publishReportEvent(savedReport);
+                return savedReport;
             }
         }
         return null;
@@ -174,12 +185,37 @@ public class ReportService {
             
             // Notify HODs about resubmitted report
             notifyHodsAboutReport(savedReport);
+            publishReportEvent(savedReport);
             
             return savedReport;
         }
         return null;
     }
     
+    /**
+     * Push the new report status to the submitter and reviewers' open dashboards
+     */
+    private void publishReportEvent(Report report) {
+        Set<Long> recipients = new LinkedHashSet<>();
+        if (report.getSubmittedBy() != null) {
+            recipients.add(report.getSubmittedBy().getId());
+        }
+        if (report.getReviewedByHod() != null) {
+            recipients.add(report.getReviewedByHod().getId());
+        }
+        if (report.getReviewedByCommissioner() != null) {
+            recipients.add(report.getReviewedByCommissioner().getId());
+        }
+        
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("reportId", report.getId());
+        payload.put("status", report.getStatus());
+        if (report.getResolution() != null) {
+            payload.put("resolutionId", report.getResolution().getId());
+        }
+        notificationStreamService.publish(recipients, NotificationStreamService.EVENT_REPORT, payload);
+    }
+    
     private void notifyHodsAboutReport(Report report) {
         // Get all Chair/Vice Chair users (no direct HOD role exists)
         List<User> chairs = userRepo.findByRole(User.UserRole.CHAIR);
@@ -190,46 +226,49 @@ public class ReportService {
         allPotentialHods.addAll(viceChairs);
         
         // Filter and notify only those with HOD privileges (Chair/Vice Chair of Head of Delegation)
-        for (User user : allPotentialHods) {
-            if (hodPermissionService.hasHODPrivileges(user)) {
-                // Create in-app notification
-                notificationService.createNotification(
-                    user.getId(),
-                    "New Report Submission",
-                    "A new report has been submitted for '" + report.getResolution().getTitle() + "' by " + report.getSubmittedBy().getName(),
-                    Notification.NotificationType.REPORT_SUBMISSION,
-                    "Report",
-                    report.getId()
+        List<User> hods = allPotentialHods.stream()
+            .filter(hodPermissionService::hasHODPrivileges)
+            .toList();
+        
+        // Create in-app notifications for all HODs in one statement
+        notificationService.createNotifications(
+            hods.stream().map(User::getId).toList(),
+            "New Report Submission",
+            "A new report has been submitted for '" + report.getResolution().getTitle() + "' by " + report.getSubmittedBy().getName(),
+            Notification.NotificationType.REPORT_SUBMISSION,
+            "Report",
+            report.getId()
+        );
+        
+        for (User user : hods) {
+            // Send email notification
+            try {
+                emailService.sendReportNotification(
+                    user.getEmail(),
+                    user.getName(),
+                    report.getResolution().getTitle(),
+                    "submitted for your review"
                 );
-                
-                // Send email notification
-                try {
-                    emailService.sendReportNotification(
-                        user.getEmail(),
-                        user.getName(),
-                        report.getResolution().getTitle(),
-                        "submitted for your review"
-                    );
-                } catch (Exception e) {
-                    System.err.println("Failed to send email to HOD " + user.getEmail() + ": " + e.getMessage());
-                }
+            } catch (Exception e) {
+                System.err.println("Failed to send email to HOD " + user.getEmail() + ": " + e.getMessage());
             }
         }
     }
     
     private void notifyCommissionerAboutReport(Report report) {
         List<User> commissioners = userRepo.findByRole(User.UserRole.COMMISSIONER_GENERAL);
+        
+        // Create in-app notifications for all commissioners in one statement
+        notificationService.createNotifications(
+            commissioners.stream().map(User::getId).toList(),
+            "Report Approved by HOD",
+            "A report for '" + report.getResolution().getTitle() + "' has been approved by HOD and forwarded for final review",
+            Notification.NotificationType.REPORT_APPROVAL,
+            "Report",
+            report.getId()
+        );
+        
         for (User commissioner : commissioners) {
-            // Create in-app notification
-            notificationService.createNotification(
-                commissioner.getId(),
-                "Report Approved by HOD",
-                "A report for '" + report.getResolution().getTitle() + "' has been approved by HOD and forwarded for final review",
-                Notification.NotificationType.REPORT_APPROVAL,
-                "Report",
-                report.getId()
-            );
-            
             // Send email notification
             try {
                 emailService.sendReportNotification(
@@ -249,7 +288,7 @@ public class ReportService {
         
         // Create in-app notification
         notificationService.createNotification(
-            chair.getId(),
+            chair,
             "Report Rejected",
             "Your report for '" + report.getResolution().getTitle() + "' has been rejected. Comments: " + report.getHodComments(),
             Notification.NotificationType.REPORT_REJECTION,
@@ -276,7 +315,7 @@ public class ReportService {
         
         // Create in-app notification
         notificationService.createNotification(
-            chair.getId(),
+            chair,
             "Report Approved",
             "Your report for '" + report.getResolution().getTitle() + "' has been approved and forwarded to Commissioner General",
             Notification.NotificationType.REPORT_APPROVAL,
@@ -219,7 +219,7 @@ public class ResolutionService {
             
             // Create in-system notification
             notificationService.createNotification(
-                user.getId(),
+                user,
                 "New Task Assignment",
                 "A new resolution has been assigned to your subcommittee: " + assignment.getResolution().getTitle() + 
                 " (Contribution: " + assignment.getContributionPercentage() + "%)",
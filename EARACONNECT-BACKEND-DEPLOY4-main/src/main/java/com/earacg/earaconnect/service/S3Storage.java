@@ -0,0 +1,112 @@
+package com.earacg.earaconnect.service;
+
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * S3-compatible driver (AWS S3, MinIO, Ceph RGW). Objects are stored under prefix + key.
+ */
+public class S3Storage implements StorageBackend {
+
+    private final S3Client client;
+    private final String bucket;
+    private final String prefix;
+
+    public S3Storage(S3Client client, String bucket, String prefix) {
+        this.client = client;
+        this.bucket = bucket;
+        String base = prefix == null ? "" : prefix;
+        this.prefix = base.isEmpty() || base.endsWith("/") ? base : base + "/";
+    }
+
+    @Override
+    public void put(String key, Path source, String contentType) throws IOException {
+        try {
+            PutObjectRequest.Builder request = PutObjectRequest.builder().bucket(bucket).key(objectKey(key));
+            if (contentType != null) {
+                request.contentType(contentType);
+            }
+            client.putObject(request.build(), RequestBody.fromFile(source));
+        } catch (S3Exception ex) {
+            throw new IOException("Could not upload " + key + " to bucket " + bucket, ex);
+        }
+        Files.deleteIfExists(source);
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        try {
+            return client.getObject(GetObjectRequest.builder().bucket(bucket).key(objectKey(key)).build());
+        } catch (S3Exception ex) {
+            throw new IOException("Could not read " + key + " from bucket " + bucket, ex);
+        }
+    }
+
+    @Override
+    public InputStream openRange(String key, long offset, long length) throws IOException {
+        try {
+            return client.getObject(GetObjectRequest.builder().bucket(bucket).key(objectKey(key))
+                    .range("bytes=" + offset + "-" + (offset + length - 1)).build());
+        } catch (S3Exception ex) {
+            throw new IOException("Could not read " + key + " from bucket " + bucket, ex);
+        }
+    }
+
+    @Override
+    public boolean exists(String key) {
+        try {
+            return size(key) >= 0;
+        } catch (IOException ex) {
+            return false;
+        }
+    }
+
+    @Override
+    public long size(String key) throws IOException {
+        try {
+            return client.headObject(HeadObjectRequest.builder().bucket(bucket).key(objectKey(key)).build()).contentLength();
+        } catch (NoSuchKeyException ex) {
+            return -1;
+        } catch (S3Exception ex) {
+            if (ex.statusCode() == 404) {
+                return -1;
+            }
+            throw new IOException("Could not stat " + key + " in bucket " + bucket, ex);
+        }
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        try {
+            client.deleteObject(DeleteObjectRequest.builder().bucket(bucket).key(objectKey(key)).build());
+        } catch (S3Exception ex) {
+            throw new IOException("Could not delete " + key + " from bucket " + bucket, ex);
+        }
+    }
+
+    @Override
+    public Optional<Path> localPath(String key) {
+        return Optional.empty();
+    }
+
+    @Override
+    public String describe(String key) {
+        return "s3://" + bucket + "/" + objectKey(key);
+    }
+
+    private String objectKey(String key) {
+        return prefix + key;
+    }
+}
@@ -3,6 +3,8 @@ package com.earacg.earaconnect.service;
 import com.earacg.earaconnect.model.Meeting;
 import com.earacg.earaconnect.model.User;
 import com.earacg.earaconnect.repository.UserRepo;
+import com.earacg.earaconnect.security.CapabilityCache;
+import com.earacg.earaconnect.security.UserCapabilities;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -15,16 +17,19 @@ import java.util.Optional;
 public class SecretaryValidationService {
 
     private final UserRepo userRepo;
+    private final CapabilityCache capabilityCache;
 
     /**
      * Validate if a secretary can perform meeting-related tasks based on location restrictions
      */
     public boolean validateSecretaryLocation(Long secretaryId, Meeting meeting) {
         try {
-            User secretary = userRepo.findById(secretaryId)
-                    .orElseThrow(() -> new IllegalArgumentException("Secretary not found with ID: " + secretaryId));
-            
-            return validateSecretaryLocation(secretary, meeting);
+            UserCapabilities secretary = capabilityCache.get(secretaryId);
+            if (secretary == null) {
+                throw new IllegalArgumentException("Secretary not found with ID: " + secretaryId);
+            }
+            return validateSecretaryLocation(secretary,
+                    meeting.getHostingCountry() != null ? meeting.getHostingCountry().getId() : null);
         } catch (Exception e) {
             log.error("Error validating secretary location: {}", e.getMessage());
             return false;
@@ -66,6 +71,25 @@ public class SecretaryValidationService {
         return locationMatch;
     }
 
+    /**
+     * Location check against precomputed capabilities; no user lookup
+     */
+    public boolean validateSecretaryLocation(UserCapabilities secretary, Long hostingCountryId) {
+        if (!secretary.isSecretary()) {
+            log.warn("User {} is not a secretary, cannot perform secretary tasks", secretary.userId());
+            return false;
+        }
+        if (secretary.countryId() == null) {
+            log.warn("Secretary {} has no country assigned", secretary.userId());
+            return false;
+        }
+        if (hostingCountryId == null) {
+            log.warn("Meeting has no hosting country assigned");
+            return false;
+        }
+        return secretary.countryId().equals(hostingCountryId);
+    }
+
     /**
      * Check if user has secretary role
      */
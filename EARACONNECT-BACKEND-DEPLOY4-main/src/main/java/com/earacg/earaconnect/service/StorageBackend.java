@@ -0,0 +1,48 @@
+package com.earacg.earaconnect.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Where uploaded file bodies live. Keys are slash-separated logical names such as
+ * "blobs/{sha256}" or "profile-pictures/{filename}"; drivers decide the physical layout.
+ * Selected with app.storage.type (filesystem | s3).
+ */
+public interface StorageBackend {
+
+    /**
+     * Store a local file under key, replacing any existing object. The source file is consumed.
+     */
+    void put(String key, Path source, String contentType) throws IOException;
+
+    /**
+     * Read a whole object
+     */
+    InputStream open(String key) throws IOException;
+
+    /**
+     * Read length bytes starting at offset
+     */
+    InputStream openRange(String key, long offset, long length) throws IOException;
+
+    boolean exists(String key);
+
+    /**
+     * Object size in bytes, or -1 if it does not exist
+     */
+    long size(String key) throws IOException;
+
+    void delete(String key) throws IOException;
+
+    /**
+     * Local file backing the key, when the driver keeps objects on this node (enables zero-copy reads)
+     */
+    Optional<Path> localPath(String key);
+
+    /**
+     * Human-readable location recorded on metadata rows (file path or s3:// URI)
+     */
+    String describe(String key);
+}
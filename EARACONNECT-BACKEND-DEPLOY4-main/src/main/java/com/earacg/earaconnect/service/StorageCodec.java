@@ -0,0 +1,102 @@
+package com.earacg.earaconnect.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.Set;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Optional compression of stored document bodies.
+ * Compressible formats are gzip-encoded at write time when that saves enough space; gzip is
+ * deflate with a header browsers accept as Content-Encoding, so the stored bytes can be sent as-is.
+ * A null codec means the body is stored verbatim.
+ * Large bodies are always stored verbatim: a range request on a gzip body has to decompress
+ * from byte 0, which would make resuming near the end of a big download cost a full pass.
+ */
+@Service
+@Slf4j
+public class StorageCodec {
+
+    public static final String GZIP = "gzip";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // Images are already compressed and DOCX is a ZIP package; PDFs and legacy .doc files often are not
+    private static final Set<UploadPipeline.FileKind> COMPRESSIBLE = Set.of(
+            UploadPipeline.FileKind.PDF, UploadPipeline.FileKind.DOC);
+
+    @Value("${app.file.compression.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.file.compression.level:6}")
+    private int level;
+
+    // Keep the compressed copy only if it is at least this fraction smaller
+    @Value("${app.file.compression.min-savings:0.1}")
+    private double minSavings;
+
+    // Bodies larger than this stay verbatim so ranged downloads can seek instead of decompressing
+    @Value("${app.file.compression.max-bytes:1048576}")
+    private long maxBytes;
+
+    /**
+     * Gzip a staged upload next to itself. Returns the compressed file when it is worth keeping,
+     * otherwise empty (and no extra file is left behind); the source is never modified.
+     */
+    public Optional<Path> compress(Path source, UploadPipeline.FileKind kind) throws IOException {
+        if (!enabled || !COMPRESSIBLE.contains(kind) || Files.size(source) > maxBytes) {
+            return Optional.empty();
+        }
+        Path target = source.resolveSibling(source.getFileName() + ".gz");
+        try (InputStream in = Files.newInputStream(source);
+             OutputStream out = new LevelGZIPOutputStream(Files.newOutputStream(target), level)) {
+            in.transferTo(out);
+        }
+        long original = Files.size(source);
+        long compressed = Files.size(target);
+        if (compressed > original * (1 - minSavings)) {
+            Files.deleteIfExists(target);
+            return Optional.empty();
+        }
+        log.debug("Compressed {} from {} to {} bytes", source.getFileName(), original, compressed);
+        return Optional.of(target);
+    }
+
+    /**
+     * Decoded view of a stored body
+     */
+    public static InputStream decode(String codec, InputStream stored) throws IOException {
+        if (codec == null) {
+            return stored;
+        }
+        if (GZIP.equals(codec)) {
+            return new GZIPInputStream(stored, BUFFER_SIZE);
+        }
+        stored.close();
+        throw new IOException("Unknown storage codec: " + codec);
+    }
+
+    /**
+     * Storage key suffix that keeps encoded and verbatim copies of the same content apart
+     */
+    public static String keySuffix(String codec) {
+        return GZIP.equals(codec) ? ".gz" : "";
+    }
+
+    private static class LevelGZIPOutputStream extends GZIPOutputStream {
+        LevelGZIPOutputStream(OutputStream out, int level) throws IOException {
+            super(out, BUFFER_SIZE);
+            def.setLevel(level >= Deflater.NO_COMPRESSION && level <= Deflater.BEST_COMPRESSION ? level : Deflater.DEFAULT_COMPRESSION);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.earacg.earaconnect.service;
+
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Per-user unread notification counters kept off the database read path.
+ * The default implementation is in-process; a shared store (e.g. Redis) can be
+ * plugged in by providing another bean so several backend nodes agree.
+ */
+public interface UnreadCounterStore {
+
+    /**
+     * Current count for a user, loading it once with the given loader on a miss
+     */
+    long getOrLoad(Long userId, Function<Long, Long> loader);
+
+    /**
+     * Adjust a loaded counter. Users that are not loaded yet are left alone.
+     */
+    void add(Long userId, long delta);
+
+    /**
+     * Overwrite a single user's counter
+     */
+    void set(Long userId, long count);
+
+    /**
+     * Mark taken just before the authoritative counts are queried
+     */
+    long reconcileMark();
+
+    /**
+     * Overwrite loaded counters with authoritative counts taken after the mark; loaded users missing
+     * from the map become zero. Counters loaded or changed since the mark are kept as they are.
+     */
+    void reconcile(Map<Long, Long> counts, long mark);
+
+    /**
+     * Drop all counters so they reload on next read
+     */
+    void invalidateAll();
+}
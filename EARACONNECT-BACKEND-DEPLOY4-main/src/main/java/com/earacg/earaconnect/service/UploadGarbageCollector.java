@@ -0,0 +1,273 @@
+package com.earacg.earaconnect.service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Mark-and-sweep collector for files under the upload directory that no database row references.
+ * Mark streams every referenced path into a set of 64-bit fingerprints (a collision can only keep
+ * an orphan, never remove a live file); sweep walks the tree and quarantines or deletes
+ * unreferenced files older than the grace period in paced batches.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UploadGarbageCollector {
+
+    private static final String QUARANTINE_DIR = ".quarantine";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StorageBackend storage;
+    private final ProfilePictureDerivativeService derivativeService;
+
+    @Value("${app.file.upload-dir:uploads}")
+    private String uploadDir;
+
+    @Value("${app.file.gc.enabled:true}")
+    private boolean enabled;
+
+    // Files younger than this are never collected, covering uploads between mark and sweep
+    @Value("${app.file.gc.grace-hours:24}")
+    private long graceHours;
+
+    // "quarantine" moves orphans to .quarantine/{date}/, "delete" removes them
+    @Value("${app.file.gc.mode:quarantine}")
+    private String mode;
+
+    @Value("${app.file.gc.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.file.gc.batch-pause-ms:1000}")
+    private long batchPauseMs;
+
+    @Value("${app.file.gc.quarantine-days:30}")
+    private int quarantineDays;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Scheduled(cron = "${app.file.gc.cron:0 30 3 * * *}")
+    public void scheduledCollect() {
+        if (enabled) {
+            collect(false);
+        }
+    }
+
+    /**
+     * Run one mark-and-sweep pass. With dryRun nothing is moved or deleted.
+     */
+    public GcReport collect(boolean dryRun) {
+        GcReport report = new GcReport(dryRun);
+        Path root = Paths.get(uploadDir).toAbsolutePath().normalize();
+        if (!Files.isDirectory(root)) {
+            return report;
+        }
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Upload garbage collection is already running");
+        }
+        try {
+            Set<Long> referenced = mark(root);
+            report.referenced = referenced.size();
+            sweep(root, referenced, report);
+            if (!dryRun) {
+                purgeQuarantine(root);
+            }
+            log.info("Upload GC finished: {}", report);
+            return report;
+        } catch (IOException e) {
+            throw new RuntimeException("Upload garbage collection failed", e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private Set<Long> mark(Path root) {
+        Set<Long> referenced = new HashSet<>();
+
+        // Legacy bodies are served from uploadDir/stored_filename, whatever file_path was recorded at upload
+        jdbcTemplate.query("SELECT file_path, storage_key, stored_filename FROM documents", rs -> {
+            addKey(referenced, rs.getString("storage_key"));
+            addPath(referenced, rs.getString("file_path"));
+            String storedFilename = rs.getString("stored_filename");
+            if (storedFilename != null) {
+                addPath(referenced, root.resolve(storedFilename).toString());
+            }
+        });
+        jdbcTemplate.query("SELECT file_path FROM stored_blobs", rs -> {
+            addPath(referenced, rs.getString("file_path"));
+        });
+        jdbcTemplate.query("SELECT profile_picture FROM users WHERE profile_picture IS NOT NULL", rs -> {
+            String url = rs.getString("profile_picture");
+            String filename = url.substring(url.lastIndexOf('/') + 1);
+            addKey(referenced, ProfilePictureService.STORAGE_PREFIX + filename);
+            addPath(referenced, root.resolve("profile-pictures").resolve(filename).toString());
+            for (String thumbnailKey : derivativeService.thumbnailKeys(filename)) {
+                addKey(referenced, thumbnailKey);
+            }
+        });
+        jdbcTemplate.query("SELECT invitation_pdf FROM meetings WHERE invitation_pdf IS NOT NULL", rs -> {
+            addKey(referenced, "invitations/" + rs.getString("invitation_pdf"));
+        });
+        return referenced;
+    }
+
+    private void sweep(Path root, Set<Long> referenced, GcReport report) throws IOException {
+        Instant cutoff = Instant.now().minus(graceHours, ChronoUnit.HOURS);
+        Path quarantine = root.resolve(QUARANTINE_DIR);
+        List<Path> batch = new ArrayList<>(batchSize);
+
+        try (Stream<Path> files = Files.walk(root)) {
+            Iterable<Path> iterable = files.filter(path -> !path.startsWith(quarantine))
+                    .filter(Files::isRegularFile)::iterator;
+            for (Path file : iterable) {
+                report.scanned++;
+                if (referenced.contains(fingerprint(file.toAbsolutePath().normalize().toString()))) {
+                    continue;
+                }
+                if (Files.getLastModifiedTime(file).toInstant().isAfter(cutoff)) {
+                    continue;
+                }
+                report.orphans++;
+                report.orphanBytes += Files.size(file);
+                if (report.dryRun) {
+                    continue;
+                }
+                batch.add(file);
+                if (batch.size() >= batchSize) {
+                    retire(root, batch, report);
+                    batch.clear();
+                    pause();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            retire(root, batch, report);
+        }
+    }
+
+    private void retire(Path root, List<Path> batch, GcReport report) {
+        Path target = root.resolve(QUARANTINE_DIR).resolve(LocalDate.now().toString());
+        for (Path file : batch) {
+            try {
+                if ("delete".equalsIgnoreCase(mode)) {
+                    Files.deleteIfExists(file);
+                } else {
+                    Path destination = target.resolve(root.relativize(file));
+                    Files.createDirectories(destination.getParent());
+                    Files.move(file, destination, StandardCopyOption.REPLACE_EXISTING);
+                }
+                report.retired++;
+            } catch (IOException e) {
+                log.warn("Could not retire orphaned upload {}: {}", file, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Permanently delete quarantine folders older than quarantineDays
+     */
+    private void purgeQuarantine(Path root) throws IOException {
+        Path quarantine = root.resolve(QUARANTINE_DIR);
+        if (!Files.isDirectory(quarantine)) {
+            return;
+        }
+        LocalDate oldest = LocalDate.now().minusDays(quarantineDays);
+        try (Stream<Path> days = Files.list(quarantine)) {
+            for (Path day : (Iterable<Path>) days::iterator) {
+                LocalDate date;
+                try {
+                    date = LocalDate.parse(day.getFileName().toString());
+                } catch (Exception e) {
+                    continue;
+                }
+                if (date.isBefore(oldest)) {
+                    deleteTree(day);
+                }
+            }
+        }
+    }
+
+    private void deleteTree(Path dir) throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            List<Path> ordered = paths.sorted((a, b) -> b.getNameCount() - a.getNameCount()).toList();
+            for (Path path : ordered) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(batchPauseMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void addKey(Set<Long> referenced, String storageKey) {
+        if (storageKey != null) {
+            storage.localPath(storageKey).ifPresent(path -> addPath(referenced, path.toString()));
+        }
+    }
+
+    private void addPath(Set<Long> referenced, String path) {
+        if (path != null && !path.isEmpty()) {
+            referenced.add(fingerprint(Paths.get(path).toAbsolutePath().normalize().toString()));
+        }
+    }
+
+    /**
+     * 64-bit FNV-1a of a normalised absolute path
+     */
+    private static long fingerprint(String path) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : path.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Counts from one collection pass
+     */
+    @Getter
+    public static class GcReport {
+        private final boolean dryRun;
+        private long referenced;
+        private long scanned;
+        private long orphans;
+        private long orphanBytes;
+        private long retired;
+
+        GcReport(boolean dryRun) {
+            this.dryRun = dryRun;
+        }
+
+        @Override
+        public String toString() {
+            return "scanned=" + scanned + ", referenced=" + referenced + ", orphans=" + orphans
+                    + " (" + orphanBytes + " bytes), retired=" + retired + (dryRun ? " [dry run]" : "");
+        }
+    }
+}
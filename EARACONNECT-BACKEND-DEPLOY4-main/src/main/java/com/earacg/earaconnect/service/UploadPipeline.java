@@ -0,0 +1,204 @@
+package com.earacg.earaconnect.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.zip.ZipFile;
+
+/**
+ * Single-pass upload writer: streams an upload into its storage directory once while
+ * computing the SHA-256 digest, enforcing the size limit and checking the magic bytes.
+ * The body is written beside the target and renamed into place only when every check passed.
+ */
+@Service
+@Slf4j
+public class UploadPipeline {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int SNIFF_BYTES = 16;
+
+    /**
+     * File formats recognised from their leading bytes
+     */
+    @Getter
+    @AllArgsConstructor
+    public enum FileKind {
+        PDF("application/pdf", ".pdf"),
+        DOC("application/msword", ".doc"),
+        DOCX("application/vnd.openxmlformats-officedocument.wordprocessingml.document", ".docx"),
+        PNG("image/png", ".png"),
+        JPEG("image/jpeg", ".jpg"),
+        GIF("image/gif", ".gif"),
+        WEBP("image/webp", ".webp");
+
+        private final String mimeType;
+        private final String extension;
+
+        public static final Set<FileKind> IMAGES = Set.of(PNG, JPEG, GIF, WEBP);
+        public static final Set<FileKind> DOCUMENTS = Set.of(PDF, DOC, DOCX, PNG, JPEG, GIF, WEBP);
+    }
+
+    /**
+     * Result of a completed upload
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class StoredUpload {
+        private final Path path;
+        private final long size;
+        private final String sha256;
+        private final FileKind kind;
+    }
+
+    /**
+     * Stream an upload to target. Throws IllegalArgumentException when the content is not one of
+     * the allowed kinds or is larger than maxBytes; nothing is left on disk in that case.
+     */
+    public StoredUpload write(InputStream in, Path target, long maxBytes, Set<FileKind> allowed) {
+        Path partial = target.resolveSibling("." + target.getFileName() + ".part");
+        MessageDigest digest = newDigest();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long size = 0;
+        FileKind kind;
+
+        try {
+            Files.createDirectories(target.getParent());
+            try (InputStream source = in;
+                 OutputStream out = Files.newOutputStream(partial, StandardOpenOption.CREATE,
+                         StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+
+                // Read just enough to identify the format before anything is written
+                int head = source.readNBytes(buffer, 0, SNIFF_BYTES);
+                if (head == 0) {
+                    throw new IllegalArgumentException("File is empty");
+                }
+                kind = sniff(Arrays.copyOf(buffer, head));
+                if (kind == null || !allowed.contains(kind)) {
+                    throw new IllegalArgumentException("File type not allowed"
+                            + (kind != null ? ": " + kind.getMimeType() : ""));
+                }
+
+                int read = head;
+                do {
+                    size += read;
+                    if (size > maxBytes) {
+                        throw new IllegalArgumentException("File size exceeds maximum allowed size of "
+                                + (maxBytes / (1024 * 1024)) + "MB");
+                    }
+                    digest.update(buffer, 0, read);
+                    out.write(buffer, 0, read);
+                } while ((read = source.read(buffer)) != -1);
+            }
+            // Any ZIP starts with PK; only a Word package is accepted as DOCX
+            if (kind == FileKind.DOCX && !isWordPackage(partial)) {
+                throw new IllegalArgumentException("File type not allowed: archive is not a Word document");
+            }
+            moveIntoPlace(partial, target);
+        } catch (IOException ex) {
+            deleteQuietly(partial);
+            throw new RuntimeException("Could not store file " + target.getFileName(), ex);
+        } catch (RuntimeException ex) {
+            deleteQuietly(partial);
+            throw ex;
+        }
+
+        return new StoredUpload(target, size, HexFormat.of().formatHex(digest.digest()), kind);
+    }
+
+    /**
+     * Identify a format from its leading bytes, or null if unrecognised
+     */
+    public static FileKind sniff(byte[] head) {
+        if (startsWith(head, "%PDF-".getBytes(StandardCharsets.US_ASCII))) {
+            return FileKind.PDF;
+        }
+        if (startsWith(head, new byte[] {(byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A})) {
+            return FileKind.PNG;
+        }
+        if (startsWith(head, new byte[] {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF})) {
+            return FileKind.JPEG;
+        }
+        if (startsWith(head, "GIF87a".getBytes(StandardCharsets.US_ASCII))
+                || startsWith(head, "GIF89a".getBytes(StandardCharsets.US_ASCII))) {
+            return FileKind.GIF;
+        }
+        if (head.length >= 12 && startsWith(head, "RIFF".getBytes(StandardCharsets.US_ASCII))
+                && new String(head, 8, 4, StandardCharsets.US_ASCII).equals("WEBP")) {
+            return FileKind.WEBP;
+        }
+        // OLE2 compound file (legacy .doc)
+        if (startsWith(head, new byte[] {(byte) 0xD0, (byte) 0xCF, 0x11, (byte) 0xE0, (byte) 0xA1, (byte) 0xB1, 0x1A, (byte) 0xE1})) {
+            return FileKind.DOC;
+        }
+        // ZIP container (.docx); write() confirms it is a Word package once the whole body is on disk
+        if (startsWith(head, new byte[] {'P', 'K', 0x03, 0x04})) {
+            return FileKind.DOCX;
+        }
+        return null;
+    }
+
+    /**
+     * True when a ZIP file is an OOXML word-processing package: it has [Content_Types].xml and a word/ part
+     */
+    static boolean isWordPackage(Path zip) {
+        try (ZipFile file = new ZipFile(zip.toFile())) {
+            return file.getEntry("[Content_Types].xml") != null
+                    && file.stream().anyMatch(entry -> entry.getName().startsWith("word/"));
+        } catch (IOException ex) {
+            // Truncated or corrupt archive
+            return false;
+        }
+    }
+
+    private static boolean startsWith(byte[] data, byte[] prefix) {
+        if (data.length < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (data[i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void moveIntoPlace(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ex) {
+            log.warn("Could not delete partial upload: " + path, ex);
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+}
@@ -1,14 +1,20 @@
 package com.earacg.earaconnect.service;
 
+import com.earacg.earaconnect.dto.UserDirectoryEntry;
 import com.earacg.earaconnect.model.User;
 import com.earacg.earaconnect.model.Country;
 import com.earacg.earaconnect.model.SubCommittee;
 import com.earacg.earaconnect.repository.UserRepo;
+import com.earacg.earaconnect.security.PasswordHashingService;
+import com.earacg.earaconnect.security.PrincipalCache;
 import com.earacg.earaconnect.service.CountryService;
 import com.earacg.earaconnect.service.SubCommitteeService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -27,6 +33,15 @@ public class UserService {
     @Autowired
     private SubCommitteeService subCommitteeService;
     
+    @Autowired
+    private PrincipalCache principalCache;
+    
+    @Autowired
+    private ActivityTracker activityTracker;
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+    
     public List<User> getAllUsers() {
         return userRepo.findAll();
     }
@@ -39,6 +54,17 @@ public class UserService {
         return userRepo.findByEmail(email);
     }
     
+    /**
+     * Paginated directory of slim user rows; blank or null filters are ignored
+     */
+    public Page<UserDirectoryEntry> getDirectory(String search, User.UserRole role, Long countryId,
+                                                 Long subcommitteeId, Pageable pageable) {
+        String pattern = search == null || search.isBlank()
+                ? null
+                : "%" + search.trim().toLowerCase(Locale.ROOT).replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        return userRepo.findDirectory(pattern, role, countryId, subcommitteeId, pageable);
+    }
+    
     public List<User> getUsersByRole(User.UserRole role) {
         return userRepo.findByRole(role);
     }
@@ -68,9 +94,10 @@ public class UserService {
             
             // Generate new password and send credentials
             String randomPassword = generateRandomPassword();
-            existing.setPassword(randomPassword);
+            existing.setPassword(passwordHashingService.encode(randomPassword));
             
             User savedUser = userRepo.save(existing);
+            principalCache.evict(savedUser.getEmail());
             
             // Send credentials via email
             emailService.sendCredentials(user.getEmail(), user.getName(), randomPassword);
@@ -80,7 +107,7 @@ public class UserService {
         
         // Generate random password for new users
         String randomPassword = generateRandomPassword();
-        user.setPassword(randomPassword);
+        user.setPassword(passwordHashingService.encode(randomPassword));
         
         User savedUser = userRepo.save(user);
         
@@ -97,6 +124,7 @@ public class UserService {
         Optional<User> userOpt = userRepo.findById(id);
         if (userOpt.isPresent()) {
             User user = userOpt.get();
+            String previousEmail = user.getEmail();
             user.setName(userDetails.getName());
             user.setPhone(userDetails.getPhone());
             user.setEmail(userDetails.getEmail());
@@ -119,16 +147,21 @@ public class UserService {
             }
             
             if (userDetails.getPassword() != null && !userDetails.getPassword().isEmpty()) {
-                user.setPassword(userDetails.getPassword());
+                user.setPassword(passwordHashingService.encode(userDetails.getPassword()));
             }
-            return userRepo.save(user);
+            User savedUser = userRepo.save(user);
+            principalCache.evict(previousEmail);
+            principalCache.evict(savedUser.getEmail());
+            return savedUser;
         }
         return null;
     }
     
     public boolean deleteUser(Long id) {
-        if (userRepo.existsById(id)) {
-            userRepo.deleteById(id);
+        Optional<User> userOpt = userRepo.findById(id);
+        if (userOpt.isPresent()) {
+            userRepo.delete(userOpt.get());
+            principalCache.evict(userOpt.get().getEmail());
             return true;
         }
         return false;
@@ -138,10 +171,15 @@ public class UserService {
         Optional<User> userOpt = userRepo.findByEmail(email);
         if (userOpt.isPresent()) {
             User user = userOpt.get();
-            boolean passwordMatch = user.getPassword().equals(password);
+            boolean passwordMatch = passwordHashingService.matches(password, user.getPassword());
             boolean isActive = user.isActive();
             
             if (passwordMatch && isActive) {
+                // Migrate plaintext or lower-cost hashes while the raw password is at hand
+                if (passwordHashingService.upgradeEncoding(user.getPassword())) {
+                    user.setPassword(passwordHashingService.encode(password));
+                    principalCache.evict(user.getEmail());
+                }
                 // Update last login and first login flag
                 user.setLastLogin(java.time.LocalDateTime.now());
                 if (user.getFirstLogin() == null || user.getFirstLogin()) {
@@ -157,15 +195,10 @@ public class UserService {
     /**
      * Apply login side effects after a successful authentication
      * without performing password verification here.
+     * Buffered by ActivityTracker and written with the next batched flush.
      */
-    public void recordSuccessfulLogin(String email) {
-        userRepo.findByEmail(email).ifPresent(user -> {
-            user.setLastLogin(java.time.LocalDateTime.now());
-            if (user.getFirstLogin() == null || user.getFirstLogin()) {
-                user.setFirstLogin(false);
-            }
-            userRepo.save(user);
-        });
+    public void recordSuccessfulLogin(User user) {
+        activityTracker.recordLogin(user.getId());
     }
     
     public User getAdminUser() {
@@ -190,10 +223,11 @@ public class UserService {
             
             // Generate new password
             String newPassword = generateRandomPassword();
-            user.setPassword(newPassword);
+            user.setPassword(passwordHashingService.encode(newPassword));
             
             // Save user with new password
             User savedUser = userRepo.save(user);
+            principalCache.evict(savedUser.getEmail());
             
             // Send credentials via email
             emailService.sendCredentials(user.getEmail(), user.getName(), newPassword);
@@ -268,9 +302,9 @@ public class UserService {
             User user = userOpt.get();
             
             // Verify current password
-            if (user.getPassword().equals(currentPassword)) {
+            if (passwordHashingService.matches(currentPassword, user.getPassword())) {
                 // Set new password
-                user.setPassword(newPassword);
+                user.setPassword(passwordHashingService.encode(newPassword));
                 
                 // Update password changed timestamp if the field exists
                 try {
@@ -283,6 +317,7 @@ public class UserService {
                 }
                 
                 userRepo.save(user);
+                principalCache.evict(user.getEmail());
                 return true;
             }
         }
@@ -0,0 +1,127 @@
+package com.earacg.earaconnect.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Login throughput of PasswordHashingService at several bcrypt costs.
+ * Concurrent "request threads" verify passwords through the bounded hashing pool and the
+ * harness reports logins per second and latency percentiles per cost, plus how many were
+ * turned away when the pool was saturated.
+ *
+ * Tune with -Dpassword.bench.costs=8,10,12 -Dpassword.bench.logins=200 -Dpassword.bench.concurrency=32
+ */
+class PasswordHashingBenchmarkTest {
+
+    private static final String COSTS = System.getProperty("password.bench.costs", "4,6,8,10");
+    private static final int LOGINS = Integer.getInteger("password.bench.logins", 40);
+    private static final int CONCURRENCY = Integer.getInteger("password.bench.concurrency", 8);
+
+    @Test
+    void loginThroughputByCost() throws Exception {
+        for (String costValue : COSTS.split(",")) {
+            int cost = Integer.parseInt(costValue.trim());
+            PasswordHashingService service = newService(cost, 256);
+            try {
+                benchmark(service, cost);
+            } finally {
+                service.stop();
+            }
+        }
+    }
+
+    @Test
+    void legacyPlaintextVerifiesAndAsksForRehash() {
+        PasswordHashingService service = newService(4, 16);
+        try {
+            assertTrue(service.matches("secret123", "secret123"));
+            assertFalse(service.matches("wrong", "secret123"));
+            assertTrue(service.upgradeEncoding("secret123"));
+
+            String hash = service.encode("secret123");
+            assertTrue(PasswordHashingService.isHashed(hash));
+            assertTrue(service.matches("secret123", hash));
+            assertFalse(service.upgradeEncoding(hash));
+
+            PasswordHashingService stronger = newService(5, 16);
+            try {
+                assertTrue(stronger.upgradeEncoding(hash), "hashes below the current cost should be upgraded");
+            } finally {
+                stronger.stop();
+            }
+        } finally {
+            service.stop();
+        }
+    }
+
+    private void benchmark(PasswordHashingService service, int cost) throws Exception {
+        String hash = service.encode("correct horse battery staple");
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>(LOGINS));
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger mismatches = new AtomicInteger();
+        ExecutorService requestThreads = Executors.newFixedThreadPool(CONCURRENCY);
+
+        long start = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>(LOGINS);
+        for (int i = 0; i < LOGINS; i++) {
+            futures.add(requestThreads.submit(() -> {
+                long loginStart = System.nanoTime();
+                try {
+                    if (!service.matches("correct horse battery staple", hash)) {
+                        mismatches.incrementAndGet();
+                    }
+                    latencies.add(System.nanoTime() - loginStart);
+                } catch (PasswordHashingService.HashingCapacityException e) {
+                    rejected.incrementAndGet();
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        requestThreads.shutdown();
+
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        double seconds = elapsed / 1_000_000_000.0;
+        System.out.printf("🔐 bcrypt cost %2d: %d logins, concurrency %d, %.1f logins/s, p50 %.1f ms, p99 %.1f ms, rejected %d%n",
+                cost, LOGINS, CONCURRENCY, sorted.size() / seconds,
+                percentileMillis(sorted, 0.50), percentileMillis(sorted, 0.99), rejected.get());
+
+        assertEquals(0, mismatches.get(), "every login uses the right password");
+        assertEquals(LOGINS, sorted.size() + rejected.get());
+    }
+
+    private static PasswordHashingService newService(int cost, int queue) {
+        PasswordHashingService service = new PasswordHashingService();
+        ReflectionTestUtils.setField(service, "configuredCost", cost);
+        ReflectionTestUtils.setField(service, "targetMs", 250L);
+        ReflectionTestUtils.setField(service, "workers", 0);
+        ReflectionTestUtils.setField(service, "queueCapacity", queue);
+        ReflectionTestUtils.setField(service, "waitTimeoutMs", 30_000L);
+        ReflectionTestUtils.setField(service, "acceptLegacyPlaintext", true);
+        service.start();
+        return service;
+    }
+
+    private static double percentileMillis(List<Long> sortedNanos, double percentile) {
+        if (sortedNanos.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sortedNanos.size()) - 1;
+        return sortedNanos.get(Math.max(index, 0)) / 1_000_000.0;
+    }
+}
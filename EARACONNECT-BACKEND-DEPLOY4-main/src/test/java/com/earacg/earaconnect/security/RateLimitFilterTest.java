@@ -0,0 +1,130 @@
+package com.earacg.earaconnect.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Per-account login throttling through RateLimitFilter, including bodies sent without a Content-Length,
+ * and replay of the cached body to blocking and non-blocking readers.
+ */
+class RateLimitFilterTest {
+
+    private static final String LOGIN = "{\"email\":\"Chair@EARA.test\",\"password\":\"x\"}";
+
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        RateLimiter limiter = new RateLimiter();
+        ReflectionTestUtils.setField(limiter, "maxBuckets", 100_000);
+        filter = new RateLimitFilter(limiter, new ObjectMapper());
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "loginPerIp", "");
+        ReflectionTestUtils.setField(filter, "loginPerAccount", "2/1h");
+        ReflectionTestUtils.setField(filter, "testEmailPerIp", "");
+        ReflectionTestUtils.setField(filter, "testEmailPerAccount", "");
+        ReflectionTestUtils.setField(filter, "resendPerIp", "");
+        ReflectionTestUtils.setField(filter, "resendPerAccount", "");
+        filter.registerPolicies();
+    }
+
+    @Test
+    void chunkedLoginBodiesCountAgainstTheAccount() throws Exception {
+        assertEquals(200, login(chunked(LOGIN)).getStatus());
+        assertEquals(200, login(chunked(LOGIN)).getStatus());
+
+        MockHttpServletResponse third = login(chunked(LOGIN.replace("Chair@EARA.test", "chair@eara.test")));
+
+        assertEquals(429, third.getStatus());
+        assertNotNull(third.getHeader("Retry-After"));
+    }
+
+    @Test
+    void controllerStillReadsTheBody() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(chunked(LOGIN), new MockHttpServletResponse(), chain);
+
+        ServletRequest forwarded = chain.getRequest();
+        assertEquals(LOGIN, new String(forwarded.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void oversizedChunkedBodyIsReplayedWhole() throws Exception {
+        String padded = "{\"email\":\"a@eara.test\",\"pad\":\"" + "x".repeat(20_000) + "\"}";
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(chunked(padded), new MockHttpServletResponse(), chain);
+
+        assertEquals(padded, new String(chain.getRequest().getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void cachedBodySupportsReadListener() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(chunked(LOGIN), new MockHttpServletResponse(), chain);
+
+        ServletInputStream in = chain.getRequest().getInputStream();
+        List<String> events = new ArrayList<>();
+        StringBuilder body = new StringBuilder();
+        in.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                events.add("data");
+                while (in.isReady() && !in.isFinished()) {
+                    body.append((char) in.read());
+                }
+            }
+
+            @Override
+            public void onAllDataRead() {
+                events.add("done");
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                events.add("error");
+            }
+        });
+
+        assertEquals(List.of("data", "done"), events);
+        assertEquals(LOGIN, body.toString());
+        assertTrue(in.isFinished());
+    }
+
+    private MockHttpServletResponse login(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    /**
+     * A login POST whose body arrives without a Content-Length (Transfer-Encoding: chunked)
+     */
+    private static MockHttpServletRequest chunked(String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login") {
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+        };
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
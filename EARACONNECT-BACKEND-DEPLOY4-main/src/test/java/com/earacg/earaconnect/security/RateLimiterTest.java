@@ -0,0 +1,88 @@
+package com.earacg.earaconnect.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * GCRA admission, sweeping of refilled buckets and the full-stripe overflow path of RateLimiter.
+ */
+class RateLimiterTest {
+
+    @Test
+    void admitsCapacityThenReportsWaitForNextToken() {
+        RateLimiter limiter = newLimiter(100_000);
+        RateLimiter.Limit limit = new RateLimiter.Limit(3, Duration.ofMinutes(1));
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("login:ip:10.0.0.1", limit));
+        }
+        long wait = limiter.tryAcquire("login:ip:10.0.0.1", limit);
+
+        // One token is refilled every 20s
+        assertTrue(wait > TimeUnit.SECONDS.toNanos(19) && wait <= TimeUnit.SECONDS.toNanos(20), "wait was " + wait);
+        assertEquals(0, limiter.tryAcquire("login:ip:10.0.0.2", limit), "other keys have their own bucket");
+    }
+
+    @Test
+    void sweepDropsRefilledBucketsOnly() throws InterruptedException {
+        RateLimiter limiter = newLimiter(100_000);
+        limiter.tryAcquire("short", new RateLimiter.Limit(1000, Duration.ofMillis(1)));
+        limiter.tryAcquire("long", new RateLimiter.Limit(1, Duration.ofHours(1)));
+        assertEquals(2, limiter.size());
+
+        Thread.sleep(5);
+        limiter.sweep();
+
+        assertEquals(1, limiter.size());
+        assertTrue(limiter.tryAcquire("long", new RateLimiter.Limit(1, Duration.ofHours(1))) > 0,
+                "a draining bucket survives the sweep");
+    }
+
+    @Test
+    void fullStripesShareAnOverflowBucketInsteadOfAdmittingEveryNewKey() {
+        // One tracked bucket per stripe
+        RateLimiter limiter = newLimiter(16);
+        RateLimiter.Limit limit = new RateLimiter.Limit(1, Duration.ofHours(1));
+
+        int admitted = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (limiter.tryAcquire("login:account:user" + i + "@eara.test", limit) == 0) {
+                admitted++;
+            }
+        }
+
+        assertTrue(limiter.size() <= 16, "tracked buckets stay capped, was " + limiter.size());
+        // At most one tracked key and one overflow token per stripe
+        assertTrue(admitted <= 32, "admitted " + admitted + " of 1000 distinct keys");
+    }
+
+    @Test
+    void stripesTrackNewKeysAgainOnceTheSweepFreesRoom() throws InterruptedException {
+        RateLimiter limiter = newLimiter(16);
+        RateLimiter.Limit shortLimit = new RateLimiter.Limit(1000, Duration.ofMillis(1));
+        for (int i = 0; i < 200; i++) {
+            limiter.tryAcquire("flood" + i, shortLimit);
+        }
+
+        Thread.sleep(5);
+        limiter.sweep();
+        assertEquals(0, limiter.size());
+
+        RateLimiter.Limit hourly = new RateLimiter.Limit(1, Duration.ofHours(1));
+        assertEquals(0, limiter.tryAcquire("login:account:after@eara.test", hourly));
+        assertEquals(1, limiter.size(), "the key gets its own bucket again");
+        assertTrue(limiter.tryAcquire("login:account:after@eara.test", hourly) > 0);
+    }
+
+    private static RateLimiter newLimiter(int maxBuckets) {
+        RateLimiter limiter = new RateLimiter();
+        ReflectionTestUtils.setField(limiter, "maxBuckets", maxBuckets);
+        return limiter;
+    }
+}
@@ -0,0 +1,110 @@
+package com.earacg.earaconnect.security;
+
+import com.earacg.earaconnect.model.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Signing and verification rules of TokenService: what a node must accept and what it must reject.
+ */
+class TokenServiceTest {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef";
+
+    private final TokenService tokens = newService(SECRET, Duration.ofMinutes(15));
+
+    @Test
+    void acceptsItsOwnAccessTokenAndAnotherNodeWithTheSameSecretDoesToo() {
+        String token = tokens.issueAccessToken(user());
+
+        Optional<TokenClaims> claims = newService(SECRET, Duration.ofMinutes(15)).verify(token, TokenService.ACCESS);
+
+        assertTrue(claims.isPresent());
+        assertEquals(42L, claims.get().getUserId());
+        assertEquals("chair@eara.test", claims.get().getEmail());
+    }
+
+    @Test
+    void rejectsTamperedPayloadAndSignature() {
+        String token = tokens.issueAccessToken(user());
+        String[] parts = token.split("\\.");
+
+        String escalated = encode(decode(parts[1]).replace("\"CHAIR\"", "\"ADMIN\""));
+        assertTrue(tokens.verify(parts[0] + "." + escalated + "." + parts[2], TokenService.ACCESS).isEmpty());
+
+        char last = parts[2].charAt(parts[2].length() - 1);
+        String flipped = parts[2].substring(0, parts[2].length() - 1) + (last == 'A' ? 'B' : 'A');
+        assertTrue(tokens.verify(parts[0] + "." + parts[1] + "." + flipped, TokenService.ACCESS).isEmpty());
+
+        assertTrue(newService("fedcba9876543210fedcba9876543210", Duration.ofMinutes(15))
+                .verify(token, TokenService.ACCESS).isEmpty());
+    }
+
+    @Test
+    void rejectsWrongTokenType() {
+        String refresh = tokens.issueRefreshToken(user());
+
+        assertTrue(tokens.verify(refresh, TokenService.ACCESS).isEmpty());
+        assertTrue(tokens.verify(refresh, TokenService.REFRESH).isPresent());
+    }
+
+    @Test
+    void rejectsExpiredToken() {
+        TokenService expiring = newService(SECRET, Duration.ofSeconds(-1));
+
+        assertTrue(expiring.verify(expiring.issueAccessToken(user()), TokenService.ACCESS).isEmpty());
+    }
+
+    @Test
+    void rejectsSwappedHeader() {
+        String[] parts = tokens.issueAccessToken(user()).split("\\.");
+
+        String none = encode("{\"alg\":\"none\",\"typ\":\"JWT\"}");
+        assertTrue(tokens.verify(none + "." + parts[1] + "." + parts[2], TokenService.ACCESS).isEmpty());
+        assertTrue(tokens.verify(none + "." + parts[1] + ".", TokenService.ACCESS).isEmpty());
+
+        String otherHeader = tokens.issueRefreshToken(user()).split("\\.")[0];
+        String reordered = encode("{\"typ\":\"JWT\",\"alg\":\"HS256\"}");
+        assertEquals(parts[0], otherHeader);
+        assertTrue(tokens.verify(reordered + "." + parts[1] + "." + parts[2], TokenService.ACCESS).isEmpty());
+    }
+
+    @Test
+    void tokenModeRequiresASharedSecret() {
+        assertThrows(IllegalStateException.class, () -> new TokenService(new ObjectMapper(), "", "token",
+                Duration.ofMinutes(15), Duration.ofDays(7)));
+        assertThrows(IllegalStateException.class, () -> new TokenService(new ObjectMapper(), "too-short", "session",
+                Duration.ofMinutes(15), Duration.ofDays(7)));
+        // Session mode still starts without one
+        new TokenService(new ObjectMapper(), "", "session", Duration.ofMinutes(15), Duration.ofDays(7));
+    }
+
+    private static TokenService newService(String secret, Duration accessTtl) {
+        return new TokenService(new ObjectMapper(), secret, "token", accessTtl, Duration.ofDays(7));
+    }
+
+    private static User user() {
+        User user = new User();
+        user.setId(42L);
+        user.setEmail("chair@eara.test");
+        user.setRole(User.UserRole.CHAIR);
+        return user;
+    }
+
+    private static String encode(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decode(String part) {
+        return new String(Base64.getUrlDecoder().decode(part), StandardCharsets.UTF_8);
+    }
+}
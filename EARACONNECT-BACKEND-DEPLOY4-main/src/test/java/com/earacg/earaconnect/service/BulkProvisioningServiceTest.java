@@ -0,0 +1,169 @@
+package com.earacg.earaconnect.service;
+
+import com.earacg.earaconnect.dto.BulkMemberRow;
+import com.earacg.earaconnect.model.Country;
+import com.earacg.earaconnect.repository.CountryRepo;
+import com.earacg.earaconnect.repository.SubCommitteeRepo;
+import com.earacg.earaconnect.security.CapabilityCache;
+import com.earacg.earaconnect.security.PasswordHashingService;
+import com.earacg.earaconnect.security.PrincipalCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * CSV parsing, all-or-nothing validation and the placeholder handover of BulkProvisioningService.
+ */
+class BulkProvisioningServiceTest {
+
+    private static final String HEADER = "name,email,countryId,committeeMember\r\n";
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final CountryRepo countryRepo = mock(CountryRepo.class);
+    private final PasswordHashingService passwordHashingService = mock(PasswordHashingService.class);
+    private final EmailService emailService = mock(EmailService.class);
+    private final PrincipalCache principalCache = mock(PrincipalCache.class);
+
+    private final BulkProvisioningService service = new BulkProvisioningService(jdbcTemplate, countryRepo,
+            mock(SubCommitteeRepo.class), passwordHashingService, emailService, principalCache,
+            mock(CapabilityCache.class), mock(MemberCountService.class));
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "maxRows", 1000);
+        ReflectionTestUtils.setField(service, "batchSize", 200);
+        ReflectionTestUtils.setField(service, "queueCapacity", 20);
+        ReflectionTestUtils.setField(service, "jobRetention", Duration.ofHours(24));
+        service.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.stop();
+    }
+
+    @Test
+    void quotedFieldsKeepCommasQuotesAndLineBreaks() throws IOException {
+        String csv = "name,email,positionInRA,countryId,committeeMember\n"
+                + "\"Okello, Jane\",jane@eara.test,\"Head of \"\"Domestic\"\" Taxes\nLarge Taxpayers\",1,yes\n";
+
+        List<BulkMemberRow> rows = service.parseCsv(new StringReader(csv));
+
+        assertEquals(1, rows.size());
+        assertEquals("Okello, Jane", rows.get(0).getName());
+        assertEquals("Head of \"Domestic\" Taxes\nLarge Taxpayers", rows.get(0).getPositionInRA());
+        assertEquals(1L, rows.get(0).getCountryId());
+        assertTrue(rows.get(0).isCommitteeMember());
+    }
+
+    @Test
+    void crlfLineEndingsAndBlankLinesAreIgnored() throws IOException {
+        String csv = " Name , EMAIL ,CountryId,committeeMember\r\n"
+                + "Jane,jane@eara.test,1,y\r\n"
+                + "\r\n"
+                + "Peter,peter@eara.test,2,0\r\n";
+
+        List<BulkMemberRow> rows = service.parseCsv(new StringReader(csv));
+
+        assertEquals(2, rows.size());
+        assertEquals("jane@eara.test", rows.get(0).getEmail());
+        assertEquals("Peter", rows.get(1).getName());
+        assertEquals(2L, rows.get(1).getCountryId());
+        assertFalse(rows.get(1).isCommitteeMember());
+    }
+
+    @Test
+    void unknownColumnFailsTheWholeFile() {
+        String csv = "name,email,salary\r\nJane,jane@eara.test,100\r\nPeter,peter@eara.test,200\r\n";
+
+        BulkProvisioningService.BulkValidationException e = assertThrows(
+                BulkProvisioningService.BulkValidationException.class, () -> service.parseCsv(new StringReader(csv)));
+
+        assertEquals(2, e.getErrors().size());
+        assertEquals(1, e.getErrors().get(0).get("row"));
+        assertEquals("salary", e.getErrors().get(0).get("field"));
+    }
+
+    @Test
+    void duplicateEmailsDifferingOnlyInCaseAreRejectedBeforeAnyWrite() throws IOException {
+        Country country = new Country();
+        country.setId(1L);
+        when(countryRepo.findAllById(any())).thenReturn(List.of(country));
+        List<BulkMemberRow> rows = service.parseCsv(new StringReader(HEADER
+                + "Jane,jane@eara.test,1,x\r\n"
+                + "Peter,peter@eara.test,1,x\r\n"
+                + "Jane Again, Jane@EARA.test ,1,x\r\n"));
+
+        BulkProvisioningService.BulkValidationException e = assertThrows(
+                BulkProvisioningService.BulkValidationException.class, () -> service.provision(rows));
+
+        assertEquals(List.of(Map.of("row", 3, "field", "email", "message", "Duplicate of row 1")), e.getErrors());
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), any(List.class), any(Integer.class), any());
+    }
+
+    @Test
+    void resumeSkipsAccountsWhosePlaceholderWasAlreadyReplaced() throws Exception {
+        List<String[]> pending = List.of(
+                new String[] { "taken@eara.test", "Taken", "{pending}a" },
+                new String[] { "free@eara.test", "Free", "{pending}b" });
+        doAnswer(invocation -> {
+            RowMapper<?> mapper = invocation.getArgument(1);
+            List<Object> mapped = new ArrayList<>();
+            for (String[] user : pending) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getString("email")).thenReturn(user[0]);
+                when(rs.getString("name")).thenReturn(user[1]);
+                when(rs.getString("password")).thenReturn(user[2]);
+                mapped.add(mapper.mapRow(rs, mapped.size()));
+            }
+            return mapped;
+        }).when(jdbcTemplate).query(anyString(), any(RowMapper.class), eq("{pending}%"));
+        when(passwordHashingService.encodeOnCurrentThread(any())).thenReturn("$2a$hash");
+        // Another node (or a credential resend) already replaced the first placeholder
+        when(jdbcTemplate.update(anyString(), eq("$2a$hash"), eq("taken@eara.test"), eq("{pending}a"))).thenReturn(0);
+        when(jdbcTemplate.update(anyString(), eq("$2a$hash"), eq("free@eara.test"), eq("{pending}b"))).thenReturn(1);
+
+        BulkProvisioningService.ProvisioningJob job = service.resumePending();
+        awaitFinished(job);
+
+        assertEquals(BulkProvisioningService.JobStatus.COMPLETED, job.getStatus());
+        assertEquals(2, job.getTotal());
+        assertEquals(1, job.getSkipped());
+        assertEquals(1, job.getSent());
+        assertEquals(0, job.getFailed());
+        verify(emailService, never()).sendCredentials(eq("taken@eara.test"), any(), any());
+        verify(emailService).sendCredentials(eq("free@eara.test"), eq("Free"), any());
+        verify(principalCache, never()).evict("taken@eara.test");
+    }
+
+    private static void awaitFinished(BulkProvisioningService.ProvisioningJob job) throws InterruptedException {
+        for (int i = 0; i < 500 && job.getFinishedAt() == null; i++) {
+            Thread.sleep(10);
+        }
+        assertTrue(job.getFinishedAt() != null, "job did not finish");
+    }
+}
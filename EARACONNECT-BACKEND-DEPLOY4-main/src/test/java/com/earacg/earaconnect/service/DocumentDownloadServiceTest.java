@@ -0,0 +1,212 @@
+package com.earacg.earaconnect.service;
+
+import com.earacg.earaconnect.model.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Conditional and ranged responses of DocumentDownloadService for a 20-byte document on local disk,
+ * stored verbatim or gzip-encoded.
+ */
+class DocumentDownloadServiceTest {
+
+    private static final byte[] BODY = "0123456789abcdefghij".getBytes(StandardCharsets.US_ASCII);
+    private static final String DIGEST = "5f3c";
+    private static final String ETAG = "\"" + DIGEST + "\"";
+
+    @TempDir
+    Path dir;
+
+    private final DocumentService documentService = mock(DocumentService.class);
+    private final DocumentDownloadService downloads = new DocumentDownloadService(documentService);
+
+    private Document plain;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Path file = Files.write(dir.resolve("plain.pdf"), BODY);
+        plain = document(null);
+        when(documentService.localFile(plain)).thenReturn(Optional.of(file));
+        when(documentService.storedSize(plain)).thenReturn((long) BODY.length);
+    }
+
+    @Test
+    void servesWholeBodyWithValidators() throws IOException {
+        MockHttpServletResponse response = serve(plain, request());
+
+        assertEquals(200, response.getStatus());
+        assertEquals(ETAG, response.getHeader(HttpHeaders.ETAG));
+        assertEquals("bytes", response.getHeader(HttpHeaders.ACCEPT_RANGES));
+        assertArrayEquals(BODY, response.getContentAsByteArray());
+    }
+
+    @Test
+    void answersMatchingIfNoneMatchWith304() throws IOException {
+        MockHttpServletRequest request = request();
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"other\", W/" + ETAG);
+
+        MockHttpServletResponse response = serve(plain, request);
+
+        assertEquals(304, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void servesOpenEndedRange() throws IOException {
+        MockHttpServletResponse response = serve(plain, ranged("bytes=5-"));
+
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 5-19/20", response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals(15, response.getContentLengthLong());
+        assertEquals("56789abcdefghij", response.getContentAsString());
+    }
+
+    @Test
+    void servesSuffixRangeAndClampsOversizedSuffix() throws IOException {
+        MockHttpServletResponse tail = serve(plain, ranged("bytes=-4"));
+        assertEquals(206, tail.getStatus());
+        assertEquals("bytes 16-19/20", tail.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals("ghij", tail.getContentAsString());
+
+        MockHttpServletResponse all = serve(plain, ranged("bytes=-100"));
+        assertEquals(206, all.getStatus());
+        assertEquals("bytes 0-19/20", all.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertArrayEquals(BODY, all.getContentAsByteArray());
+    }
+
+    @Test
+    void rejectsUnsatisfiableRanges() throws IOException {
+        for (String range : new String[] { "bytes=20-", "bytes=7-3", "bytes=-0" }) {
+            MockHttpServletResponse response = serve(plain, ranged(range));
+
+            assertEquals(416, response.getStatus(), range);
+            assertEquals("bytes */20", response.getHeader(HttpHeaders.CONTENT_RANGE), range);
+        }
+    }
+
+    @Test
+    void fallsBackToWholeBodyForMultipleRanges() throws IOException {
+        MockHttpServletResponse response = serve(plain, ranged("bytes=0-1,4-5"));
+
+        assertEquals(200, response.getStatus());
+        assertNull(response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertArrayEquals(BODY, response.getContentAsByteArray());
+    }
+
+    @Test
+    void ignoresRangeWhenIfRangeIsStale() throws IOException {
+        MockHttpServletRequest stale = ranged("bytes=0-3");
+        stale.addHeader(HttpHeaders.IF_RANGE, "\"previous-version\"");
+        MockHttpServletResponse whole = serve(plain, stale);
+        assertEquals(200, whole.getStatus());
+        assertArrayEquals(BODY, whole.getContentAsByteArray());
+
+        MockHttpServletRequest current = ranged("bytes=0-3");
+        current.addHeader(HttpHeaders.IF_RANGE, ETAG);
+        MockHttpServletResponse partial = serve(plain, current);
+        assertEquals(206, partial.getStatus());
+        assertEquals("0123", partial.getContentAsString());
+    }
+
+    @Test
+    void rangeOnGzipBodyDecodesFromStartInsteadOfSeeking() throws IOException {
+        Document gzipped = gzipped();
+        MockHttpServletRequest request = ranged("bytes=10-14");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+
+        MockHttpServletResponse response = serve(gzipped, request);
+
+        assertEquals(206, response.getStatus());
+        // Ranges address the decoded bytes, so the body is never sent encoded here
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("bytes 10-14/20", response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals("abcde", response.getContentAsString());
+        assertNull(request.getAttribute("org.apache.tomcat.sendfile.filename"), "stored gzip offsets must not be sent");
+        verify(documentService, never()).openRange(any(), anyLong(), anyLong());
+    }
+
+    @Test
+    void gzipBodyGoesOutEncodedOnlyWhenAccepted() throws IOException {
+        Document gzipped = gzipped();
+        byte[] stored = Files.readAllBytes(documentService.localFile(gzipped).orElseThrow());
+
+        MockHttpServletRequest accepting = request();
+        accepting.addHeader(HttpHeaders.ACCEPT_ENCODING, "br;q=1, gzip;q=0.5");
+        MockHttpServletResponse encoded = serve(gzipped, accepting);
+        assertEquals("gzip", encoded.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("\"" + DIGEST + "-gzip\"", encoded.getHeader(HttpHeaders.ETAG));
+        assertArrayEquals(stored, encoded.getContentAsByteArray());
+
+        MockHttpServletRequest refusing = request();
+        refusing.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0");
+        MockHttpServletResponse decoded = serve(gzipped, refusing);
+        assertNull(decoded.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(ETAG, decoded.getHeader(HttpHeaders.ETAG));
+        assertArrayEquals(BODY, decoded.getContentAsByteArray());
+    }
+
+    private Document gzipped() throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(BODY);
+        }
+        Path file = Files.write(dir.resolve("encoded.pdf.gz"), compressed.toByteArray());
+        Document document = document(StorageCodec.GZIP);
+        when(documentService.localFile(document)).thenReturn(Optional.of(file));
+        when(documentService.storedSize(document)).thenReturn((long) compressed.size());
+        when(documentService.openDecoded(document)).thenAnswer(invocation -> new ByteArrayInputStream(BODY));
+        return document;
+    }
+
+    private MockHttpServletResponse serve(Document document, MockHttpServletRequest request) throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        downloads.serve(document, false, request, response);
+        return response;
+    }
+
+    private static Document document(String codec) {
+        return Document.builder()
+                .id(7L)
+                .originalFilename("letter.pdf")
+                .storedFilename(codec == null ? "plain.pdf" : "encoded.pdf")
+                .contentType("application/pdf")
+                .fileSize((long) BODY.length)
+                .contentHash(DIGEST)
+                .storageCodec(codec)
+                .build();
+    }
+
+    private static MockHttpServletRequest request() {
+        return new MockHttpServletRequest("GET", "/api/documents/7");
+    }
+
+    private static MockHttpServletRequest ranged(String range) {
+        MockHttpServletRequest request = request();
+        request.addHeader(HttpHeaders.RANGE, range);
+        return request;
+    }
+}
@@ -0,0 +1,127 @@
+package com.earacg.earaconnect.service;
+
+import com.earacg.earaconnect.config.InstrumentedJavaMailSender;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Load harness for EmailService against a local embedded SMTP server.
+ * Drives bulk meeting invitations and report notifications concurrently and
+ * reports throughput and latency percentiles.
+ *
+ * Tune with -Demail.loadtest.messages=2000 -Demail.loadtest.concurrency=32
+ */
+class EmailLoadHarnessTest {
+
+    private static final int MESSAGES = Integer.getInteger("email.loadtest.messages", 200);
+    private static final int CONCURRENCY = Integer.getInteger("email.loadtest.concurrency", 8);
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP.dynamicPort());
+
+    private SimpleMeterRegistry meterRegistry;
+    private EmailService emailService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+
+        InstrumentedJavaMailSender mailSender = new InstrumentedJavaMailSender(meterRegistry);
+        mailSender.setHost("localhost");
+        mailSender.setPort(greenMail.getSmtp().getPort());
+        mailSender.setDefaultEncoding("UTF-8");
+
+        emailService = new EmailService();
+        ReflectionTestUtils.setField(emailService, "mailSender", mailSender);
+        ReflectionTestUtils.setField(emailService, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(emailService, "fromEmail", "noreply@earaconnect.local");
+        emailService.registerMetrics();
+    }
+
+    @Test
+    void bulkInvitationAndReportNotificationLoad() throws Exception {
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>(MESSAGES));
+        AtomicInteger failures = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(CONCURRENCY);
+
+        long start = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>(MESSAGES);
+        for (int i = 0; i < MESSAGES; i++) {
+            final int n = i;
+            futures.add(pool.submit(() -> {
+                long sendStart = System.nanoTime();
+                try {
+                    String email = "delegate" + n + "@earaconnect.local";
+                    if (n % 2 == 0) {
+                        emailService.sendMeetingInvitation(email, "Delegate " + n,
+                                "Technical Meeting " + n, "2026-11-02T09:00", "Arusha");
+                    } else {
+                        emailService.sendReportNotification(email, "Delegate " + n,
+                                "Resolution " + n, "submitted for your review");
+                    }
+                } catch (RuntimeException e) {
+                    failures.incrementAndGet();
+                } finally {
+                    latencies.add(System.nanoTime() - sendStart);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        pool.shutdown();
+
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        double seconds = elapsed / 1_000_000_000.0;
+
+        System.out.printf("📧 Email load: %d messages, concurrency %d, %.1f msg/s, p50 %.1f ms, p99 %.1f ms, max %.1f ms%n",
+                MESSAGES, CONCURRENCY, MESSAGES / seconds,
+                percentileMillis(sorted, 0.50), percentileMillis(sorted, 0.99), percentileMillis(sorted, 1.0));
+        printTimer("email.smtp.connect");
+        printTimer("email.smtp.transmit");
+
+        assertEquals(0, failures.get(), "no send should fail against the local SMTP server");
+        assertTrue(greenMail.waitForIncomingEmail(10_000, MESSAGES));
+        assertEquals(MESSAGES / 2 + MESSAGES % 2, meterRegistry.get("email.send")
+                .tags("template", "meeting-invitation", "outcome", "success").timer().count());
+        assertEquals(MESSAGES / 2, meterRegistry.get("email.send")
+                .tags("template", "report-notification", "outcome", "success").timer().count());
+        assertEquals(0.0, meterRegistry.get("email.inflight").gauge().value());
+    }
+
+    private void printTimer(String name) {
+        Timer timer = meterRegistry.find(name).timer();
+        if (timer != null) {
+            System.out.printf("   %s: count %d, mean %.2f ms, max %.2f ms%n", name, timer.count(),
+                    timer.mean(TimeUnit.MILLISECONDS), timer.max(TimeUnit.MILLISECONDS));
+        }
+    }
+
+    private static double percentileMillis(List<Long> sortedNanos, double percentile) {
+        if (sortedNanos.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sortedNanos.size()) - 1;
+        return sortedNanos.get(Math.max(index, 0)) / 1_000_000.0;
+    }
+}
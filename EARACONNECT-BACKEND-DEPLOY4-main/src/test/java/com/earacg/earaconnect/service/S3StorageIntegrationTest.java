@@ -0,0 +1,100 @@
+package com.earacg.earaconnect.service;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.testcontainers.containers.MinIOContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.model.CreateBucketRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * S3Storage against a MinIO container, configured the way StorageConfig does for an
+ * S3-compatible endpoint (path-style addressing). Skipped when Docker is not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class S3StorageIntegrationTest {
+
+    private static final String BUCKET = "earaconnect-test";
+
+    @Container
+    static MinIOContainer minio = new MinIOContainer("minio/minio:RELEASE.2024-01-16T16-07-38Z");
+
+    private static S3Client client;
+    private static S3Storage storage;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeAll
+    static void setUp() {
+        client = S3Client.builder()
+                .region(Region.US_EAST_1)
+                .endpointOverride(URI.create(minio.getS3URL()))
+                .serviceConfiguration(S3Configuration.builder().pathStyleAccessEnabled(true).build())
+                .credentialsProvider(StaticCredentialsProvider.create(
+                        AwsBasicCredentials.create(minio.getUserName(), minio.getPassword())))
+                .build();
+        client.createBucket(CreateBucketRequest.builder().bucket(BUCKET).build());
+        storage = new S3Storage(client, BUCKET, "uploads");
+    }
+
+    @AfterAll
+    static void tearDown() {
+        if (client != null) {
+            client.close();
+        }
+    }
+
+    @Test
+    void putThenReadBackWholeAndRanged() throws IOException {
+        byte[] body = "0123456789abcdefghij".getBytes(StandardCharsets.US_ASCII);
+        Path source = Files.write(tempDir.resolve("body.bin"), body);
+
+        storage.put("blobs/ab/cd/abcd", source, "application/octet-stream");
+
+        assertFalse(Files.exists(source), "put hands the staged file over");
+        assertTrue(storage.exists("blobs/ab/cd/abcd"));
+        assertEquals(body.length, storage.size("blobs/ab/cd/abcd"));
+        try (InputStream in = storage.open("blobs/ab/cd/abcd")) {
+            assertArrayEquals(body, in.readAllBytes());
+        }
+        try (InputStream in = storage.openRange("blobs/ab/cd/abcd", 10, 5)) {
+            assertArrayEquals("abcde".getBytes(StandardCharsets.US_ASCII), in.readAllBytes());
+        }
+        assertEquals("s3://" + BUCKET + "/uploads/blobs/ab/cd/abcd", storage.describe("blobs/ab/cd/abcd"));
+        assertTrue(storage.localPath("blobs/ab/cd/abcd").isEmpty());
+    }
+
+    @Test
+    void missingObjectsReportAbsentAndDeleteIsIdempotent() throws IOException {
+        Path source = Files.write(tempDir.resolve("gone.bin"), new byte[] { 1, 2, 3 });
+        storage.put("documents/gone.bin", source, null);
+
+        storage.delete("documents/gone.bin");
+        storage.delete("documents/gone.bin");
+
+        assertFalse(storage.exists("documents/gone.bin"));
+        assertEquals(-1, storage.size("documents/gone.bin"));
+        assertThrows(IOException.class, () -> storage.open("documents/gone.bin").close());
+    }
+}
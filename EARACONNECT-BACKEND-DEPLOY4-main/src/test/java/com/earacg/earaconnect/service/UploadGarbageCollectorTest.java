@@ -0,0 +1,111 @@
+package com.earacg.earaconnect.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.sql.ResultSet;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * One mark-and-sweep pass of UploadGarbageCollector over a temporary upload directory,
+ * with the referencing rows served from a stubbed JdbcTemplate.
+ */
+class UploadGarbageCollectorTest {
+
+    @TempDir
+    Path uploadDir;
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final StorageBackend storage = mock(StorageBackend.class);
+    private final ProfilePictureDerivativeService derivativeService = mock(ProfilePictureDerivativeService.class);
+
+    private UploadGarbageCollector collector;
+
+    @BeforeEach
+    void setUp() {
+        collector = new UploadGarbageCollector(jdbcTemplate, storage, derivativeService);
+        ReflectionTestUtils.setField(collector, "uploadDir", uploadDir.toString());
+        ReflectionTestUtils.setField(collector, "graceHours", 24L);
+        ReflectionTestUtils.setField(collector, "mode", "quarantine");
+        ReflectionTestUtils.setField(collector, "batchSize", 100);
+        ReflectionTestUtils.setField(collector, "batchPauseMs", 0L);
+        ReflectionTestUtils.setField(collector, "quarantineDays", 30);
+    }
+
+    @Test
+    void keepsLegacyDocumentWhoseRecordedPathPointsElsewhere() throws Exception {
+        // Uploaded when the deploy dir was somewhere else; still served from uploadDir/stored_filename
+        Path live = oldFile(uploadDir.resolve("3f1c-legacy.pdf"));
+        Path orphan = oldFile(uploadDir.resolve("9a7e-orphan.pdf"));
+        documentRows(List.of(Map.of(
+                "file_path", "/srv/old-deploy/uploads/3f1c-legacy.pdf",
+                "stored_filename", "3f1c-legacy.pdf")));
+
+        UploadGarbageCollector.GcReport report = collector.collect(false);
+
+        assertTrue(Files.exists(live), "live legacy document must survive the sweep");
+        assertFalse(Files.exists(orphan));
+        assertTrue(Files.exists(uploadDir.resolve(".quarantine").resolve(LocalDate.now().toString())
+                .resolve("9a7e-orphan.pdf")));
+        assertEquals(2, report.getScanned());
+        assertEquals(1, report.getOrphans());
+        assertEquals(1, report.getRetired());
+    }
+
+    @Test
+    void dryRunOnlyReports() throws Exception {
+        Path orphan = oldFile(uploadDir.resolve("9a7e-orphan.pdf"));
+        documentRows(List.of());
+
+        UploadGarbageCollector.GcReport report = collector.collect(true);
+
+        assertTrue(Files.exists(orphan));
+        assertEquals(1, report.getOrphans());
+        assertEquals(0, report.getRetired());
+    }
+
+    private Path oldFile(Path file) throws IOException {
+        Files.writeString(file, "body");
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().minus(2, ChronoUnit.DAYS)));
+        return file;
+    }
+
+    /**
+     * Serve the given rows to the documents query and nothing to the other mark queries
+     */
+    private void documentRows(List<Map<String, String>> rows) {
+        doAnswer(invocation -> {
+            String sql = invocation.getArgument(0);
+            RowCallbackHandler handler = invocation.getArgument(1);
+            if (sql.contains("FROM documents")) {
+                for (Map<String, String> row : rows) {
+                    ResultSet rs = mock(ResultSet.class);
+                    when(rs.getString(anyString())).thenAnswer(call -> row.get(call.<String>getArgument(0)));
+                    handler.processRow(rs);
+                }
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+    }
+}
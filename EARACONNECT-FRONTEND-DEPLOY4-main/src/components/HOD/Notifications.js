@@ -12,6 +12,8 @@ import {
 } from '@heroicons/react/24/outline';
 import { BellIcon as BellSolidIcon } from '@heroicons/react/24/solid';
 import http from '../../services/http';
+import AuthService from '../../services/authService';
+import NotificationService from '../../services/notificationService';
 
 const Notifications = () => {
   // State management
@@ -22,8 +24,8 @@ const Notifications = () => {
   const [selectedNotification, setSelectedNotification] = useState(null);
   const [showModal, setShowModal] = useState(false);
 
-  // WebSocket connection for real-time updates
-  const [ws, setWs] = useState(null);
+  // Server-sent event stream for real-time updates
+  const [live, setLive] = useState(false);
 
   // Fetch notifications from API
   const fetchNotifications = useCallback(async () => {
@@ -40,50 +42,14 @@ const Notifications = () => {
     }
   }, []);
 
-  // Initialize WebSocket connection for real-time updates
+  // Refresh on server-sent events for real-time updates
   useEffect(() => {
-    const protocol = window.location.protocol === 'https:' ? 'wss:' : 'ws:';
-    const wsUrl = `${protocol}//${window.location.host}/ws/notifications`;
-    
-    try {
-      const websocket = new WebSocket(wsUrl);
-      
-      websocket.onopen = () => {
-        console.log('WebSocket connected for notifications');
-        setWs(websocket);
-      };
-      
-      websocket.onmessage = (event) => {
-        try {
-          const newNotification = JSON.parse(event.data);
-          setNotifications(prev => [newNotification, ...prev]);
-          toast.info('New notification received!');
-        } catch (error) {
-          console.error('Error parsing WebSocket message:', error);
-        }
-      };
-      
-      websocket.onerror = (error) => {
-        console.error('WebSocket error:', error);
-      };
-      
-      websocket.onclose = () => {
-        console.log('WebSocket connection closed');
-        setWs(null);
-      };
-      
-    } catch (error) {
-      console.error('Failed to establish WebSocket connection:', error);
-      // Fallback to polling if WebSocket fails
-      const interval = setInterval(fetchNotifications, 30000); // Poll every 30 seconds
-      return () => clearInterval(interval);
-    }
-
-    return () => {
-      if (ws) {
-        ws.close();
-      }
-    };
+    return NotificationService.watch(AuthService.getCurrentUser()?.id, {
+      onNotifications: fetchNotifications,
+      onMeetings: fetchNotifications,
+      onOpen: () => setLive(true),
+      onError: () => setLive(false)
+    });
   }, [fetchNotifications]);
 
   // Initial data fetch
@@ -484,11 +450,11 @@ const Notifications = () => {
         </div>
       )}
 
-      {/* WebSocket Status Indicator */}
+      {/* Stream Status Indicator */}
       <div className="px-6 py-2 bg-gray-50 border-t">
         <div className="flex items-center justify-between text-xs text-gray-500">
           <span>
-            {ws ? (
+            {live ? (
               <span className="flex items-center">
                 <span className="h-2 w-2 bg-green-400 rounded-full mr-2"></span>
                 Real-time updates active
@@ -18,10 +18,11 @@ import {
 import { 
   CheckCircleIcon, 
   XCircleIcon, 
-  ClockIcon as ClockSolidIcon,
-  BellIcon as BellSolidIcon 
+  ClockIcon as ClockSolidIcon
 } from '@heroicons/react/24/solid';
 import http from '../../services/http';
+import AuthService from '../../services/authService';
+import NotificationService from '../../services/notificationService';
 
 const HodReportListView = () => {
   // State management
@@ -41,9 +42,8 @@ const HodReportListView = () => {
     dateRange: 'all'
   });
 
-  // WebSocket connection for real-time updates
-  const [ws, setWs] = useState(null);
-  const [connectionStatus, setConnectionStatus] = useState('disconnected');
+  // Server-sent event stream for real-time updates
+  const [connectionStatus, setConnectionStatus] = useState('connecting');
 
   // Fetch all reports from API
   const fetchReports = useCallback(async () => {
@@ -74,105 +74,13 @@ const HodReportListView = () => {
     }
   }, []);
 
-  // Initialize WebSocket connection for real-time updates
+  // Refresh on server-sent events for real-time updates; the browser reconnects on its own
   useEffect(() => {
-    const protocol = window.location.protocol === 'https:' ? 'wss:' : 'ws:';
-    const wsUrl = `${protocol}//${window.location.host}/ws/hod-reports`;
-    
-    let reconnectAttempts = 0;
-    const maxReconnectAttempts = 5;
-    const reconnectInterval = 5000;
-
-    const connectWebSocket = () => {
-      try {
-        setConnectionStatus('connecting');
-        const websocket = new WebSocket(wsUrl);
-        
-        websocket.onopen = () => {
-          console.log('HOD Reports WebSocket connected');
-          setWs(websocket);
-          setConnectionStatus('connected');
-          reconnectAttempts = 0;
-        };
-        
-        websocket.onmessage = (event) => {
-          try {
-            const update = JSON.parse(event.data);
-            
-            if (update.type === 'NEW_REPORT') {
-              // Add new report to the list
-              setReports(prev => [update.report, ...prev]);
-              setNewReportCount(prev => prev + 1);
-              
-              // Show notification toast
-              toast.info(
-                <div className="flex items-center space-x-2">
-                  <BellSolidIcon className="h-5 w-5 text-blue-500" />
-                  <div>
-                    <p className="font-medium">New Report Submitted</p>
-                    <p className="text-sm text-gray-600">
-                      {update.report.chairName} - {update.report.subcommittee}
-                    </p>
-                  </div>
-                </div>,
-                {
-                  position: 'top-right',
-                  autoClose: 8000,
-                  hideProgressBar: false,
-                  closeOnClick: true,
-                  pauseOnHover: true,
-                  draggable: true,
-                }
-              );
-            } else if (update.type === 'REPORT_UPDATE') {
-              // Update existing report
-              setReports(prev => prev.map(r => 
-                r.id === update.reportId ? { ...r, ...update.changes } : r
-              ));
-            }
-            
-          } catch (error) {
-            console.error('Error parsing WebSocket message:', error);
-          }
-        };
-        
-        websocket.onerror = (error) => {
-          console.error('HOD Reports WebSocket error:', error);
-          setConnectionStatus('error');
-        };
-        
-        websocket.onclose = (event) => {
-          console.log('HOD Reports WebSocket connection closed');
-          setWs(null);
-          setConnectionStatus('disconnected');
-          
-          // Attempt to reconnect
-          if (reconnectAttempts < maxReconnectAttempts) {
-            reconnectAttempts++;
-            console.log(`Attempting to reconnect... (${reconnectAttempts}/${maxReconnectAttempts})`);
-            setTimeout(connectWebSocket, reconnectInterval);
-          } else {
-            setConnectionStatus('failed');
-            toast.warn('Real-time updates unavailable. Please refresh manually.');
-          }
-        };
-        
-      } catch (error) {
-        console.error('Failed to establish WebSocket connection:', error);
-        setConnectionStatus('failed');
-        // Fallback to polling every 30 seconds
-        const pollInterval = setInterval(fetchReports, 30000);
-        return () => clearInterval(pollInterval);
-      }
-    };
-
-    connectWebSocket();
-
-    return () => {
-      if (ws) {
-        ws.close();
-      }
-    };
+    return NotificationService.watch(AuthService.getCurrentUser()?.id, {
+      onReports: fetchReports,
+      onOpen: () => setConnectionStatus('connected'),
+      onError: () => setConnectionStatus('disconnected')
+    });
   }, [fetchReports]);
 
   // Initial data fetch
@@ -1,6 +1,8 @@
 import React, { createContext, useContext, useReducer, useEffect } from 'react';
 import { toast } from 'react-toastify';
 import http from '../services/http';
+import AuthService from '../services/authService';
+import NotificationService from '../services/notificationService';
 
 // Initial state
 const initialState = {
@@ -251,54 +253,13 @@ export const HODProvider = ({ children }) => {
     }
   };
 
-  // WebSocket connection for real-time updates
+  // Refresh notifications on server-sent events instead of polling
   useEffect(() => {
-    const protocol = window.location.protocol === 'https:' ? 'wss:' : 'ws:';
-    const wsUrl = `${protocol}//${window.location.host}/ws/notifications`;
-    
-    let websocket;
-    
-    try {
-      websocket = new WebSocket(wsUrl);
-      
-      websocket.onopen = () => {
-        console.log('WebSocket connected for HOD context');
-      };
-      
-      websocket.onmessage = (event) => {
-        try {
-          const notification = JSON.parse(event.data);
-          dispatch({ type: actionTypes.ADD_NOTIFICATION, payload: notification });
-          toast.info('New notification received!');
-        } catch (error) {
-          console.error('Error parsing WebSocket message:', error);
-        }
-      };
-      
-      websocket.onerror = (error) => {
-        console.error('WebSocket error:', error);
-      };
-      
-    } catch (error) {
-      console.error('Failed to establish WebSocket connection:', error);
-    }
-
-    return () => {
-      if (websocket) {
-        websocket.close();
-      }
-    };
-  }, []);
-
-  // Periodic refresh for notifications and reports
-  useEffect(() => {
-    const interval = setInterval(() => {
-      api.fetchNotifications().catch(() => {
-        // Silently handle errors for periodic updates
-      });
-    }, 30000); // Every 30 seconds
-
-    return () => clearInterval(interval);
+    return NotificationService.watch(AuthService.getCurrentUser()?.id, {
+      onNotifications: () => api.fetchNotifications().catch(() => {
+        // Silently handle errors for background refreshes
+      })
+    });
   }, []);
 
   // Context value
@@ -1,6 +1,8 @@
 import { useState, useEffect, useCallback } from 'react';
 import { toast } from 'react-toastify';
 import http from '../services/http';
+import AuthService from '../services/authService';
+import NotificationService from '../services/notificationService';
 
 // Custom hook for HOD-specific functionality
 export const useHODReports = () => {
@@ -169,43 +171,11 @@ export const useHODNotifications = () => {
     }
   }, []);
 
-  // WebSocket connection for real-time updates
-  useEffect(() => {
-    const protocol = window.location.protocol === 'https:' ? 'wss:' : 'ws:';
-    const wsUrl = `${protocol}//${window.location.host}/ws/notifications`;
-    
-    let websocket;
-    
-    try {
-      websocket = new WebSocket(wsUrl);
-      
-      websocket.onmessage = (event) => {
-        try {
-          const newNotification = JSON.parse(event.data);
-          setNotifications(prev => [newNotification, ...prev]);
-          setUnreadCount(prev => prev + 1);
-          toast.info('New notification received!');
-        } catch (error) {
-          console.error('Error parsing WebSocket message:', error);
-        }
-      };
-    } catch (error) {
-      console.error('Failed to establish WebSocket connection:', error);
-    }
-
-    return () => {
-      if (websocket) {
-        websocket.close();
-      }
-    };
-  }, []);
-
   useEffect(() => {
     fetchNotifications();
-    
-    // Set up periodic refresh
-    const interval = setInterval(fetchNotifications, 30000);
-    return () => clearInterval(interval);
+
+    // Refresh on server-sent events instead of polling
+    return NotificationService.watch(AuthService.getCurrentUser()?.id, { onNotifications: fetchNotifications });
   }, [fetchNotifications]);
 
   return {
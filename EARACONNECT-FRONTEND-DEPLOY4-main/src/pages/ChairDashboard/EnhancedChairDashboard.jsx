@@ -8,6 +8,7 @@ import {
 } from 'react-icons/fa';
 import ChairService from '../../services/chairService';
 import ProfileService from '../../services/profileService';
+import NotificationService from '../../services/notificationService';
 import './EnhancedChairDashboard.css';
 
 const EnhancedChairDashboard = () => {
@@ -87,12 +88,8 @@ const EnhancedChairDashboard = () => {
   useEffect(() => {
     initializeDashboard();
     
-    // Set up notification polling every 30 seconds
-    const notificationInterval = setInterval(() => {
-      fetchNotifications();
-    }, 30000);
-
-    return () => clearInterval(notificationInterval);
+    // Refresh notifications on server-sent events instead of polling
+    return NotificationService.watch(currentUser?.id, { onNotifications: fetchNotifications });
   }, []);
 
   const initializeDashboard = async () => {
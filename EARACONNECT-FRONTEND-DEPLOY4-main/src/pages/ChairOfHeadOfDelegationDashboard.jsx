@@ -11,6 +11,7 @@ import {
 import HODService from '../services/hodService';
 import AuthService from '../services/authService';
 import ProfileService from '../services/profileService';
+import NotificationService from '../services/notificationService';
 import './ChairOfHeadOfDelegationDashboard.css';
 import { useNavigate } from 'react-router-dom';
 
@@ -122,24 +123,11 @@ const ChairOfHeadOfDelegationDashboard = () => {
     initializeDashboard();
     fetchUserProfile();
     
-    // Set up polling intervals
-    const notificationInterval = setInterval(() => {
-      fetchNotifications();
-    }, 30000);
-
-    const reportsInterval = setInterval(() => {
-      fetchReports();
-    }, 120000);
-
-    const statsInterval = setInterval(() => {
-      fetchDashboardStats();
-    }, 300000);
-
-    return () => {
-      clearInterval(notificationInterval);
-      clearInterval(reportsInterval);
-      clearInterval(statsInterval);
-    };
+    // Refresh on server-sent events instead of polling
+    return NotificationService.watch(currentUser?.id, {
+      onNotifications: fetchNotifications,
+      onReports: () => Promise.all([fetchReports(), fetchDashboardStats()])
+    });
   }, []);
 
   const initializeDashboard = async () => {
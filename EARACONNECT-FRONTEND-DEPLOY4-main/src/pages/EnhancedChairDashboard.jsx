@@ -10,6 +10,7 @@ import {
 import ChairService from '../services/chairService';
 import AuthService from '../services/authService';
 import ProfileService from '../services/profileService';
+import NotificationService from '../services/notificationService';
 import './ChairDashboard.css';
 import { useNavigate } from 'react-router-dom';
 
@@ -84,12 +85,8 @@ const EnhancedChairDashboard = () => {
     fetchData();
     fetchUserProfile();
     
-    // Set up notification polling every 30 seconds
-    const notificationInterval = setInterval(() => {
-      fetchNotifications();
-    }, 30000);
-
-    return () => clearInterval(notificationInterval);
+    // Refresh notifications on server-sent events instead of polling
+    return NotificationService.watch(mockUser.id, { onNotifications: fetchNotifications });
   }, []);
 
   const initializeDashboard = async () => {
@@ -11,6 +11,7 @@ import HODService from '../services/hodService';
 import HODPermissionService from '../services/hodPermissionService';
 import AuthService from '../services/authService';
 import ProfileService from '../services/profileService';
+import NotificationService from '../services/notificationService';
 import './HODDashboard.css';
 import { useNavigate } from 'react-router-dom';
 
@@ -251,30 +252,11 @@ const EnhancedHODDashboard = () => {
   useEffect(() => {
     if (!currentUser?.id) return;
     
-    // Set up polling intervals only if user exists
-    const notificationInterval = setInterval(() => {
-      if (currentUser?.id) {
-        fetchNotifications();
-      }
-    }, 30000);
-
-    const reportsInterval = setInterval(() => {
-      if (currentUser?.id) {
-        fetchReports();
-      }
-    }, 120000);
-
-    const statsInterval = setInterval(() => {
-      if (currentUser?.id) {
-        fetchDashboardStats();
-      }
-    }, 300000);
-
-    return () => {
-      clearInterval(notificationInterval);
-      clearInterval(reportsInterval);
-      clearInterval(statsInterval);
-    };
+    // Refresh on server-sent events instead of polling
+    return NotificationService.watch(currentUser.id, {
+      onNotifications: fetchNotifications,
+      onReports: () => Promise.all([fetchReports(), fetchDashboardStats()])
+    });
   }, [currentUser?.id, fetchNotifications, fetchReports, fetchDashboardStats]);
 
   const handleFilterChange = (key, value) => {
@@ -12,6 +12,7 @@ import {
 import MemberService from '../services/memberService';
 import AuthService from '../services/authService';
 import ProfileService from '../services/profileService';
+import NotificationService from '../services/notificationService';
 import './MemberDashboard.css';
 import { useNavigate } from 'react-router-dom';
 
@@ -95,23 +96,12 @@ const EnhancedMemberDashboard = () => {
       console.warn('⚠️ EnhancedMemberDashboard: No authenticated user found');
     }
     
-    // Set up polling intervals
-    const notificationInterval = setInterval(() => {
-      if (currentUser?.id) {
-        fetchNotifications();
-      }
-    }, 30000);
-
-    const statsInterval = setInterval(() => {
-      if (currentUser?.id) {
-        fetchDashboardStats();
-      }
-    }, 300000);
-
-    return () => {
-      clearInterval(notificationInterval);
-      clearInterval(statsInterval);
-    };
+    // Refresh on server-sent events instead of polling
+    return NotificationService.watch(currentUser?.id, {
+      onNotifications: fetchNotifications,
+      onReports: fetchDashboardStats,
+      onMeetings: fetchDashboardStats
+    });
   }, [currentUser?.id]);
 
   const initializeDashboard = async () => {
@@ -307,26 +307,87 @@ export class NotificationService {
   }
 
   /**
-   * Polling service for real-time notifications
+   * Subscribe to the server-sent event stream for a user.
+   * The browser reconnects automatically and resumes from the last event id.
+   * Returns a cleanup function.
+   */
+  static subscribe(userId, handlers = {}) {
+    if (typeof EventSource === 'undefined') return null;
+
+    const source = new EventSource(`${API_BASE}/notifications/user/${userId}/stream`, { withCredentials: true });
+    const listen = (eventName, handler) => {
+      if (!handler) return;
+      source.addEventListener(eventName, (event) => {
+        try {
+          handler(JSON.parse(event.data));
+        } catch (error) {
+          console.error(`Error parsing ${eventName} event:`, error);
+        }
+      });
+    };
+
+    listen('notification', handlers.onNotification);
+    listen('notifications-updated', handlers.onNotificationsUpdated);
+    listen('report', handlers.onReport);
+    listen('meeting', handlers.onMeeting);
+    if (handlers.onOpen) source.onopen = handlers.onOpen;
+    if (handlers.onError) source.onerror = handlers.onError;
+
+    return () => source.close();
+  }
+
+  /**
+   * Re-fetch dashboard data when the stream reports a change, instead of polling on a timer.
+   * onNotifications runs on notification events, onReports on report events and on notifications
+   * about a report, onMeetings on meeting events. Without EventSource every callback is polled
+   * at fallbackInterval instead. onOpen/onError report the connection state. Returns a cleanup function.
+   */
+  static watch(userId, { onNotifications, onReports, onMeetings, onOpen, onError } = {}, fallbackInterval = 30000) {
+    if (!userId) return () => {};
+    const run = (callback) => {
+      if (!callback) return;
+      Promise.resolve()
+        .then(callback)
+        .catch((error) => console.error('Refresh after stream event failed:', error));
+    };
+
+    const unsubscribe = this.subscribe(userId, {
+      onNotification: (notification) => {
+        run(onNotifications);
+        if (notification?.relatedEntityType === 'Report') run(onReports);
+      },
+      onNotificationsUpdated: () => run(onNotifications),
+      onReport: () => run(onReports),
+      onMeeting: () => run(onMeetings),
+      onOpen,
+      onError
+    });
+    if (unsubscribe) return unsubscribe;
+
+    const intervalId = setInterval(() => {
+      run(onNotifications);
+      run(onReports);
+      run(onMeetings);
+    }, fallbackInterval);
+    return () => clearInterval(intervalId);
+  }
+
+  /**
+   * Real-time unread count: refreshes on stream events, falls back to polling without EventSource
    */
   static startPolling(userId, callback, interval = 30000) {
-    const poll = async () => {
+    const refresh = async () => {
       try {
-        const unreadCount = await this.getUnreadCount(userId);
-        callback(unreadCount);
+        callback(await this.getUnreadCount(userId));
       } catch (error) {
-        console.error('Polling error:', error);
+        console.error('Unread count refresh error:', error);
       }
     };
 
     // Initial poll
-    poll();
+    refresh();
 
-    // Set up interval
-    const intervalId = setInterval(poll, interval);
-
-    // Return cleanup function
-    return () => clearInterval(intervalId);
+    return this.watch(userId, { onNotifications: refresh }, interval);
   }
 }
 